@@ -0,0 +1,193 @@
+package com.example.EthanApiPlugin.Collections;
+
+import com.example.EthanApiPlugin.Collections.query.NPCQuery;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.runelite.api.*;
+import net.runelite.client.RuneLite;
+import net.runelite.client.util.Text;
+
+import java.util.*;
+
+//Caches the action list of object, npc and item compositions as a normalized action -> op map so action filters
+//and action -> opcode resolution are a hash lookup instead of a stream over the composition every call.
+//Objects are keyed by their base id with the impostor already applied, so those entries are dropped again by
+//ObjectCompositions when the varbit or varp that picks the impostor changes. NPCs are keyed by their transformed
+//composition id and never go stale.
+public class ActionIndex {
+    static Client client = RuneLite.getInjector().getInstance(Client.class);
+    private static final int MAX_ENTRIES = 4096;
+    private static final Cache<Integer, Actions> objects = CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).build();
+    private static final Cache<Integer, Actions> npcs = CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).build();
+    private static final Cache<Integer, Actions> items = CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).build();
+
+    public static Actions object(TileObject tileObject) {
+        if (tileObject == null) {
+            return null;
+        }
+        return object(tileObject.getId());
+    }
+
+    public static Actions object(int objectId) {
+        Actions actions = objects.getIfPresent(objectId);
+        if (actions != null) {
+            return actions;
+        }
+        ObjectComposition resolved = ObjectCompositions.resolve(objectId);
+        if (resolved == null) {
+            return null;
+        }
+        actions = new Actions(resolved.getActions(), null);
+        objects.put(objectId, actions);
+        return actions;
+    }
+
+    public static Actions npc(NPC npc) {
+        if (npc == null) {
+            return null;
+        }
+        NPCComposition composition = NPCQuery.getNPCComposition(npc);
+        if (composition == null) {
+            return null;
+        }
+        Actions actions = npcs.getIfPresent(composition.getId());
+        if (actions == null) {
+            actions = new Actions(composition.getActions(), null);
+            npcs.put(composition.getId(), actions);
+        }
+        return actions;
+    }
+
+    public static Actions item(int itemId) {
+        if (itemId == -1) {
+            return null;
+        }
+        Actions actions = items.getIfPresent(itemId);
+        if (actions == null) {
+            ItemComposition composition = client.getItemDefinition(itemId);
+            if (composition == null) {
+                return null;
+            }
+            actions = new Actions(composition.getInventoryActions(), composition.getSubops());
+            items.put(itemId, actions);
+        }
+        return actions;
+    }
+
+    //1 based op of the last action in the array matching any of the wanted actions, -1 if none match.
+    //For widget action arrays which aren't tied to a composition and so aren't cached.
+    public static int op(String[] actions, String... wanted) {
+        if (actions == null) {
+            return -1;
+        }
+        int num = -1;
+        for (int i = 0; i < actions.length; i++) {
+            if (actions[i] == null) {
+                continue;
+            }
+            String action = normalize(actions[i]);
+            for (String w : wanted) {
+                if (w != null && action.equals(normalize(w))) {
+                    num = i + 1;
+                    break;
+                }
+            }
+        }
+        return num;
+    }
+
+    //1 based op of the first action in the array matching, -1 if none match. queueWidgetSubAction has always taken the
+    //first of duplicate menu entries where queueWidgetAction takes the last
+    public static int firstOp(String[] actions, String wanted) {
+        if (actions == null || wanted == null) {
+            return -1;
+        }
+        String w = normalize(wanted);
+        for (int i = 0; i < actions.length; i++) {
+            if (actions[i] != null && normalize(actions[i]).equals(w)) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    public static String normalize(String action) {
+        return Text.removeTags(action).toLowerCase();
+    }
+
+    //called by ObjectCompositions when the varbit or varp behind these objects' impostors changes
+    static void invalidateObjects(Set<Integer> objectIds) {
+        objects.invalidateAll(objectIds);
+    }
+
+    public static final class Actions {
+        private final Map<String, Integer> ops;
+        private final Map<String, Integer> subOps;
+        private final int mask;
+
+        Actions(String[] actions, String[][] subOpRows) {
+            Map<String, Integer> ops = new HashMap<>();
+            int mask = 0;
+            if (actions != null) {
+                for (int i = 0; i < actions.length; i++) {
+                    if (actions[i] == null) {
+                        continue;
+                    }
+                    ops.putIfAbsent(normalize(actions[i]), i + 1);
+                    mask |= 1 << i;
+                }
+            }
+            Map<String, Integer> subOps = Collections.emptyMap();
+            if (subOpRows != null) {
+                subOps = new HashMap<>();
+                for (String[] row : subOpRows) {
+                    if (row == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < row.length; i++) {
+                        if (row[i] != null) {
+                            subOps.putIfAbsent(normalize(row[i]), i);
+                        }
+                    }
+                }
+            }
+            this.ops = ops;
+            this.subOps = subOps;
+            this.mask = mask;
+        }
+
+        public boolean has(String action) {
+            return action != null && ops.containsKey(normalize(action));
+        }
+
+        //1 based op for the action, -1 if the composition doesn't have it
+        public int op(String action) {
+            if (action == null) {
+                return -1;
+            }
+            return ops.getOrDefault(normalize(action), -1);
+        }
+
+        //same as the old nested loop, the match that sits furthest down the action list wins
+        public int op(String... actions) {
+            int num = -1;
+            for (String action : actions) {
+                num = Math.max(num, op(action));
+            }
+            return num;
+        }
+
+        //index of the action inside its sub op row, -1 if there is none
+        public int subOp(String action) {
+            if (action == null) {
+                return -1;
+            }
+            return subOps.getOrDefault(normalize(action), -1);
+        }
+
+        //bit n set means op n + 1 exists
+        public int getMask() {
+            return mask;
+        }
+    }
+}
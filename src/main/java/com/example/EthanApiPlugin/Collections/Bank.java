@@ -1,58 +1,141 @@
 package com.example.EthanApiPlugin.Collections;
 
 import com.example.EthanApiPlugin.Collections.query.ItemQuery;
-import com.example.EthanApiPlugin.EthanApiPlugin;
+import com.example.EthanApiPlugin.Profiling.CollectionRefreshEvent;
+import com.example.EthanApiPlugin.Profiling.TickProfiler;
 import com.example.Packets.MousePackets;
 import com.example.Packets.WidgetPackets;
 import net.runelite.api.Client;
 import net.runelite.api.GameState;
 import net.runelite.api.InventoryID;
 import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
 import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.ItemContainerChanged;
 import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetInfo;
 import net.runelite.client.RuneLite;
 import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.util.Text;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
+import java.util.*;
 
 public class Bank {
     private static final int WITHDRAW_MODE = 3958;
     static Client client = RuneLite.getInjector().getInstance(Client.class);
-    static List<Widget> bankItems = new ArrayList<>();
+    static final ContainerStore store = new ContainerStore(Bank::view);
     boolean bankUpdate = true;
-    static int lastUpdateTick = 0;
+    static volatile Index index = new Index(store.contents());
+    static volatile boolean loaded = false;
 
     public static ItemQuery search() {
-        if (lastUpdateTick < client.getTickCount()) {
-            Bank.bankItems.clear();
-            int i = 0;
-            if(client.getItemContainer(InventoryID.BANK)==null){
+        long start = TickProfiler.begin();
+        try {
+            if (client.getItemContainer(InventoryID.BANK) == null) {
                 return new ItemQuery(new ArrayList<>());
             }
-            for (Item item : client.getItemContainer(InventoryID.BANK).getItems()) {
-                try {
-                    if (item == null) {
-                        i++;
-                        continue;
-                    }
-                    if (EthanApiPlugin.itemDefs.get(item.getId()).getPlaceholderTemplateId() == 14401) {
-                        i++;
-                        continue;
-                    }
-                    Bank.bankItems.add(new BankItemWidget(EthanApiPlugin.itemDefs.get(item.getId()).getName(), item.getId(), item.getQuantity(), i));
-                } catch (NullPointerException | ExecutionException ex) {
-                    //todo fix this
+            load();
+            return store.query();
+        } finally {
+            TickProfiler.end(TickProfiler.Component.BANK_SEARCH, start);
+        }
+    }
+
+    public static Optional<Widget> findId(int itemId) {
+        if (client.getItemContainer(InventoryID.BANK) == null) {
+            return Optional.empty();
+        }
+        load();
+        Index index = Bank.index;
+        Integer row = index.ids.get(itemId);
+        return row == null ? Optional.empty() : Optional.ofNullable(index.contents.widget(row));
+    }
+
+    //same match as ItemQuery.withName, tags are ignored and the case has to match
+    public static Optional<Widget> findName(String name) {
+        if (name == null || client.getItemContainer(InventoryID.BANK) == null) {
+            return Optional.empty();
+        }
+        load();
+        Index index = Bank.index;
+        String stripped = Text.removeTags(name);
+        List<Integer> candidates = index.names.get(stripped.toLowerCase());
+        if (candidates == null) {
+            return Optional.empty();
+        }
+        for (int row : candidates) {
+            Widget widget = index.contents.widget(row);
+            if (widget != null && Text.removeTags(widget.getName()).equals(stripped)) {
+                return Optional.of(widget);
+            }
+        }
+        return Optional.empty();
+    }
+
+    //picks up the container when the bank was already open before the plugin started
+    private static void load() {
+        if (loaded) {
+            return;
+        }
+        ItemContainer container = client.getItemContainer(InventoryID.BANK);
+        if (container != null) {
+            update(container.getItems());
+        }
+    }
+
+    //only slots whose item or quantity changed are looked up again, the indexes are rebuilt from the store rows
+    private static void update(Item[] items) {
+        CollectionRefreshEvent event = new CollectionRefreshEvent();
+        event.begin();
+        if (store.update(items, Bank::notPlaceholder) || !loaded) {
+            index = new Index(store.contents());
+        }
+        loaded = true;
+        if (event.shouldCommit()) {
+            event.collection = "Bank";
+            event.size = items.length;
+            event.commit();
+        }
+    }
+
+    private static boolean notPlaceholder(int itemId, int quantity) {
+        return !ItemMetaTable.isPlaceholder(itemId);
+    }
+
+    private static Widget view(int itemId, int quantity, int slot) {
+        return new BankItemWidget(slot, itemId, quantity);
+    }
+
+    @Subscribe
+    public void onItemContainerChanged(ItemContainerChanged e) {
+        if (e.getContainerId() != InventoryID.BANK.getId()) {
+            return;
+        }
+        long start = TickProfiler.begin();
+        try {
+            update(e.getItemContainer().getItems());
+        } finally {
+            TickProfiler.end(TickProfiler.Component.BANK_UPDATE, start);
+        }
+    }
+
+    static final class Index {
+        final ContainerStore.Contents contents;
+        final Map<Integer, Integer> ids = new HashMap<>();
+        final Map<String, List<Integer>> names = new HashMap<>();
+
+        //built on the client thread, so the names come straight from the table and the widgets are left for
+        //findId and findName to create
+        Index(ContainerStore.Contents contents) {
+            this.contents = contents;
+            for (int row = 0; row < contents.size(); row++) {
+                ids.putIfAbsent(contents.getId(row), row);
+                String name = ItemMetaTable.getLowerName(contents.getId(row));
+                if (name != null) {
+                    names.computeIfAbsent(name, k -> new ArrayList<>()).add(row);
                 }
-                i++;
             }
-            lastUpdateTick = client.getTickCount();
         }
-        return new ItemQuery(bankItems.stream().filter(Objects::nonNull).collect(Collectors.toList()));
     }
 
     public static boolean isOpen() {
@@ -63,7 +146,9 @@ public class Bank {
     @Subscribe
     public void onGameStateChanged(GameStateChanged gameStateChanged) {
         if (gameStateChanged.getGameState() == GameState.HOPPING || gameStateChanged.getGameState() == GameState.LOGIN_SCREEN || gameStateChanged.getGameState() == GameState.CONNECTION_LOST) {
-            Bank.bankItems.clear();
+            store.clear();
+            index = new Index(store.contents());
+            loaded = false;
         }
     }
 
@@ -11,18 +11,18 @@ import net.runelite.api.widgets.WidgetInfo;
 import javax.annotation.Nullable;
 import java.awt.*;
 
+//A view of one bank slot as it was in the ContainerStore version that made it. The store hands the same view to later
+//versions for as long as the slot's item and quantity don't change, so a bank refresh only allocates for the slots
+//that did.
 public class BankItemWidget implements Widget {
+    final int index;
+    final int itemId;
+    final int quantity;
 
-    int index;
-    String name;
-    int itemid;
-    int quantity;
-
-    BankItemWidget(String name, int itemid, int quantity, int index) {
-        this.name = name;
-        this.itemid = itemid;
-        this.quantity = quantity;
+    BankItemWidget(int index, int itemId, int quantity) {
         this.index = index;
+        this.itemId = itemId;
+        this.quantity = quantity;
     }
 
     @Override
@@ -161,7 +161,7 @@ public class BankItemWidget implements Widget {
 
     @Override
     public String getName() {
-        return name;
+        return ItemMetaTable.getName(getItemId());
     }
 
     @Override
@@ -311,7 +311,7 @@ public class BankItemWidget implements Widget {
 
     @Override
     public int getItemId() {
-        return itemid;
+        return itemId;
     }
 
     @Override
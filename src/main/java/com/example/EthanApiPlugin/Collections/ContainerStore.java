@@ -0,0 +1,288 @@
+package com.example.EthanApiPlugin.Collections;
+
+import com.example.EthanApiPlugin.Collections.query.ItemQuery;
+import net.runelite.api.Client;
+import net.runelite.api.Item;
+import net.runelite.api.widgets.Widget;
+import net.runelite.client.RuneLite;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+//Shared slot storage for the item collections. The occupied slots of a container are kept as parallel id, quantity
+//and slot arrays, placeholders (6512) and empty slots never make it in. Widgets are only looked up or created when a
+//query actually needs one, and a refresh that finds nothing changed keeps the previous contents and version.
+public class ContainerStore {
+    static Client client = RuneLite.getInjector().getInstance(Client.class);
+    private static final int[] NONE = new int[0];
+
+    private final WidgetFactory factory;
+    private volatile Contents contents = new Contents(0, NONE, NONE, NONE, 0, null, null, null, null, null, null);
+    private int lastUpdateTick = -1;
+
+    //for stores backed by a widget container, the children are the views
+    public ContainerStore() {
+        this(null);
+    }
+
+    //for stores backed by an item container, views are made by the factory the first time they're needed
+    public ContainerStore(WidgetFactory factory) {
+        this.factory = factory;
+    }
+
+    public Contents contents() {
+        return contents;
+    }
+
+    public int getVersion() {
+        return contents.version;
+    }
+
+    public ItemQuery query() {
+        return new ItemQuery(contents);
+    }
+
+    public ItemQuery search(int packedWidgetId) {
+        return search(packedWidgetId, null, null);
+    }
+
+    //refreshes from the container widget at most once a tick. rebuild is only run when upToDate says the children
+    //don't show the right items, which saves the script call on ticks where nothing moved.
+    public ItemQuery search(int packedWidgetId, Predicate<Widget[]> upToDate, Runnable rebuild) {
+        if (lastUpdateTick != client.getTickCount()) {
+            Widget container = client.getWidget(packedWidgetId);
+            if (container == null) {
+                clear();
+                return query();
+            }
+            Widget[] children = container.getDynamicChildren();
+            if (rebuild != null && (upToDate == null || !upToDate.test(children))) {
+                rebuild.run();
+                children = container.getDynamicChildren();
+            }
+            update(children);
+            lastUpdateTick = client.getTickCount();
+        }
+        return query();
+    }
+
+    //returns true when the contents changed
+    public boolean update(Widget[] children) {
+        Contents previous = contents;
+        int size = 0;
+        boolean same = children == previous.children;
+        if (children != null) {
+            for (int i = 0; i < children.length; i++) {
+                Widget child = children[i];
+                if (child == null || child.getItemId() == 6512 || child.getItemId() == -1) {
+                    continue;
+                }
+                if (same && (size >= previous.size || previous.ids[size] != child.getItemId()
+                        || previous.quantities[size] != child.getItemQuantity() || previous.slots[size] != i)) {
+                    same = false;
+                }
+                size++;
+            }
+        }
+        if (same && size == previous.size) {
+            return false;
+        }
+        int[] ids = new int[size];
+        int[] quantities = new int[size];
+        int[] slots = new int[size];
+        int row = 0;
+        for (int i = 0; children != null && i < children.length && row < size; i++) {
+            Widget child = children[i];
+            if (child == null || child.getItemId() == 6512 || child.getItemId() == -1) {
+                continue;
+            }
+            ids[row] = child.getItemId();
+            quantities[row] = child.getItemQuantity();
+            slots[row] = i;
+            row++;
+        }
+        contents = new Contents(previous.version + 1, ids, quantities, slots, row, children, null, null, null, null,
+                null);
+        return true;
+    }
+
+    //keep is only asked about slots whose item or quantity changed since the last update
+    public boolean update(Item[] items, SlotFilter keep) {
+        Contents previous = contents;
+        int length = items == null ? 0 : items.length;
+        int[] rawIds = new int[length];
+        int[] rawQuantities = new int[length];
+        boolean[] kept = new boolean[length];
+        Widget[] views = new Widget[length];
+        boolean changed = previous.rawIds == null || previous.rawIds.length != length;
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            Item item = items[i];
+            rawIds[i] = item == null ? -1 : item.getId();
+            rawQuantities[i] = item == null ? 0 : item.getQuantity();
+            if (previous.rawIds != null && i < previous.rawIds.length && previous.rawIds[i] == rawIds[i]
+                    && previous.rawQuantities[i] == rawQuantities[i]) {
+                kept[i] = previous.kept[i];
+                views[i] = previous.views[i];
+            } else {
+                changed = true;
+                kept[i] = rawIds[i] != -1 && rawIds[i] != 6512 && (keep == null || keep.keep(rawIds[i], rawQuantities[i]));
+            }
+            if (kept[i]) {
+                size++;
+            }
+        }
+        if (!changed) {
+            return false;
+        }
+        int[] ids = new int[size];
+        int[] quantities = new int[size];
+        int[] slots = new int[size];
+        int row = 0;
+        for (int i = 0; i < length; i++) {
+            if (!kept[i]) {
+                continue;
+            }
+            ids[row] = rawIds[i];
+            quantities[row] = rawQuantities[i];
+            slots[row] = i;
+            row++;
+        }
+        contents = new Contents(previous.version + 1, ids, quantities, slots, size, null, views, factory, rawIds,
+                rawQuantities, kept);
+        return true;
+    }
+
+    public void clear() {
+        Contents previous = contents;
+        if (previous.size == 0 && previous.children == null && previous.rawIds == null) {
+            return;
+        }
+        contents = new Contents(previous.version + 1, NONE, NONE, NONE, 0, null, null, null, null, null, null);
+        lastUpdateTick = -1;
+    }
+
+    public interface SlotFilter {
+        boolean keep(int itemId, int quantity);
+    }
+
+    public interface WidgetFactory {
+        Widget create(int itemId, int quantity, int slot);
+    }
+
+    //One version of a store. Never changes once published apart from widgets being filled in on demand.
+    public static final class Contents {
+        private final int version;
+        private final int[] ids;
+        private final int[] quantities;
+        private final int[] slots;
+        private final int size;
+        private final Widget[] children;
+        private final Widget[] views;
+        private final WidgetFactory factory;
+        private final int[] rawIds;
+        private final int[] rawQuantities;
+        private final boolean[] kept;
+        private volatile List<Widget> widgets;
+
+        private Contents(int version, int[] ids, int[] quantities, int[] slots, int size, Widget[] children,
+                         Widget[] views, WidgetFactory factory, int[] rawIds, int[] rawQuantities, boolean[] kept) {
+            this.version = version;
+            this.ids = ids;
+            this.quantities = quantities;
+            this.slots = slots;
+            this.size = size;
+            this.children = children;
+            this.views = views;
+            this.factory = factory;
+            this.rawIds = rawIds;
+            this.rawQuantities = rawQuantities;
+            this.kept = kept;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int getId(int row) {
+            return ids[row];
+        }
+
+        public int getQuantity(int row) {
+            return quantities[row];
+        }
+
+        public int getSlot(int row) {
+            return slots[row];
+        }
+
+        //item in a container slot, including the ones that were left out of the rows. -1 for an empty slot
+        public int getSlotId(int slot) {
+            if (rawIds != null) {
+                return slot < 0 || slot >= rawIds.length ? -1 : rawIds[slot];
+            }
+            if (children != null && slot >= 0 && slot < children.length && children[slot] != null) {
+                return children[slot].getItemId();
+            }
+            return -1;
+        }
+
+        public int getSlotQuantity(int slot) {
+            if (rawQuantities != null) {
+                return slot < 0 || slot >= rawQuantities.length ? 0 : rawQuantities[slot];
+            }
+            if (children != null && slot >= 0 && slot < children.length && children[slot] != null) {
+                return children[slot].getItemQuantity();
+            }
+            return 0;
+        }
+
+        //first row holding the item, -1 if there is none
+        public int indexOf(int itemId) {
+            for (int row = 0; row < size; row++) {
+                if (ids[row] == itemId) {
+                    return row;
+                }
+            }
+            return -1;
+        }
+
+        public Widget widget(int row) {
+            int slot = slots[row];
+            if (children != null) {
+                return slot < children.length ? children[slot] : null;
+            }
+            if (views == null || factory == null) {
+                return null;
+            }
+            Widget view = views[slot];
+            if (view == null) {
+                view = factory.create(ids[row], quantities[row], slot);
+                views[slot] = view;
+            }
+            return view;
+        }
+
+        public List<Widget> widgets() {
+            List<Widget> list = widgets;
+            if (list == null) {
+                list = new ArrayList<>(size);
+                for (int row = 0; row < size; row++) {
+                    Widget widget = widget(row);
+                    if (widget != null) {
+                        list.add(widget);
+                    }
+                }
+                list = Collections.unmodifiableList(list);
+                widgets = list;
+            }
+            return list;
+        }
+    }
+}
@@ -1,25 +1,38 @@
 package com.example.EthanApiPlugin.Collections;
 
 import com.example.EthanApiPlugin.Collections.query.EquipmentItemQuery;
+import com.example.EthanApiPlugin.Profiling.TickProfiler;
 import net.runelite.api.Client;
+import net.runelite.api.GameState;
 import net.runelite.api.InventoryID;
 import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.ItemContainerChanged;
 import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetInfo;
 import net.runelite.client.RuneLite;
+import net.runelite.client.eventbus.Subscribe;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 
 public class Equipment {
     static Client client = RuneLite.getInjector().getInstance(Client.class);
-    static List<EquipmentItemWidget> equipment = new ArrayList<>();
+    private static final int SIZE = 14;
+    static volatile List<EquipmentItemWidget> equipment = new ArrayList<>();
     static HashMap<Integer, Integer> equipmentSlotWidgetMapping = new HashMap<>();
-    static HashMap<Integer, Integer> mappingToIterableIntegers = new HashMap<>();
-    static int lastUpdateTick = 0;
+    static volatile int[] ids = new int[SIZE];
+    static volatile int[] quantities = new int[SIZE];
+    static final boolean[] dirty = new boolean[SIZE];
+    static volatile int version = 0;
+    static volatile boolean loaded = false;
+    static int builtVersion = -1;
 
     static {
+        Arrays.fill(ids, -1);
         equipmentSlotWidgetMapping.put(0, 15);
         equipmentSlotWidgetMapping.put(1, 16);
         equipmentSlotWidgetMapping.put(2, 17);
@@ -31,76 +44,127 @@ public class Equipment {
         equipmentSlotWidgetMapping.put(10, 23);
         equipmentSlotWidgetMapping.put(12, 24);
         equipmentSlotWidgetMapping.put(13, 25);
-
-
-        mappingToIterableIntegers.put(0, 0);
-        mappingToIterableIntegers.put(1, 1);
-        mappingToIterableIntegers.put(2, 2);
-        mappingToIterableIntegers.put(3, 3);
-        mappingToIterableIntegers.put(4, 4);
-        mappingToIterableIntegers.put(5, 5);
-        mappingToIterableIntegers.put(6, 7);
-        mappingToIterableIntegers.put(7, 9);
-        mappingToIterableIntegers.put(8, 10);
-        mappingToIterableIntegers.put(9, 12);
-        mappingToIterableIntegers.put(10, 13);
     }
 
     public static EquipmentItemQuery search() {
-        if (lastUpdateTick < client.getTickCount()) {
-            int x = 25362447;
-            for (int i = 0; i < 11; i++) {
-                client.runScript(545, (x + i), mappingToIterableIntegers.get(i), 1, 1, 2);
-            }
-            equipment.clear();
-            int i = -1;
-            if(client.getItemContainer(InventoryID.EQUIPMENT.getId()) == null){
-                return new EquipmentItemQuery(equipment);
-            }
-            for (Item item : client.getItemContainer(InventoryID.EQUIPMENT.getId()).getItems()) {
-                i++;
-                if (item == null) {
+        long start = TickProfiler.begin();
+        try {
+            return build();
+        } finally {
+            TickProfiler.end(TickProfiler.Component.EQUIPMENT_SEARCH, start);
+        }
+    }
+
+    private static EquipmentItemQuery build() {
+        load();
+        if (builtVersion != version) {
+            int[] ids = Equipment.ids;
+            int builtFor = version;
+            boolean complete = true;
+            List<EquipmentItemWidget> items = new ArrayList<>();
+            for (int slot = 0; slot < ids.length; slot++) {
+                if (ids[slot] == 6512 || ids[slot] == -1 || !equipmentSlotWidgetMapping.containsKey(slot)) {
+                    dirty[slot] = false;
                     continue;
                 }
-                if (item.getId() == 6512 || item.getId() == -1) {
+                Widget w = client.getWidget(WidgetInfo.EQUIPMENT.getGroupId(), equipmentSlotWidgetMapping.get(slot));
+                if (w == null) {
+                    complete = false;
                     continue;
                 }
-                Widget w = client.getWidget(WidgetInfo.EQUIPMENT.getGroupId(), equipmentSlotWidgetMapping.get(i));
-                if (w == null || w.getActions() == null) {
+                if (dirty[slot] || w.getActions() == null) {
+                    client.runScript(545, w.getId(), slot, 1, 1, 2);
+                }
+                if (w.getActions() == null) {
+                    complete = false;
                     continue;
                 }
-                equipment.add(new EquipmentItemWidget(w.getName(), item.getId(), w.getId(), -1, w.getActions()));
+                dirty[slot] = false;
+                items.add(new EquipmentItemWidget(w.getId(), slot, ids[slot], w.getName(), w.getActions()));
             }
-            lastUpdateTick = client.getTickCount();
+            equipment = items;
+            //slots whose widget wasn't there yet are retried on the next search
+            builtVersion = complete ? builtFor : -1;
         }
         return new EquipmentItemQuery(equipment);
     }
 
-//    @SneakyThrows
-//    @Subscribe
-//    public void onItemContainerChanged(ItemContainerChanged e) {
-//        if (e.getContainerId() == InventoryID.EQUIPMENT.getId()) {
-//            int x = 25362447;
-//            for (int i = 0; i < 11; i++) {
-//                client.runScript(545, (x + i), mappingToIterableIntegers.get(i), 1, 1, 2);
-//            }
-//            equipment.clear();
-//            int i = -1;
-//            for (Item item : e.getItemContainer().getItems()) {
-//                i++;
-//                if (item == null) {
-//                    continue;
-//                }
-//                if (item.getId() == 6512 || item.getId() == -1) {
-//                    continue;
-//                }
-//                Widget w = client.getWidget(WidgetInfo.EQUIPMENT.getGroupId(), equipmentSlotWidgetMapping.get(i));
-//                if (w == null || w.getActions() == null) {
-//                    continue;
-//                }
-//                equipment.add(new EquipmentItemWidget(w.getName(), item.getId(), w.getId(), i, w.getActions()));
-//            }
-//        }
-//    }
-}
+    //-1 for an empty slot
+    public static int getItemId(int slot) {
+        load();
+        return slot < 0 || slot >= ids.length ? -1 : ids[slot];
+    }
+
+    public static int getQuantity(int slot) {
+        load();
+        return slot < 0 || slot >= quantities.length ? 0 : quantities[slot];
+    }
 
+    //bumped every time the equipment container changes
+    public static int getVersion() {
+        return version;
+    }
+
+    //picks up the container when the plugin starts while already logged in
+    private static void load() {
+        if (loaded) {
+            return;
+        }
+        ItemContainer container = client.getItemContainer(InventoryID.EQUIPMENT);
+        if (container != null) {
+            update(container);
+        }
+    }
+
+    //only the slots whose item changed get their widget ops rebuilt by script 545 on the next search
+    private static void update(ItemContainer container) {
+        int[] ids = new int[SIZE];
+        int[] quantities = new int[SIZE];
+        Arrays.fill(ids, -1);
+        Item[] items = container.getItems();
+        for (int i = 0; i < items.length && i < SIZE; i++) {
+            if (items[i] == null) {
+                continue;
+            }
+            ids[i] = items[i].getId();
+            quantities[i] = items[i].getQuantity();
+        }
+        int[] old = Equipment.ids;
+        for (int i = 0; i < SIZE; i++) {
+            if (!loaded || old[i] != ids[i]) {
+                dirty[i] = true;
+            }
+        }
+        Equipment.ids = ids;
+        Equipment.quantities = quantities;
+        loaded = true;
+        version++;
+    }
+
+    @Subscribe
+    public void onItemContainerChanged(ItemContainerChanged e) {
+        if (e.getContainerId() != InventoryID.EQUIPMENT.getId()) {
+            return;
+        }
+        long start = TickProfiler.begin();
+        try {
+            update(e.getItemContainer());
+        } finally {
+            TickProfiler.end(TickProfiler.Component.EQUIPMENT_UPDATE, start);
+        }
+    }
+
+    @Subscribe
+    public void onGameStateChanged(GameStateChanged gameStateChanged) {
+        if (gameStateChanged.getGameState() == GameState.HOPPING || gameStateChanged.getGameState() == GameState.LOGIN_SCREEN || gameStateChanged.getGameState() == GameState.CONNECTION_LOST) {
+            equipment = new ArrayList<>();
+            //filled before it's published, 0 is a real item id
+            int[] cleared = new int[SIZE];
+            Arrays.fill(cleared, -1);
+            ids = cleared;
+            quantities = new int[SIZE];
+            loaded = false;
+            version++;
+        }
+    }
+}
@@ -10,26 +10,32 @@ import net.runelite.api.widgets.Widget;
 import javax.annotation.Nullable;
 import java.awt.*;
 
+//One equipment slot as Equipment saw it when the version that made it was built. The item, name and ops are fixed
+//then, a query result doesn't change under a script when gear is swapped.
 public class EquipmentItemWidget implements Widget {
-    String name;
-    String[] actions;
-    int packedId;
+    final int packedId;
     static final int EQUIPMENT_INVENTORY_ITEMS_CONTAINER = 25362449;
-    int equipmentItemId;
-    int index;
+    final int index;
+    final int equipmentItemId;
+    final String name;
+    final String[] actions;
 
-    EquipmentItemWidget(String name, int itemId, int packedId, int index, String[] actions) {
+    EquipmentItemWidget(int packedId, int index, int itemId, String name, String[] actions) {
+        this.packedId = packedId;
+        this.index = index;
         this.equipmentItemId = itemId;
         this.name = name;
         this.actions = actions;
-        this.packedId = packedId;
-        this.index = index;
+    }
+
+    private Widget slotWidget() {
+        return EthanApiPlugin.getClient().getWidget(packedId);
     }
 
 
     public void interact(String... actions) {
         MousePackets.queueClickPacket();
-        WidgetPackets.queueWidgetAction(EthanApiPlugin.getClient().getWidget(packedId), actions);
+        WidgetPackets.queueWidgetAction(slotWidget(), actions);
     }
 
     public int getEquipmentItemId() {
@@ -10,29 +10,27 @@ import net.runelite.client.RuneLite;
 import net.runelite.client.eventbus.Subscribe;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
 public class GrandExchangeInventory {
     static Client client = RuneLite.getInjector().getInstance(Client.class);
     public static List<Widget> inventoryItems = new ArrayList<>();
-    static int lastUpdateTick = 0;
+    static final ContainerStore store = new ContainerStore();
+    static int builtVersion = -1;
 
     public static ItemQuery search() {
-        if (lastUpdateTick < client.getTickCount()) {
-            client.runScript(6009, WidgetInfo.GRAND_EXCHANGE_INVENTORY_ITEMS_CONTAINER.getId(), 28, 1, -1);
-            GrandExchangeInventory.inventoryItems =
-                    Arrays.stream(client.getWidget(WidgetInfo.GRAND_EXCHANGE_INVENTORY_ITEMS_CONTAINER).getDynamicChildren())
-                            .filter(Objects::nonNull).filter(x -> x.getItemId() != 6512 && x.getItemId() != -1).collect(Collectors.toList());
-            lastUpdateTick = client.getTickCount();
+        ItemQuery query = store.search(WidgetInfo.GRAND_EXCHANGE_INVENTORY_ITEMS_CONTAINER.getPackedId(), Inventory::mirrors,
+                () -> client.runScript(6009, WidgetInfo.GRAND_EXCHANGE_INVENTORY_ITEMS_CONTAINER.getId(), 28, 1, -1));
+        if (builtVersion != store.getVersion()) {
+            inventoryItems = store.contents().widgets();
+            builtVersion = store.getVersion();
         }
-        return new ItemQuery(inventoryItems);
+        return query;
     }
 
     public static int getEmptySlots() {
-        return 28 - search().result().size();
+        search();
+        return 28 - store.contents().size();
     }
 
     public static boolean full() {
@@ -50,7 +48,8 @@ public class GrandExchangeInventory {
     @Subscribe
     public void onGameStateChanged(GameStateChanged gameStateChanged) {
         if (gameStateChanged.getGameState() == GameState.HOPPING || gameStateChanged.getGameState() == GameState.LOGIN_SCREEN || gameStateChanged.getGameState() == GameState.CONNECTION_LOST) {
-            GrandExchangeInventory.inventoryItems.clear();
+            GrandExchangeInventory.inventoryItems = new ArrayList<>();
+            store.clear();
         }
     }
 }
@@ -0,0 +1,88 @@
+package com.example.EthanApiPlugin.Collections;
+
+import com.example.EthanApiPlugin.Profiling.TickProfiler;
+import net.runelite.api.Actor;
+import net.runelite.api.Client;
+import net.runelite.api.NPC;
+import net.runelite.api.Player;
+import net.runelite.api.events.GameTick;
+import net.runelite.client.RuneLite;
+import net.runelite.client.eventbus.Subscribe;
+
+import java.util.*;
+
+//Who is interacting with whom this tick, built in one pass over the cached NPCs and players the first time an
+//interaction query asks for it. Targets are keyed by identity, the same comparison the queries always used.
+public class InteractionGraph {
+    static Client client = RuneLite.getInjector().getInstance(Client.class);
+    private static volatile InteractionGraph current = null;
+
+    private final Map<Actor, List<Actor>> interactors = new IdentityHashMap<>();
+    private final Map<Actor, Actor> targets = new IdentityHashMap<>();
+    private final Set<Actor> targetedByPlayers = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private InteractionGraph() {
+    }
+
+    public static InteractionGraph get() {
+        InteractionGraph graph = current;
+        if (graph == null) {
+            long start = TickProfiler.begin();
+            try {
+                graph = build();
+            } finally {
+                TickProfiler.end(TickProfiler.Component.INTERACTION_GRAPH, start);
+            }
+            current = graph;
+        }
+        return graph;
+    }
+
+    private static InteractionGraph build() {
+        InteractionGraph graph = new InteractionGraph();
+        for (NPC npc : NPCs.list()) {
+            graph.add(npc, false);
+        }
+        for (Player player : Players.players) {
+            graph.add(player, true);
+        }
+        return graph;
+    }
+
+    private void add(Actor actor, boolean player) {
+        Actor target = actor.getInteracting();
+        if (target == null) {
+            return;
+        }
+        targets.put(actor, target);
+        interactors.computeIfAbsent(target, k -> new ArrayList<>(2)).add(actor);
+        if (player) {
+            targetedByPlayers.add(target);
+        }
+    }
+
+    //null when the actor isn't interacting with anything. Actors the graph wasn't built from, like ones spawned
+    //since or passed in from a list of the caller's own, are asked directly
+    public Actor targetOf(Actor actor) {
+        Actor target = targets.get(actor);
+        return target != null ? target : actor.getInteracting();
+    }
+
+    public List<Actor> interactorsOf(Actor target) {
+        return interactors.getOrDefault(target, Collections.emptyList());
+    }
+
+    public boolean isTargeted(Actor target) {
+        return interactors.containsKey(target);
+    }
+
+    public boolean isTargetedByPlayer(Actor target) {
+        return targetedByPlayers.contains(target);
+    }
+
+    //runs after NPCs and Players have refreshed their lists
+    @Subscribe(priority = 9999)
+    public void onGameTick(GameTick e) {
+        current = null;
+    }
+}
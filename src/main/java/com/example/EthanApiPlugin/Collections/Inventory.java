@@ -1,9 +1,15 @@
 package com.example.EthanApiPlugin.Collections;
 
 import com.example.EthanApiPlugin.Collections.query.ItemQuery;
+import com.example.EthanApiPlugin.Profiling.CollectionRefreshEvent;
+import com.example.EthanApiPlugin.Profiling.TickProfiler;
 import net.runelite.api.Client;
 import net.runelite.api.GameState;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
 import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.ItemContainerChanged;
 import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetInfo;
 import net.runelite.client.RuneLite;
@@ -11,27 +17,65 @@ import net.runelite.client.eventbus.Subscribe;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
+//Slots are mirrored from the inventory container as it changes. The widget store handed to queries is only refreshed
+//when the container version moves on, and script 6009 is only run when the widget children don't already show
+//what the container holds.
 public class Inventory {
     static Client client = RuneLite.getInjector().getInstance(Client.class);
-    static List<Widget> inventoryItems = new ArrayList<>();
-    static int lastUpdateTick = 0;
+    private static final int SIZE = 28;
+    static volatile int[] ids = emptySlots();
+    static volatile int[] quantities = new int[SIZE];
+    static volatile int version = 0;
+    static volatile boolean loaded = false;
+    static final ContainerStore store = new ContainerStore();
+    static int builtVersion = -1;
+    static Widget[] builtFrom = null;
 
     public static ItemQuery search() {
-        if (lastUpdateTick < client.getTickCount()) {
-            client.runScript(6009, 9764864, 28, 1, -1);
-            Inventory.inventoryItems =
-                    Arrays.stream(client.getWidget(WidgetInfo.INVENTORY).getDynamicChildren()).filter(Objects::nonNull).filter(x -> x.getItemId() != 6512 && x.getItemId() != -1).collect(Collectors.toList());
-            lastUpdateTick = client.getTickCount();
+        long start = TickProfiler.begin();
+        try {
+            return build();
+        } finally {
+            TickProfiler.end(TickProfiler.Component.INVENTORY_SEARCH, start);
         }
-        return new ItemQuery(inventoryItems);
+    }
+
+    private static ItemQuery build() {
+        load();
+        Widget inventory = client.getWidget(WidgetInfo.INVENTORY);
+        if (inventory == null) {
+            return new ItemQuery(new ArrayList<>());
+        }
+        Widget[] children = inventory.getDynamicChildren();
+        if (builtVersion != version || builtFrom != children) {
+            CollectionRefreshEvent event = new CollectionRefreshEvent();
+            event.begin();
+            if (!mirrors(children)) {
+                client.runScript(6009, 9764864, 28, 1, -1);
+                children = inventory.getDynamicChildren();
+            }
+            store.update(children);
+            builtVersion = version;
+            builtFrom = children;
+            if (event.shouldCommit()) {
+                event.collection = "Inventory";
+                event.size = children.length;
+                event.commit();
+            }
+        }
+        return store.query();
     }
 
     public static int getEmptySlots() {
-        return 28 - search().result().size();
+        load();
+        int empty = SIZE;
+        for (int id : ids) {
+            if (id != -1 && id != 6512) {
+                empty--;
+            }
+        }
+        return empty;
     }
 
     public static boolean full() {
@@ -39,17 +83,114 @@ public class Inventory {
     }
 
     public static int getItemAmount(int itemId) {
-        return search().withId(itemId).result().size();
+        load();
+        int amount = 0;
+        for (int id : ids) {
+            if (id == itemId) {
+                amount++;
+            }
+        }
+        return amount;
     }
 
     public static int getItemAmount(String itemName) {
         return search().withName(itemName).result().size();
     }
 
+    //-1 for an empty slot
+    public static int getItemId(int slot) {
+        load();
+        return slot < 0 || slot >= SIZE ? -1 : ids[slot];
+    }
+
+    public static int getQuantity(int slot) {
+        load();
+        return slot < 0 || slot >= SIZE ? 0 : quantities[slot];
+    }
+
+    //bumped every time the inventory container changes
+    public static int getVersion() {
+        return version;
+    }
+
+    //true when the children of an inventory style widget container show exactly what the inventory container holds
+    static boolean mirrors(Widget[] children) {
+        if (children == null || children.length < SIZE) {
+            return false;
+        }
+        int[] ids = Inventory.ids;
+        int[] quantities = Inventory.quantities;
+        for (int i = 0; i < SIZE; i++) {
+            Widget child = children[i];
+            if (child == null) {
+                return false;
+            }
+            int shown = child.getItemId() == 6512 ? -1 : child.getItemId();
+            if (shown != ids[i]) {
+                return false;
+            }
+            if (shown != -1 && child.getItemQuantity() != quantities[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //picks up the container when the plugin starts while already logged in
+    private static void load() {
+        if (loaded) {
+            return;
+        }
+        ItemContainer container = client.getItemContainer(InventoryID.INVENTORY);
+        if (container != null) {
+            update(container);
+        }
+    }
+
+    private static void update(ItemContainer container) {
+        int[] ids = emptySlots();
+        int[] quantities = new int[SIZE];
+        Item[] items = container.getItems();
+        for (int i = 0; i < items.length && i < SIZE; i++) {
+            if (items[i] == null || items[i].getId() == 6512) {
+                continue;
+            }
+            ids[i] = items[i].getId();
+            quantities[i] = ids[i] == -1 ? 0 : items[i].getQuantity();
+        }
+        Inventory.ids = ids;
+        Inventory.quantities = quantities;
+        loaded = true;
+        version++;
+    }
+
+    private static int[] emptySlots() {
+        int[] slots = new int[SIZE];
+        Arrays.fill(slots, -1);
+        return slots;
+    }
+
+    @Subscribe
+    public void onItemContainerChanged(ItemContainerChanged e) {
+        if (e.getContainerId() != InventoryID.INVENTORY.getId()) {
+            return;
+        }
+        long start = TickProfiler.begin();
+        try {
+            update(e.getItemContainer());
+        } finally {
+            TickProfiler.end(TickProfiler.Component.INVENTORY_UPDATE, start);
+        }
+    }
+
     @Subscribe
     public void onGameStateChanged(GameStateChanged gameStateChanged) {
         if (gameStateChanged.getGameState() == GameState.HOPPING || gameStateChanged.getGameState() == GameState.LOGIN_SCREEN || gameStateChanged.getGameState() == GameState.CONNECTION_LOST) {
-            Inventory.inventoryItems.clear();
+            store.clear();
+            Inventory.ids = emptySlots();
+            Inventory.quantities = new int[SIZE];
+            loaded = false;
+            version++;
         }
     }
 }
@@ -0,0 +1,310 @@
+package com.example.EthanApiPlugin.Collections;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.ItemComposition;
+import net.runelite.client.RuneLite;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.game.ItemManager;
+import net.runelite.client.util.Text;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+
+//Everything the item filters need to know about an item id, kept in flat arrays so a filter is an array read instead
+//of a composition lookup. The table is built once per client revision on the client thread, a chunk of ids per
+//client tick, and saved to RUNELITE_DIR/EthanApi/items-<revision>.bin so later starts only have to read the file.
+//Ids that haven't been filled in yet are looked up on demand on the client thread, so the table can be used while it
+//is still building; off the client thread they read as unknown until the client thread has filled them. Writers bump
+//the volatile published after filling the arrays and readers read it first, so ids filled on the loader thread or the
+//client thread are seen whole from any thread.
+@Slf4j
+public class ItemMetaTable {
+    static Client client = RuneLite.getInjector().getInstance(Client.class);
+    static ClientThread clientThread = RuneLite.getInjector().getInstance(ClientThread.class);
+    static ItemManager itemManager = RuneLite.getInjector().getInstance(ItemManager.class);
+    private static ExecutorService executor = null;
+
+    private static final int MAGIC = 0x45544954;
+    private static final int FORMAT = 1;
+    private static final int CAPACITY = 1 << 16;
+    private static final int CHUNK = 2000;
+    //the cache has gaps, give up once this many ids in a row have no name
+    private static final int MAX_NULL_RUN = 5000;
+
+    private static final byte LOADED = 1;
+    private static final byte NOTED = 1 << 1;
+    private static final byte STACKABLE = 1 << 2;
+    private static final byte TRADEABLE = 1 << 3;
+    private static final byte PLACEHOLDER = 1 << 4;
+
+    private static final String[] names = new String[CAPACITY];
+    private static final String[] lowerNames = new String[CAPACITY];
+    private static final byte[] flags = new byte[CAPACITY];
+    private static final int[] haPrices = new int[CAPACITY];
+    private static final int[] gePrices = new int[CAPACITY];
+    private static volatile int size = 0;
+    private static volatile boolean ready = false;
+    private static volatile int published = 0;
+
+    public static boolean isReady() {
+        return ready;
+    }
+
+    //tag stripped and interned, null for ids without a definition
+    public static String getName(int itemId) {
+        return fill(itemId) ? names[itemId] : null;
+    }
+
+    //getName lowercased, worked out once per id
+    public static String getLowerName(int itemId) {
+        if (!fill(itemId)) {
+            return null;
+        }
+        String lower = lowerNames[itemId];
+        if (lower == null && names[itemId] != null) {
+            lower = names[itemId].toLowerCase().intern();
+            lowerNames[itemId] = lower;
+        }
+        return lower;
+    }
+
+    public static boolean isNoted(int itemId) {
+        return has(itemId, NOTED);
+    }
+
+    public static boolean isStackable(int itemId) {
+        return has(itemId, STACKABLE);
+    }
+
+    public static boolean isTradeable(int itemId) {
+        return has(itemId, TRADEABLE);
+    }
+
+    public static boolean isPlaceholder(int itemId) {
+        return has(itemId, PLACEHOLDER);
+    }
+
+    public static int getHaPrice(int itemId) {
+        return fill(itemId) ? haPrices[itemId] : 0;
+    }
+
+    //GE price as of the last build or refresh
+    public static int getGePrice(int itemId) {
+        return fill(itemId) ? gePrices[itemId] : 0;
+    }
+
+    private static boolean has(int itemId, byte flag) {
+        return fill(itemId) && (flags[itemId] & flag) != 0;
+    }
+
+    private static boolean fill(int itemId) {
+        if (itemId < 0 || itemId >= CAPACITY) {
+            return false;
+        }
+        //pairs with publish(), everything written before the last publish is visible past this read
+        int seen = published;
+        if ((flags[itemId] & LOADED) != 0) {
+            return true;
+        }
+        //compositions and prices can only be read on the client thread
+        if (!client.isClientThread()) {
+            clientThread.invoke(() -> {
+                fill(itemId);
+            });
+            return false;
+        }
+        ItemComposition composition = itemManager.getItemComposition(itemId);
+        if (composition == null) {
+            return false;
+        }
+        store(itemId, composition);
+        publish();
+        return true;
+    }
+
+    private static void store(int itemId, ItemComposition composition) {
+        names[itemId] = composition.getName() == null ? null : Text.removeTags(composition.getName()).intern();
+        haPrices[itemId] = composition.getHaPrice();
+        gePrices[itemId] = itemManager.getItemPrice(itemId);
+        byte f = LOADED;
+        if (composition.getNote() != -1) {
+            f |= NOTED;
+        }
+        if (composition.isStackable()) {
+            f |= STACKABLE;
+        }
+        if (composition.isTradeable()) {
+            f |= TRADEABLE;
+        }
+        if (composition.getPlaceholderTemplateId() == 14401) {
+            f |= PLACEHOLDER;
+        }
+        //written last, readers check it before the rest
+        flags[itemId] = f;
+        if (itemId >= size) {
+            size = itemId + 1;
+        }
+    }
+
+    //only the volatile write matters, not the count
+    private static void publish() {
+        published++;
+    }
+
+    private static synchronized ExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "EthanApi-item-metadata");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    public static synchronized void shutDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public static void load() {
+        int revision = client.getRevision();
+        executor().submit(() -> {
+            Path file = file(revision);
+            if (Files.exists(file)) {
+                long start = System.nanoTime();
+                try {
+                    read(file, revision);
+                    ready = true;
+                    log.info("loaded item metadata for {} ids in {}ms", size, (System.nanoTime() - start) / 1_000_000);
+                    refreshPrices();
+                    return;
+                } catch (IOException e) {
+                    log.warn("item metadata file {} couldn't be read, rebuilding it", file, e);
+                }
+            }
+            build(revision);
+        });
+    }
+
+    private static void build(int revision) {
+        long start = System.nanoTime();
+        int[] next = {0};
+        int[] nullRun = {0};
+        clientThread.invoke(() -> {
+            int end = Math.min(next[0] + CHUNK, CAPACITY);
+            for (int id = next[0]; id < end; id++) {
+                ItemComposition composition = client.getItemDefinition(id);
+                if (composition == null || composition.getName() == null || composition.getName().equals("null")) {
+                    nullRun[0]++;
+                    continue;
+                }
+                nullRun[0] = 0;
+                store(id, composition);
+            }
+            publish();
+            next[0] = end;
+            if (end < CAPACITY && nullRun[0] < MAX_NULL_RUN) {
+                //not done, the client thread runs this again next cycle
+                return false;
+            }
+            ready = true;
+            log.info("built item metadata for {} ids in {}ms", size, (System.nanoTime() - start) / 1_000_000);
+            executor().submit(() -> write(revision));
+            return true;
+        });
+    }
+
+    private static Path file(int revision) {
+        return RuneLite.RUNELITE_DIR.toPath().resolve("EthanApi").resolve("items-" + revision + ".bin");
+    }
+
+    private static void read(Path file, int revision) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT || in.readInt() != revision) {
+                throw new IOException("stale or foreign item metadata file");
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                int id = in.readInt();
+                byte f = in.readByte();
+                String name = in.readUTF();
+                int ha = in.readInt();
+                int ge = in.readInt();
+                if (id < 0 || id >= CAPACITY) {
+                    throw new IOException("item id " + id + " out of range");
+                }
+                names[id] = name.intern();
+                haPrices[id] = ha;
+                gePrices[id] = ge;
+                flags[id] = (byte) (f | LOADED);
+                if (id >= size) {
+                    size = id + 1;
+                }
+            }
+        }
+        publish();
+    }
+
+    private static void write(int revision) {
+        Path file = file(revision);
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            int count = 0;
+            for (int id = 0; id < size; id++) {
+                if ((flags[id] & LOADED) != 0 && names[id] != null) {
+                    count++;
+                }
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT);
+                out.writeInt(revision);
+                out.writeInt(count);
+                for (int id = 0; id < size; id++) {
+                    if ((flags[id] & LOADED) == 0 || names[id] == null) {
+                        continue;
+                    }
+                    out.writeInt(id);
+                    out.writeByte(flags[id]);
+                    out.writeUTF(names[id]);
+                    out.writeInt(haPrices[id]);
+                    out.writeInt(gePrices[id]);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("couldn't write item metadata to {}", file, e);
+        }
+    }
+
+    //GE prices move daily, this pulls the current ones from the item manager without touching the rest. Prices can
+    //only be read on the client thread, so it runs there a chunk of ids per client cycle like build()
+    public static void refreshPrices() {
+        int[] next = {0};
+        clientThread.invoke(() -> {
+            int end = Math.min(next[0] + CHUNK, size);
+            for (int id = next[0]; id < end; id++) {
+                if ((flags[id] & LOADED) == 0) {
+                    continue;
+                }
+                int price = itemManager.getItemPrice(id);
+                //0 until the item manager has fetched prices, keep what the file had until then
+                if (price > 0) {
+                    gePrices[id] = price;
+                }
+            }
+            publish();
+            next[0] = end;
+            return end >= size;
+        });
+    }
+}
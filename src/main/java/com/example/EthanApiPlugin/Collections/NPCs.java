@@ -1,6 +1,8 @@
 package com.example.EthanApiPlugin.Collections;
 
 import com.example.EthanApiPlugin.Collections.query.NPCQuery;
+import com.example.EthanApiPlugin.Profiling.CollectionRefreshEvent;
+import com.example.EthanApiPlugin.Profiling.TickProfiler;
 import net.runelite.api.Client;
 import net.runelite.api.NPC;
 import net.runelite.api.events.GameTick;
@@ -8,11 +10,12 @@ import net.runelite.client.RuneLite;
 import net.runelite.client.eventbus.Subscribe;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class NPCs {
     static Client client = RuneLite.getInjector().getInstance(Client.class);
-    private static final List<NPC> npcList = new ArrayList<>();
+    private static volatile List<NPC> npcList = Collections.emptyList();
 
     public static NPCQuery search() {
         return new NPCQuery(npcList);
@@ -20,13 +23,31 @@ public class NPCs {
 
     @Subscribe(priority = 10000)
     public void onGameTick(GameTick e) {
-        npcList.clear();
-        for (NPC npc : client.getNpcs()) {
-            if (npc == null)
-                continue;
-            if (npc.getId() == -1)
-                continue;
-            npcList.add(npc);
+        long start = TickProfiler.begin();
+        try {
+            CollectionRefreshEvent event = new CollectionRefreshEvent();
+            event.begin();
+            List<NPC> refreshed = new ArrayList<>();
+            for (NPC npc : client.getNpcs()) {
+                if (npc == null)
+                    continue;
+                if (npc.getId() == -1)
+                    continue;
+                refreshed.add(npc);
+            }
+            //published as a new list so queries on other threads never see a half built one
+            npcList = Collections.unmodifiableList(refreshed);
+            if (event.shouldCommit()) {
+                event.collection = "NPCs";
+                event.size = refreshed.size();
+                event.commit();
+            }
+        } finally {
+            TickProfiler.end(TickProfiler.Component.NPCS_TICK, start);
         }
     }
+
+    static List<NPC> list() {
+        return npcList;
+    }
 }
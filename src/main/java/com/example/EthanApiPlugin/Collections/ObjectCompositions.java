@@ -0,0 +1,78 @@
+package com.example.EthanApiPlugin.Collections;
+
+import com.example.EthanApiPlugin.Profiling.TickProfiler;
+import net.runelite.api.Client;
+import net.runelite.api.ObjectComposition;
+import net.runelite.api.events.VarbitChanged;
+import net.runelite.client.RuneLite;
+import net.runelite.client.eventbus.Subscribe;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Resolves object ids to their impostor-applied composition once per tick instead of once per filter per object.
+//Which varbit or varp an object's impostor depends on never changes, so that is remembered for good and used to
+//drop only the affected ids when one of them changes mid tick.
+public class ObjectCompositions {
+    static Client client = RuneLite.getInjector().getInstance(Client.class);
+    private static final Map<Integer, ObjectComposition> resolved = new ConcurrentHashMap<>();
+    private static final Map<Integer, Set<Integer>> objectsByVarbit = new ConcurrentHashMap<>();
+    private static final Map<Integer, Set<Integer>> objectsByVarp = new ConcurrentHashMap<>();
+    private static volatile int tick = -1;
+
+    public static ObjectComposition resolve(int objectId) {
+        int currentTick = client.getTickCount();
+        if (currentTick != tick) {
+            resolved.clear();
+            tick = currentTick;
+        }
+        ObjectComposition composition = resolved.get(objectId);
+        if (composition != null) {
+            return composition;
+        }
+        ObjectComposition base = client.getObjectDefinition(objectId);
+        if (base == null) {
+            return null;
+        }
+        composition = base;
+        if (base.getImpostorIds() != null) {
+            if (base.getVarbitId() != -1) {
+                objectsByVarbit.computeIfAbsent(base.getVarbitId(), k -> ConcurrentHashMap.newKeySet()).add(objectId);
+            } else if (base.getVarPlayerId() != -1) {
+                objectsByVarp.computeIfAbsent(base.getVarPlayerId(), k -> ConcurrentHashMap.newKeySet()).add(objectId);
+            }
+            ObjectComposition impostor = base.getImpostor();
+            if (impostor != null) {
+                composition = impostor;
+            }
+        }
+        resolved.put(objectId, composition);
+        return composition;
+    }
+
+    @Subscribe
+    public void onVarbitChanged(VarbitChanged e) {
+        long start = TickProfiler.begin();
+        try {
+            if (e.getVarbitId() != -1) {
+                invalidate(objectsByVarbit.get(e.getVarbitId()));
+            }
+            if (e.getVarpId() != -1) {
+                invalidate(objectsByVarp.get(e.getVarpId()));
+            }
+        } finally {
+            TickProfiler.end(TickProfiler.Component.OBJECT_COMPOSITIONS_VARBIT, start);
+        }
+    }
+
+    private static void invalidate(Set<Integer> objectIds) {
+        if (objectIds == null) {
+            return;
+        }
+        for (Integer objectId : objectIds) {
+            resolved.remove(objectId);
+        }
+        ActionIndex.invalidateObjects(objectIds);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.EthanApiPlugin.Collections;
 
 import com.example.EthanApiPlugin.Collections.query.PlayerQuery;
+import com.example.EthanApiPlugin.Profiling.TickProfiler;
 import net.runelite.api.Client;
 import net.runelite.api.Player;
 import net.runelite.api.events.GameTick;
@@ -8,23 +9,30 @@ import net.runelite.client.RuneLite;
 import net.runelite.client.eventbus.Subscribe;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class Players {
-    static List<Player> players = new ArrayList<>();
+    static volatile List<Player> players = Collections.emptyList();
     static Client client = RuneLite.getInjector().getInstance(Client.class);
 
     public static PlayerQuery search() {
         return new PlayerQuery(players);
     }
 
-    @Subscribe
+    @Subscribe(priority = 10000)
     public void onGameTick(GameTick e) {
-        players.clear();
-        for (Player player : client.getPlayers()) {
-            if (player == null)
-                continue;
-            players.add(player);
+        long start = TickProfiler.begin();
+        try {
+            List<Player> refreshed = new ArrayList<>();
+            for (Player player : client.getPlayers()) {
+                if (player == null)
+                    continue;
+                refreshed.add(player);
+            }
+            players = Collections.unmodifiableList(refreshed);
+        } finally {
+            TickProfiler.end(TickProfiler.Component.PLAYERS_TICK, start);
         }
     }
 }
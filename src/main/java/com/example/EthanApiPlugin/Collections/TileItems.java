@@ -2,11 +2,11 @@ package com.example.EthanApiPlugin.Collections;
 
 import com.example.EthanApiPlugin.Collections.query.TileItemQuery;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class TileItems {
-    public static List<ETileItem> tileItems = new ArrayList<>();
+    public static volatile List<ETileItem> tileItems = Collections.emptyList();
 
     public static TileItemQuery search() {
         return new TileItemQuery(tileItems);
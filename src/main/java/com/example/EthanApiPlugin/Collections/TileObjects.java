@@ -1,18 +1,21 @@
 package com.example.EthanApiPlugin.Collections;
 
 import com.example.EthanApiPlugin.Collections.query.TileObjectQuery;
+import com.example.EthanApiPlugin.Profiling.CollectionRefreshEvent;
+import com.example.EthanApiPlugin.Profiling.TickProfiler;
 import net.runelite.api.*;
 import net.runelite.api.events.GameTick;
 import net.runelite.client.RuneLite;
 import net.runelite.client.eventbus.Subscribe;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 
 public class TileObjects {
     static Client client = RuneLite.getInjector().getInstance(Client.class);
-    static List<TileObject> tileObjects = new ArrayList<>();
+    static volatile List<TileObject> tileObjects = Collections.emptyList();
 
     public static TileObjectQuery search() {
         return new TileObjectQuery(tileObjects);
@@ -20,58 +23,70 @@ public class TileObjects {
 
     @Subscribe(priority = 10000)
     public void onGameTick(GameTick e) {
-        HashSet<TileObject> tileObjectHashSet = new HashSet<>();
-        tileObjects.clear();
-        TileItems.tileItems.clear();
-        for (Tile[] tiles : client.getScene().getTiles()[client.getPlane()]) {
-            if (tiles == null) {
-                continue;
-            }
-            for (Tile tile : tiles) {
-                if (tile == null) {
+        long start = TickProfiler.begin();
+        try {
+            CollectionRefreshEvent event = new CollectionRefreshEvent();
+            event.begin();
+            HashSet<TileObject> tileObjectHashSet = new HashSet<>();
+            List<ETileItem> tileItems = new ArrayList<>();
+            for (Tile[] tiles : client.getScene().getTiles()[client.getPlane()]) {
+                if (tiles == null) {
                     continue;
                 }
-                if (tile.getGroundItems() != null) {
-                    for (TileItem groundItem : tile.getGroundItems()) {
-                        if (groundItem == null) {
-                            continue;
-                        }
-                        TileItems.tileItems.add(new ETileItem(tile.getWorldLocation(), groundItem));
-                    }
-                }
-                for (GameObject gameObject : tile.getGameObjects()) {
-                    if (gameObject == null) {
+                for (Tile tile : tiles) {
+                    if (tile == null) {
                         continue;
                     }
-                    if (gameObject.getId() == -1) {
-                        continue;
+                    if (tile.getGroundItems() != null) {
+                        for (TileItem groundItem : tile.getGroundItems()) {
+                            if (groundItem == null) {
+                                continue;
+                            }
+                            tileItems.add(new ETileItem(tile.getWorldLocation(), groundItem));
+                        }
                     }
-                    tileObjectHashSet.add(gameObject);
-                    //tileObjects.add(gameObject);
-                }
-                if (tile.getGroundObject() != null) {
-                    if (tile.getGroundObject().getId() == -1) {
-                        continue;
+                    for (GameObject gameObject : tile.getGameObjects()) {
+                        if (gameObject == null) {
+                            continue;
+                        }
+                        if (gameObject.getId() == -1) {
+                            continue;
+                        }
+                        tileObjectHashSet.add(gameObject);
+                        //tileObjects.add(gameObject);
                     }
-                    tileObjectHashSet.add(tile.getGroundObject());
-                    //tileObjects.add(tile.getGroundObject());
-                }
-                if (tile.getWallObject() != null) {
-                    if (tile.getWallObject().getId() == -1) {
-                        continue;
+                    if (tile.getGroundObject() != null) {
+                        if (tile.getGroundObject().getId() == -1) {
+                            continue;
+                        }
+                        tileObjectHashSet.add(tile.getGroundObject());
+                        //tileObjects.add(tile.getGroundObject());
                     }
-                    tileObjectHashSet.add(tile.getWallObject());
-                    //tileObjects.add(tile.getWallObject());
-                }
-                if (tile.getDecorativeObject() != null) {
-                    if (tile.getDecorativeObject().getId() == -1) {
-                        continue;
+                    if (tile.getWallObject() != null) {
+                        if (tile.getWallObject().getId() == -1) {
+                            continue;
+                        }
+                        tileObjectHashSet.add(tile.getWallObject());
+                        //tileObjects.add(tile.getWallObject());
+                    }
+                    if (tile.getDecorativeObject() != null) {
+                        if (tile.getDecorativeObject().getId() == -1) {
+                            continue;
+                        }
+                        tileObjectHashSet.add(tile.getDecorativeObject());
+                        //tileObjects.add(tile.getDecorativeObject());
                     }
-                    tileObjectHashSet.add(tile.getDecorativeObject());
-                    //tileObjects.add(tile.getDecorativeObject());
                 }
             }
+            tileObjects = Collections.unmodifiableList(new ArrayList<>(tileObjectHashSet));
+            TileItems.tileItems = Collections.unmodifiableList(tileItems);
+            if (event.shouldCommit()) {
+                event.collection = "TileObjects";
+                event.size = tileObjectHashSet.size();
+                event.commit();
+            }
+        } finally {
+            TickProfiler.end(TickProfiler.Component.TILE_OBJECTS_TICK, start);
         }
-        tileObjects.addAll(tileObjectHashSet);
     }
 }
@@ -8,55 +8,17 @@ import net.runelite.api.Client;
 import net.runelite.api.widgets.Widget;
 import net.runelite.client.RuneLite;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-
 public class Trade {
     static Client client = RuneLite.getInjector().getInstance(Client.class);
-    static List<Widget> yourItems = new ArrayList<>();
-    static List<Widget> theirItems = new ArrayList<>();
-
-    static boolean itemUpdate = true;
-    static int yoursLastUpdateTick = 0;
-    static int theirsLastUpdateTick = 0;
+    static final ContainerStore yourItems = new ContainerStore();
+    static final ContainerStore theirItems = new ContainerStore();
 
     public static ItemQuery searchYours() {
-        if (yoursLastUpdateTick < client.getTickCount()) {
-            yourItems.clear();
-
-            try {
-                yourItems = Arrays.stream(client.getWidget(21954585).getDynamicChildren()).filter(Objects::nonNull).filter((x) -> {
-                    return x.getItemId() != 6512 && x.getItemId() != -1;
-                }).collect(Collectors.toList());
-                System.out.println(yourItems);
-            } catch (NullPointerException var3) {
-                yourItems.clear();
-            }
-
-            yoursLastUpdateTick = client.getTickCount();
-        }
-        return new ItemQuery(yourItems.stream().filter(Objects::nonNull).collect(Collectors.toList()));
+        return yourItems.search(21954585);
     }
 
     public static ItemQuery searchTheirs() {
-        if (theirsLastUpdateTick < client.getTickCount()) {
-            theirItems.clear();
-
-            try {
-                theirItems = Arrays.stream(client.getWidget(21954588).getDynamicChildren()).filter(Objects::nonNull).filter((x) -> {
-                    return x.getItemId() != 6512 && x.getItemId() != -1;
-                }).collect(Collectors.toList());
-                System.out.println(yourItems);
-            } catch (NullPointerException var3) {
-                theirItems.clear();
-            }
-
-            theirsLastUpdateTick = client.getTickCount();
-        }
-        return new ItemQuery(theirItems.stream().filter(Objects::nonNull).collect(Collectors.toList()));
+        return theirItems.search(21954588);
     }
 
     public static boolean isTradeOpen() {
@@ -0,0 +1,73 @@
+package com.example.EthanApiPlugin.Collections;
+
+import net.runelite.api.widgets.Widget;
+
+import java.util.*;
+
+//Every widget reachable from the roots, walked once and bucketed by group and packed id. Widgets drops it whenever an
+//interface loads or closes or a script runs, since that's how the tree changes. Only the id is bucketed since it can't
+//change under the index; text, items and actions can be set at any time, so queries on those check every widget live.
+public class WidgetIndex {
+    private final List<Widget> all = new ArrayList<>();
+    private final Map<Integer, List<Widget>> byGroup = new HashMap<>();
+    private final Map<Integer, List<Widget>> byId = new HashMap<>();
+
+    WidgetIndex(Widget[] roots) {
+        Set<Widget> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Widget[] currentQueue = roots == null ? new Widget[0] : roots;
+        ArrayList<Widget> buffer = new ArrayList<>();
+        while (currentQueue.length != 0) {
+            for (Widget widget : currentQueue) {
+                if (widget == null || !seen.add(widget)) {
+                    continue;
+                }
+                add(widget);
+                addAll(widget.getDynamicChildren(), buffer);
+                addAll(widget.getNestedChildren(), buffer);
+                Widget[] staticChildren;
+                try {
+                    staticChildren = widget.getStaticChildren();
+                } catch (NullPointerException e) {
+                    continue;
+                }
+                addAll(staticChildren, buffer);
+            }
+            currentQueue = buffer.toArray(new Widget[]{});
+            buffer.clear();
+        }
+    }
+
+    private static void addAll(Widget[] children, List<Widget> buffer) {
+        if (children == null) {
+            return;
+        }
+        for (Widget child : children) {
+            if (child != null) {
+                buffer.add(child);
+            }
+        }
+    }
+
+    private void add(Widget widget) {
+        all.add(widget);
+        int id = widget.getId();
+        bucket(byGroup, id >>> 16).add(widget);
+        bucket(byId, id).add(widget);
+    }
+
+    private static <K> List<Widget> bucket(Map<K, List<Widget>> map, K key) {
+        return map.computeIfAbsent(key, k -> new ArrayList<>(1));
+    }
+
+    public List<Widget> all() {
+        return all;
+    }
+
+    public List<Widget> withGroupId(int groupId) {
+        return byGroup.getOrDefault(groupId, Collections.emptyList());
+    }
+
+    public List<Widget> withId(int packedId) {
+        return byId.getOrDefault(packedId, Collections.emptyList());
+    }
+}
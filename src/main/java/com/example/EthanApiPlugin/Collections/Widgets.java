@@ -1,74 +1,72 @@
 package com.example.EthanApiPlugin.Collections;
 
 import com.example.EthanApiPlugin.Collections.query.WidgetQuery;
+import com.example.EthanApiPlugin.Profiling.TickProfiler;
 import net.runelite.api.Client;
-import net.runelite.api.widgets.Widget;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.ScriptPostFired;
+import net.runelite.api.events.WidgetClosed;
+import net.runelite.api.events.WidgetLoaded;
 import net.runelite.client.RuneLite;
-
-import java.util.*;
+import net.runelite.client.eventbus.Subscribe;
 
 public class Widgets {
     static Client client = RuneLite.getInjector().getInstance(Client.class);
-    static int lastSearchIdleTicks = -10;
-    static HashSet<Widget> cachedWidgets = new HashSet<>();
+    static volatile WidgetIndex index = null;
+    static volatile int generation = 0;
     //It is important to note that this method will return all widgets, including hidden ones.
     //Some widgets are not updated while hidden so there is a chance that the widgets returned contain outdated
     // information.
     //for update critical information make sure the widget is not hidden or use the other query types like inventory,
     // equipment ect as they will only return up-to-date information.
     public static WidgetQuery search() {
-        if(lastSearchIdleTicks==client.getKeyboardIdleTicks()){
-            return new WidgetQuery(cachedWidgets);
+        long start = TickProfiler.begin();
+        try {
+            return new WidgetQuery(index());
+        } finally {
+            TickProfiler.end(TickProfiler.Component.WIDGETS_SEARCH, start);
         }
-        HashSet<Widget> returnList = new HashSet<>();
-        Widget[] currentQueue;
-        ArrayList<Widget> buffer = new ArrayList<>();
-        currentQueue = client.getWidgetRoots();
-        while(currentQueue.length!=0) {
-            for (Widget widget : currentQueue) {
-                if (widget == null) {
-                    continue;
-                }
-                returnList.add(widget);
-                if (widget.getDynamicChildren() != null) {
-                    for (Widget dynamicChild : widget.getDynamicChildren()) {
-                        if (dynamicChild == null) {
-                            continue;
-                        }
-                        buffer.add(dynamicChild);
-                        returnList.add(dynamicChild);
-                    }
-                }
-                if (widget.getNestedChildren() != null) {
-                    for (Widget nestedChild : widget.getNestedChildren()) {
-                        if (nestedChild == null) {
-                            continue;
-                        }
-                        buffer.add(nestedChild);
-                        returnList.add(nestedChild);
-                    }
-                }
-                Widget[] staticChildren;
-                try {
-                    staticChildren = widget.getStaticChildren();
-                } catch (NullPointerException e) {
-                    continue;
-                }
-                if (staticChildren != null) {
-                    for (Widget staticChild : staticChildren) {
-                        if (staticChild == null) {
-                            continue;
-                        }
-                        buffer.add(staticChild);
-                        returnList.add(staticChild);
-                    }
-                }
+    }
+
+    //rebuilt on the first search after something invalidated it
+    public static WidgetIndex index() {
+        WidgetIndex current = index;
+        if (current == null) {
+            int built = generation;
+            current = new WidgetIndex(client.getWidgetRoots());
+            //something changed while walking the tree, use it for this search but don't keep it
+            if (built == generation) {
+                index = current;
             }
-            currentQueue = buffer.toArray(new Widget[]{});
-            buffer.clear();
         }
-        lastSearchIdleTicks = client.getKeyboardIdleTicks();
-        cachedWidgets = returnList;
-        return new WidgetQuery(returnList);
+        return current;
+    }
+
+    @Subscribe
+    public void onWidgetLoaded(WidgetLoaded e) {
+        invalidate();
+    }
+
+    @Subscribe
+    public void onWidgetClosed(WidgetClosed e) {
+        invalidate();
+    }
+
+    //interface scripts are what create and delete dynamic children
+    @Subscribe
+    public void onScriptPostFired(ScriptPostFired e) {
+        long start = TickProfiler.begin();
+        invalidate();
+        TickProfiler.end(TickProfiler.Component.WIDGETS_INVALIDATE, start);
+    }
+
+    @Subscribe
+    public void onGameStateChanged(GameStateChanged e) {
+        invalidate();
+    }
+
+    private static void invalidate() {
+        generation++;
+        index = null;
     }
-}
\ No newline at end of file
+}
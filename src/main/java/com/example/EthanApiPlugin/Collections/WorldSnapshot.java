@@ -0,0 +1,250 @@
+package com.example.EthanApiPlugin.Collections;
+
+import com.example.EthanApiPlugin.Collections.query.NPCQuery;
+import com.example.EthanApiPlugin.Collections.query.PlayerQuery;
+import com.example.EthanApiPlugin.Collections.query.TileItemQuery;
+import com.example.EthanApiPlugin.Collections.query.TileObjectQuery;
+import net.runelite.api.*;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
+import net.runelite.client.RuneLite;
+import net.runelite.client.eventbus.Subscribe;
+
+import java.util.Collections;
+import java.util.List;
+
+//Everything the decision logic of a script usually needs, captured once per tick on the client thread.
+//The snapshot is never modified after it is published, so it can be handed to worker threads without locking.
+//The actors and objects it holds are still the client's own instances, plain getters are fine to read from
+//another thread but anything that needs the client thread (compositions, menu actions, packets) still does.
+public final class WorldSnapshot {
+    static Client client = RuneLite.getInjector().getInstance(Client.class);
+    private static final int[] NO_ITEMS = new int[0];
+    private static final int[][] NO_FLAGS = new int[0][0];
+    public static final WorldSnapshot EMPTY = new WorldSnapshot(-1, 0, 0, 0, Collections.emptyList(),
+            Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), NO_ITEMS, NO_ITEMS, NO_ITEMS,
+            NO_ITEMS, NO_FLAGS);
+    private static volatile WorldSnapshot current = EMPTY;
+
+    private final int tick;
+    private final int plane;
+    private final int baseX;
+    private final int baseY;
+    private final List<NPC> npcs;
+    private final List<Player> players;
+    private final List<TileObject> tileObjects;
+    private final List<ETileItem> tileItems;
+    private final int[] inventoryIds;
+    private final int[] inventoryQuantities;
+    private final int[] equipmentIds;
+    private final int[] equipmentQuantities;
+    private final int[][] collisionFlags;
+
+    private WorldSnapshot(int tick, int plane, int baseX, int baseY, List<NPC> npcs, List<Player> players,
+                          List<TileObject> tileObjects, List<ETileItem> tileItems, int[] inventoryIds,
+                          int[] inventoryQuantities, int[] equipmentIds, int[] equipmentQuantities,
+                          int[][] collisionFlags) {
+        this.tick = tick;
+        this.plane = plane;
+        this.baseX = baseX;
+        this.baseY = baseY;
+        this.npcs = npcs;
+        this.players = players;
+        this.tileObjects = tileObjects;
+        this.tileItems = tileItems;
+        this.inventoryIds = inventoryIds;
+        this.inventoryQuantities = inventoryQuantities;
+        this.equipmentIds = equipmentIds;
+        this.equipmentQuantities = equipmentQuantities;
+        this.collisionFlags = collisionFlags;
+    }
+
+    //safe to call from any thread
+    public static WorldSnapshot get() {
+        return current;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    public int getPlane() {
+        return plane;
+    }
+
+    public int getBaseX() {
+        return baseX;
+    }
+
+    public int getBaseY() {
+        return baseY;
+    }
+
+    public NPCQuery npcs() {
+        return new NPCQuery(npcs);
+    }
+
+    public PlayerQuery players() {
+        return new PlayerQuery(players);
+    }
+
+    public TileObjectQuery tileObjects() {
+        return new TileObjectQuery(tileObjects);
+    }
+
+    public TileItemQuery tileItems() {
+        return new TileItemQuery(tileItems);
+    }
+
+    public List<NPC> getNpcs() {
+        return npcs;
+    }
+
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    public List<TileObject> getTileObjects() {
+        return tileObjects;
+    }
+
+    public List<ETileItem> getTileItems() {
+        return tileItems;
+    }
+
+    public int inventorySize() {
+        return inventoryIds.length;
+    }
+
+    public int inventoryId(int slot) {
+        return slot < 0 || slot >= inventoryIds.length ? -1 : inventoryIds[slot];
+    }
+
+    public int inventoryQuantity(int slot) {
+        return slot < 0 || slot >= inventoryQuantities.length ? 0 : inventoryQuantities[slot];
+    }
+
+    public int inventoryCount(int itemId) {
+        return count(inventoryIds, inventoryQuantities, itemId);
+    }
+
+    public boolean inventoryContains(int itemId) {
+        return indexOf(inventoryIds, itemId) != -1;
+    }
+
+    public int inventoryEmptySlots() {
+        int empty = 28;
+        for (int id : inventoryIds) {
+            if (id != -1 && id != 6512) {
+                empty--;
+            }
+        }
+        return empty;
+    }
+
+    public int equipmentId(int slot) {
+        return slot < 0 || slot >= equipmentIds.length ? -1 : equipmentIds[slot];
+    }
+
+    public int equipmentQuantity(int slot) {
+        return slot < 0 || slot >= equipmentQuantities.length ? 0 : equipmentQuantities[slot];
+    }
+
+    public boolean isEquipped(int itemId) {
+        return indexOf(equipmentIds, itemId) != -1;
+    }
+
+    //scene coordinates, -1 for tiles outside the loaded scene
+    public int collisionFlags(int sceneX, int sceneY) {
+        if (sceneX < 0 || sceneY < 0 || sceneX >= collisionFlags.length || sceneY >= collisionFlags[sceneX].length) {
+            return -1;
+        }
+        return collisionFlags[sceneX][sceneY];
+    }
+
+    public int collisionFlags(WorldPoint wp) {
+        if (wp.getPlane() != plane) {
+            return -1;
+        }
+        return collisionFlags(wp.getX() - baseX, wp.getY() - baseY);
+    }
+
+    static int count(int[] ids, int[] quantities, int itemId) {
+        int total = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == itemId) {
+                total += quantities[i];
+            }
+        }
+        return total;
+    }
+
+    static int indexOf(int[] ids, int itemId) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == itemId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static WorldSnapshot capture() {
+        WorldView worldView = client.getTopLevelWorldView();
+        int plane = worldView.getPlane();
+        int[] inventoryIds = NO_ITEMS;
+        int[] inventoryQuantities = NO_ITEMS;
+        ItemContainer inventory = client.getItemContainer(InventoryID.INVENTORY);
+        if (inventory != null) {
+            Item[] items = inventory.getItems();
+            inventoryIds = new int[items.length];
+            inventoryQuantities = new int[items.length];
+            copyItems(items, inventoryIds, inventoryQuantities);
+        }
+        int[] equipmentIds = NO_ITEMS;
+        int[] equipmentQuantities = NO_ITEMS;
+        ItemContainer equipment = client.getItemContainer(InventoryID.EQUIPMENT);
+        if (equipment != null) {
+            Item[] items = equipment.getItems();
+            equipmentIds = new int[items.length];
+            equipmentQuantities = new int[items.length];
+            copyItems(items, equipmentIds, equipmentQuantities);
+        }
+        int[][] flags = NO_FLAGS;
+        CollisionData[] collisionMaps = worldView.getCollisionMaps();
+        if (collisionMaps != null && collisionMaps[plane] != null) {
+            int[][] live = collisionMaps[plane].getFlags();
+            flags = new int[live.length][];
+            for (int x = 0; x < live.length; x++) {
+                flags[x] = live[x].clone();
+            }
+        }
+        return new WorldSnapshot(client.getTickCount(), plane, worldView.getBaseX(), worldView.getBaseY(),
+                NPCs.list(), Players.players, TileObjects.tileObjects, TileItems.tileItems, inventoryIds,
+                inventoryQuantities, equipmentIds, equipmentQuantities, flags);
+    }
+
+    private static void copyItems(Item[] items, int[] ids, int[] quantities) {
+        for (int i = 0; i < items.length; i++) {
+            if (items[i] == null) {
+                ids[i] = -1;
+                continue;
+            }
+            ids[i] = items[i].getId();
+            quantities[i] = items[i].getQuantity();
+        }
+    }
+
+    //runs after NPCs, Players and TileObjects (priority 10000) have published this tick's lists
+    @Subscribe(priority = 9999)
+    public void onGameTick(GameTick e) {
+        current = capture();
+    }
+
+    @Subscribe
+    public void onGameStateChanged(GameStateChanged gameStateChanged) {
+        if (gameStateChanged.getGameState() == GameState.HOPPING || gameStateChanged.getGameState() == GameState.LOGIN_SCREEN || gameStateChanged.getGameState() == GameState.CONNECTION_LOST) {
+            current = EMPTY;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.EthanApiPlugin.Collections.query;
 
 import com.example.EthanApiPlugin.Collections.EquipmentItemWidget;
+import com.example.EthanApiPlugin.Profiling.QueryProfiler;
 import net.runelite.api.widgets.Widget;
 import net.runelite.client.util.Text;
 import net.runelite.client.util.WildcardMatcher;
@@ -11,53 +12,72 @@ import java.util.stream.Collectors;
 
 public class EquipmentItemQuery {
     private List<EquipmentItemWidget> items;
+    private final QueryProfiler.Trace trace;
 
     public EquipmentItemQuery(List<EquipmentItemWidget> items) {
+        this.trace = QueryProfiler.start("EquipmentItemQuery", items.size());
         this.items = new ArrayList(items);
     }
 
     public EquipmentItemQuery filter(Predicate<? super Widget> predicate) {
+        QueryProfiler.step(trace, "filter", items.size());
         items = items.stream().filter(predicate).collect(Collectors.toList());
         return this;
     }
 
     public EquipmentItemQuery withAction(String action) {
+        QueryProfiler.step(trace, "withAction", items.size());
         items = items.stream().filter(item -> Arrays.asList(item.getActions()).contains(action)).collect(Collectors.toList());
         return this;
     }
 
     public EquipmentItemQuery withId(int id) {
+        QueryProfiler.step(trace, "withId", items.size());
         items = items.stream().filter(item -> item.getEquipmentItemId() == id).collect(Collectors.toList());
         return this;
     }
 
     public EquipmentItemQuery withName(String name) {
+        QueryProfiler.step(trace, "withName", items.size());
         items = items.stream().filter(item -> item.getName().equals(name)).collect(Collectors.toList());
         return this;
     }
 
     public EquipmentItemQuery nameContains(String name) {
+        QueryProfiler.step(trace, "nameContains", items.size());
         items = items.stream().filter(item -> item.getName().contains(name)).collect(Collectors.toList());
         return this;
     }
 
     public EquipmentItemQuery nameContainsNoCase(String name) {
+        QueryProfiler.step(trace, "nameContainsNoCase", items.size());
         items =
                 items.stream().filter(item -> item.getName().toLowerCase().contains(name.toLowerCase())).collect(Collectors.toList());
         return this;
     }
 
     public EquipmentItemQuery idInList(List<Integer> ids) {
+        return withSet(IntSet.of(ids));
+    }
+
+    public EquipmentItemQuery idInList(int... ids) {
+        return withSet(IntSet.of(ids));
+    }
+
+    public EquipmentItemQuery withSet(IntSet ids) {
+        QueryProfiler.step(trace, "withSet", items.size());
         items = items.stream().filter(item -> ids.contains(item.getEquipmentItemId())).collect(Collectors.toList());
         return this;
     }
 
     public EquipmentItemQuery indexIs(int index) {
+        QueryProfiler.step(trace, "indexIs", items.size());
         items = items.stream().filter(item -> item.getIndex() == index).collect(Collectors.toList());
         return this;
     }
 
     public EquipmentItemQuery matchesWildCardNoCase(String input) {
+        QueryProfiler.step(trace, "matchesWildCardNoCase", items.size());
         items =
                 items.stream().
                         filter(item -> WildcardMatcher.matches(input.toLowerCase(), Text.removeTags(item.getName().toLowerCase()))).
@@ -66,19 +86,23 @@ public class EquipmentItemQuery {
     }
 
     public boolean empty() {
+        QueryProfiler.finish(trace, "empty", items.size());
         return items.size() == 0;
     }
 
     public EquipmentItemQuery filterUnique() {
-        items = items.stream().collect(Collectors.collectingAndThen(Collectors.toCollection(() -> new TreeSet<>(Comparator.comparingInt(Widget::getItemId))), ArrayList::new));
+        QueryProfiler.step(trace, "filterUnique", items.size());
+        items = IntSet.uniqueBy(items, Widget::getItemId);
         return this;
     }
 
     public List<EquipmentItemWidget> result() {
+        QueryProfiler.finish(trace, "result", items.size());
         return items;
     }
 
     public Optional<EquipmentItemWidget> first() {
+        QueryProfiler.finish(trace, "first", items.size());
         Widget returnWidget = null;
         if (items.size() == 0) {
             return Optional.ofNullable(null);
@@ -0,0 +1,177 @@
+package com.example.EthanApiPlugin.Collections.query;
+
+import java.util.*;
+import java.util.function.ToIntFunction;
+
+//Read only set of ints for the id filters, no boxing on lookups. IntSet.of picks the layout from the values:
+//a sorted array searched by binary search for a handful of ids, a bitset when the ids sit in a dense range, and an
+//open addressing hash table for everything else.
+public abstract class IntSet {
+    private static final int SMALL = 16;
+    public static final IntSet EMPTY = new Sorted(new int[0]);
+
+    //sorted and distinct, kept so sets built from the same ids compare equal
+    private final int[] values;
+    private final int hash;
+
+    private IntSet(int[] values) {
+        this.values = values;
+        this.hash = Arrays.hashCode(values);
+    }
+
+    public abstract boolean contains(int value);
+
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof IntSet && Arrays.equals(values, ((IntSet) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    public static IntSet of(int... values) {
+        if (values == null || values.length == 0) {
+            return EMPTY;
+        }
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int n = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[n - 1]) {
+                sorted[n++] = sorted[i];
+            }
+        }
+        int[] distinct = n == sorted.length ? sorted : Arrays.copyOf(sorted, n);
+        if (n <= SMALL) {
+            return new Sorted(distinct);
+        }
+        long span = (long) distinct[n - 1] - distinct[0] + 1;
+        //a long per 64 ids of range, worth it while that's no more memory than a hash slot per id
+        if (span / 64 <= n) {
+            return new Bits(distinct);
+        }
+        return new Hash(distinct);
+    }
+
+    public static IntSet of(Collection<Integer> values) {
+        int[] array = new int[values.size()];
+        int i = 0;
+        for (Integer value : values) {
+            if (value != null) {
+                array[i++] = value;
+            }
+        }
+        return of(i == array.length ? array : Arrays.copyOf(array, i));
+    }
+
+    //keeps the first element for every id, ordered by id. Same result as collecting into a TreeSet by id.
+    static <T> List<T> uniqueBy(List<T> list, ToIntFunction<? super T> id) {
+        List<T> sorted = new ArrayList<>(list);
+        //List.sort is stable, so the first of each id stays in front
+        sorted.sort(Comparator.comparingInt(id));
+        List<T> unique = new ArrayList<>(sorted.size());
+        for (T element : sorted) {
+            if (unique.isEmpty() || id.applyAsInt(unique.get(unique.size() - 1)) != id.applyAsInt(element)) {
+                unique.add(element);
+            }
+        }
+        return unique;
+    }
+
+    private static final class Sorted extends IntSet {
+        private final int[] values;
+
+        Sorted(int[] values) {
+            super(values);
+            this.values = values;
+        }
+
+        @Override
+        public boolean contains(int value) {
+            return Arrays.binarySearch(values, value) >= 0;
+        }
+    }
+
+    private static final class Bits extends IntSet {
+        private final int min;
+        private final long[] words;
+
+        Bits(int[] distinct) {
+            super(distinct);
+            min = distinct[0];
+            int span = distinct[distinct.length - 1] - min + 1;
+            words = new long[(span + 63) >>> 6];
+            for (int value : distinct) {
+                int bit = value - min;
+                words[bit >>> 6] |= 1L << bit;
+            }
+        }
+
+        @Override
+        public boolean contains(int value) {
+            long bit = (long) value - min;
+            if (bit < 0 || bit >= (long) words.length << 6) {
+                return false;
+            }
+            return (words[(int) (bit >>> 6)] & (1L << bit)) != 0;
+        }
+    }
+
+    private static final class Hash extends IntSet {
+        //no real id is this, so it marks a free slot
+        private static final int FREE = Integer.MIN_VALUE;
+        private final int[] table;
+        private final int mask;
+        private final boolean hasFree;
+
+        Hash(int[] distinct) {
+            super(distinct);
+            int capacity = Integer.highestOneBit(distinct.length * 2 - 1) << 1;
+            table = new int[capacity];
+            Arrays.fill(table, FREE);
+            mask = capacity - 1;
+            boolean free = false;
+            for (int value : distinct) {
+                if (value == FREE) {
+                    free = true;
+                    continue;
+                }
+                int i = mix(value) & mask;
+                while (table[i] != FREE) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = value;
+            }
+            hasFree = free;
+        }
+
+        private static int mix(int value) {
+            int h = value * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        @Override
+        public boolean contains(int value) {
+            if (value == FREE) {
+                return hasFree;
+            }
+            int i = mix(value) & mask;
+            while (true) {
+                int slot = table[i];
+                if (slot == value) {
+                    return true;
+                }
+                if (slot == FREE) {
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+        }
+    }
+}
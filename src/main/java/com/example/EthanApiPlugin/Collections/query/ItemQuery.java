@@ -1,14 +1,14 @@
 package com.example.EthanApiPlugin.Collections.query;
 
+import com.example.EthanApiPlugin.Collections.ContainerStore;
+import com.example.EthanApiPlugin.Collections.ItemMetaTable;
 import com.example.EthanApiPlugin.EthanApiPlugin;
-import lombok.SneakyThrows;
+import com.example.EthanApiPlugin.Profiling.QueryProfiler;
 import net.runelite.api.Client;
-import net.runelite.api.ItemComposition;
 import net.runelite.api.widgets.Widget;
 import net.runelite.client.RuneLite;
 import net.runelite.client.game.ItemManager;
 import net.runelite.client.util.Text;
-import net.runelite.client.util.WildcardMatcher;
 
 import java.util.*;
 import java.util.function.Predicate;
@@ -16,58 +16,128 @@ import java.util.stream.Collectors;
 
 public class ItemQuery {
     private List<Widget> items;
+    //store backed queries filter rows of the container contents and only turn them into widgets when a filter or
+    //the result needs them
+    private ContainerStore.Contents contents;
+    private int[] rows;
+    private int count;
+    private final QueryProfiler.Trace trace;
     static Client client = RuneLite.getInjector().getInstance(Client.class);
     static ItemManager itemManager = RuneLite.getInjector().getInstance(ItemManager.class);
 
     public ItemQuery(List<Widget> items) {
+        this.trace = QueryProfiler.start("ItemQuery", items.size());
         this.items = new ArrayList(items);
     }
 
+    public ItemQuery(ContainerStore.Contents contents) {
+        this.trace = QueryProfiler.start("ItemQuery", contents.size());
+        this.contents = contents;
+        this.count = contents.size();
+        this.rows = new int[count];
+        for (int i = 0; i < count; i++) {
+            rows[i] = i;
+        }
+    }
+
+    private interface SlotPredicate {
+        boolean test(int itemId, int quantity, int slot);
+    }
+
+    private ItemQuery filterSlots(SlotPredicate predicate) {
+        if (items != null) {
+            items = items.stream().filter(item -> predicate.test(item.getItemId(), item.getItemQuantity(), item.getIndex())).collect(Collectors.toList());
+            return this;
+        }
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (predicate.test(contents.getId(row), contents.getQuantity(row), contents.getSlot(row))) {
+                rows[kept++] = row;
+            }
+        }
+        count = kept;
+        return this;
+    }
+
+    private int size() {
+        return items != null ? items.size() : count;
+    }
+
+    private void materialize() {
+        if (items != null) {
+            return;
+        }
+        List<Widget> widgets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Widget widget = contents.widget(rows[i]);
+            if (widget != null) {
+                widgets.add(widget);
+            }
+        }
+        items = widgets;
+        contents = null;
+        rows = null;
+    }
+
     public ItemQuery filter(Predicate<? super Widget> predicate) {
+        QueryProfiler.step(trace, "filter", size());
+        materialize();
         items = items.stream().filter(predicate).collect(Collectors.toList());
         return this;
     }
 
     public ItemQuery withAction(String action) {
+        QueryProfiler.step(trace, "withAction", size());
+        materialize();
         items = items.stream().filter(item -> Arrays.asList(item.getActions()).contains(action)).collect(Collectors.toList());
         return this;
     }
     public ItemQuery tradeAble() {
-        items = items.stream().filter(item -> itemManager.getItemComposition(item.getItemId()).isTradeable()).collect(Collectors.toList());
-        return this;
+        QueryProfiler.step(trace, "tradeAble", size());
+        return filterSlots((id, quantity, slot) -> ItemMetaTable.isTradeable(id));
     }
     public ItemQuery differenceInValueLessThan(int difference) {
-        items = items.stream().filter(item -> Math.abs(itemManager.getItemComposition(item.getItemId()).getHaPrice() - itemManager.getItemPriceWithSource(item.getItemId(),true)) < difference).collect(Collectors.toList());
-        return this;
+        QueryProfiler.step(trace, "differenceInValueLessThan", size());
+        return filterSlots((id, quantity, slot) -> Math.abs(ItemMetaTable.getHaPrice(id) - itemManager.getItemPriceWithSource(id,true)) < difference);
     }
     public ItemQuery priceOver(int price) {
-        items = items.stream().filter(item -> itemManager.getItemComposition(item.getItemId()).getHaPrice() >= price).collect(Collectors.toList());
-        return this;
+        QueryProfiler.step(trace, "priceOver", size());
+        return filterSlots((id, quantity, slot) -> ItemMetaTable.getHaPrice(id) >= price);
     }
 
     public ItemQuery withSet(Set<Integer> ids) {
-        items = items.stream()
-                .filter(item -> ids.contains(item.getItemId()))
-                .collect(Collectors.toList());
-        return this;
+        return withSet(IntSet.of(ids));
+    }
+
+    public ItemQuery withSet(IntSet ids) {
+        QueryProfiler.step(trace, "withSet", size());
+        return filterSlots((id, quantity, slot) -> ids.contains(id));
     }
 
     public ItemQuery withId(int id) {
-        items = items.stream().filter(item -> item.getItemId() == id).collect(Collectors.toList());
-        return this;
+        QueryProfiler.step(trace, "withId", size());
+        return filterSlots((itemId, quantity, slot) -> itemId == id);
     }
 
     public ItemQuery withName(String name) {
-        items = items.stream().filter(item -> Text.removeTags(item.getName()).equals(Text.removeTags(name))).collect(Collectors.toList());
+        QueryProfiler.step(trace, "withName", size());
+        String stripped = Text.removeTags(name);
+        if (items == null) {
+            return filterSlots((id, quantity, slot) -> stripped.equals(ItemMetaTable.getName(id)));
+        }
+        items = items.stream().filter(item -> stripped.equals(name(item))).collect(Collectors.toList());
         return this;
     }
 
     public ItemQuery quantityGreaterThan(int quanity) {
-        items = items.stream().filter(item -> item.getItemQuantity() > quanity).collect(Collectors.toList());
-        return this;
+        QueryProfiler.step(trace, "quantityGreaterThan", size());
+        return filterSlots((id, quantity, slot) -> quantity > quanity);
     }
 
     public ItemQuery nameContains(String name) {
+        QueryProfiler.step(trace, "nameContains", size());
+        materialize();
         items = items.stream().filter(item -> item.getName().contains(name)).collect(Collectors.toList());
         return this;
     }
@@ -77,78 +147,126 @@ public class ItemQuery {
     }
 
     public ItemQuery idInList(List<Integer> ids) {
-        items = items.stream().filter(item -> ids.contains(item.getItemId())).collect(Collectors.toList());
-        return this;
+        return withSet(IntSet.of(ids));
+    }
+
+    public ItemQuery idInList(int... ids) {
+        return withSet(IntSet.of(ids));
     }
 
     public ItemQuery nameInList(List<String> names) {
-        items = items.stream()
-                .filter(item -> names.stream()
-                        .map(String::toLowerCase)
-                        .anyMatch(name -> Text.removeTags(item.getName()).equalsIgnoreCase(name)))
-                .collect(Collectors.toList());
-        return this;
+        QueryProfiler.step(trace, "nameInList", size());
+        return matchNames(NameMatcher.exact(names));
     }
 
     public ItemQuery indexIs(int index) {
-        items = items.stream().filter(item -> item.getIndex() == index).collect(Collectors.toList());
-        return this;
+        QueryProfiler.step(trace, "indexIs", size());
+        return filterSlots((id, quantity, slot) -> slot == index);
     }
 
     public ItemQuery matchesWildCardNoCase(String input) {
-        items =
-                items.stream().
-                        filter(item -> WildcardMatcher.matches(input.toLowerCase(), Text.removeTags(item.getName().toLowerCase()))).
-                        collect(Collectors.toList());
+        QueryProfiler.step(trace, "matchesWildCardNoCase", size());
+        return matchNames(NameMatcher.of(input));
+    }
+
+    public ItemQuery matchesAnyWildCardNoCase(String... inputs) {
+        QueryProfiler.step(trace, "matchesAnyWildCardNoCase", size());
+        return matchNames(NameMatcher.of(inputs));
+    }
+
+    private ItemQuery matchNames(NameMatcher matcher) {
+        if (items == null) {
+            return filterSlots((id, quantity, slot) -> matcher.matches(id));
+        }
+        items = items.stream().filter(item -> ItemMetaTable.getName(item.getItemId()) != null
+                ? matcher.matches(item.getItemId())
+                : matcher.matches(lowerName(item))).collect(Collectors.toList());
         return this;
     }
 
+    //definition name by id, the widget's own name for widgets that don't hold an item
+    private static String name(Widget item) {
+        String name = ItemMetaTable.getName(item.getItemId());
+        if (name == null && item.getName() != null) {
+            name = Text.removeTags(item.getName());
+        }
+        return name;
+    }
+
+    private static String lowerName(Widget item) {
+        String name = name(item);
+        return name == null ? null : name.toLowerCase();
+    }
+
     public ItemQuery onlyNoted() {
-        items = items.stream().filter(this::isNoted).collect(Collectors.toList());
-        return this;
+        QueryProfiler.step(trace, "onlyNoted", size());
+        return filterSlots((id, quantity, slot) -> isNoted(id));
     }
 
     public ItemQuery onlyStackable() {
-        items = items.stream().filter(this::isStackable).collect(Collectors.toList());
-        return this;
+        QueryProfiler.step(trace, "onlyStackable", size());
+        return filterSlots((id, quantity, slot) -> isStackable(id));
     }
 
 
     public ItemQuery onlyUnnoted() {
-        items = items.stream().filter(item -> !isNoted(item)).collect(Collectors.toList());
-        return this;
+        QueryProfiler.step(trace, "onlyUnnoted", size());
+        return filterSlots((id, quantity, slot) -> !isNoted(id));
     }
 
     public boolean empty() {
+        QueryProfiler.finish(trace, "empty", size());
+        if (items == null) {
+            return count == 0;
+        }
         return items.size() == 0;
     }
 
     public ItemQuery filterUnique() {
-        items = items.stream().collect(Collectors.collectingAndThen(Collectors.toCollection(() -> new TreeSet<>(Comparator.comparingInt(Widget::getItemId))), ArrayList::new));
+        QueryProfiler.step(trace, "filterUnique", size());
+        materialize();
+        items = IntSet.uniqueBy(items, Widget::getItemId);
         return this;
     }
 
     public List<Widget> result() {
+        QueryProfiler.finish(trace, "result", size());
+        materialize();
         return items;
     }
 
     public Optional<Widget> first() {
+        QueryProfiler.finish(trace, "first", size());
         Widget returnWidget = null;
+        if (items == null) {
+            //a row can be left without a widget, the first one that has one is the first match
+            for (int i = 0; i < count; i++) {
+                Widget widget = contents.widget(rows[i]);
+                if (widget != null) {
+                    return Optional.of(widget);
+                }
+            }
+            return Optional.empty();
+        }
         if (items.size() == 0) {
             return Optional.ofNullable(null);
         }
         return Optional.ofNullable(items.get(0));
     }
 
-    @SneakyThrows
     public boolean isNoted(Widget item) {
-        ItemComposition itemComposition = EthanApiPlugin.itemDefs.get(item.getItemId());
-        return itemComposition.getNote() != -1;
+        return isNoted(item.getItemId());
     }
 
-    @SneakyThrows
     public boolean isStackable(Widget item) {
-        ItemComposition itemComposition = EthanApiPlugin.itemDefs.get(item.getItemId());
-        return itemComposition.isStackable();
+        return isStackable(item.getItemId());
+    }
+
+    private boolean isNoted(int itemId) {
+        return ItemMetaTable.isNoted(itemId);
+    }
+
+    private boolean isStackable(int itemId) {
+        return ItemMetaTable.isStackable(itemId);
     }
 }
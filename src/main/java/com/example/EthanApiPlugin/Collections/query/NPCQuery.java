@@ -1,9 +1,11 @@
 package com.example.EthanApiPlugin.Collections.query;
 
-import com.example.EthanApiPlugin.Collections.Players;
+import com.example.EthanApiPlugin.Collections.ActionIndex;
+import com.example.EthanApiPlugin.Collections.InteractionGraph;
 import com.example.EthanApiPlugin.EthanApiPlugin;
 import com.example.EthanApiPlugin.PathFinding.GlobalCollisionMap;
 import com.example.EthanApiPlugin.Utility.WorldAreaUtility;
+import com.example.EthanApiPlugin.Profiling.QueryProfiler;
 import net.runelite.api.Actor;
 import net.runelite.api.Client;
 import net.runelite.api.NPC;
@@ -19,82 +21,134 @@ import java.util.stream.Collectors;
 public class NPCQuery {
     static Client client = RuneLite.getInjector().getInstance(Client.class);
     private List<NPC> npcs;
+    private final QueryMemo<NPC> memo;
+    private final QueryProfiler.Trace trace;
 
     public NPCQuery(List<NPC> npcs) {
+        this.trace = QueryProfiler.start("NPCQuery", npcs.size());
+        this.memo = new QueryMemo<>(npcs, trace);
         this.npcs = new ArrayList(npcs.stream().filter(Objects::nonNull).collect(Collectors.toList()));
     }
 
+    //remembers every filter step of this query for the rest of the tick, call it straight after search()
+    public NPCQuery memoized() {
+        memo.enable();
+        return this;
+    }
+
+    private boolean cached(String op, Object... args) {
+        List<NPC> hit = memo.cached(op, npcs.size(), args);
+        if (hit == null) {
+            return false;
+        }
+        npcs = hit;
+        return true;
+    }
+
+    private NPCQuery remember() {
+        memo.store(npcs);
+        return this;
+    }
+
     public NPCQuery filter(Predicate<? super NPC> predicate) {
+        memo.uncacheable(npcs.size());
         npcs = npcs.stream().filter(predicate).collect(Collectors.toList());
         return this;
     }
 
     public NPCQuery atLocation(WorldPoint wp) {
+        if (cached("atLocation", wp)) {
+            return this;
+        }
         npcs = npcs.stream().filter(npc -> npc.getWorldLocation().equals(wp)).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public NPCQuery withAction(String action) {
+        if (cached("withAction", action)) {
+            return this;
+        }
         npcs = npcs.stream().filter(npc -> {
-            NPCComposition npcComposition = getNPCComposition(npc);
-            if (npcComposition == null)
-                return false;
-            String[] actions = getNPCComposition(npc).getActions();
-            return Arrays.stream(actions).filter(Objects::nonNull).anyMatch(a -> a.equalsIgnoreCase(action));
+            ActionIndex.Actions actions = ActionIndex.npc(npc);
+            return actions != null && actions.has(action);
         }).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public NPCQuery withId(int id) {
+        if (cached("withId", id)) {
+            return this;
+        }
         npcs = npcs.stream().filter(npc -> npc.getId() == id).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public NPCQuery withName(String name) {
+        if (cached("withName", name)) {
+            return this;
+        }
         npcs = npcs.stream().filter(npcs -> npcs.getName() != null && npcs.getName().equals(name)).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public NPCQuery nameContains(String name) {
+        if (cached("nameContains", name)) {
+            return this;
+        }
         npcs = npcs.stream().filter(npcs -> npcs.getName() != null && npcs.getName().contains(name)).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public NPCQuery interactingWithLocal() {
-        List<NPC> filteredNPCs = new ArrayList<>();
-        for (NPC npc : npcs) {
-            if (!npc.isInteracting())
-                continue;
-            if (npc.getInteracting() == client.getLocalPlayer())
-                filteredNPCs.add(npc);
-        }
-        npcs = filteredNPCs;
-        return this;
+        return interactingWith(client.getLocalPlayer());
     }
 
     public NPCQuery interactingWith(Actor actor) {
+        if (cached("interactingWith", actor)) {
+            return this;
+        }
         List<NPC> filteredNPCs = new ArrayList<>();
+        if (actor == null) {
+            npcs = filteredNPCs;
+            return remember();
+        }
+        InteractionGraph graph = InteractionGraph.get();
         for (NPC npc : npcs) {
-            if (!npc.isInteracting())
-                continue;
-            if (npc.getInteracting() == actor)
+            if (graph.targetOf(npc) == actor)
                 filteredNPCs.add(npc);
         }
         npcs = filteredNPCs;
-        return this;
+        return remember();
     }
 
     public NPCQuery idInList(List<Integer> ids) {
+        return withSet(IntSet.of(ids));
+    }
+
+    public NPCQuery idInList(int... ids) {
+        return withSet(IntSet.of(ids));
+    }
+
+    public NPCQuery withSet(IntSet ids) {
+        if (cached("withSet", ids)) {
+            return this;
+        }
         npcs = npcs.stream().filter(npcs -> ids.contains(npcs.getId())).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public NPCQuery withinWorldArea(WorldArea area) {
+        if (cached("withinWorldArea", area)) {
+            return this;
+        }
         npcs = npcs.stream().filter(npcs -> area.contains(npcs.getWorldLocation())).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public NPCQuery withinBounds(WorldPoint min, WorldPoint max) {
+        if (cached("withinBounds", min, max)) {
+            return this;
+        }
         int x1 = min.getX();
         int x2 = max.getX();
         int y1 = min.getY();
@@ -110,59 +164,88 @@ public class NPCQuery {
 
             return y3 <= Math.max(y1, y2) && y3 >= Math.min(y1, y2);
         }).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public NPCQuery indexIs(int index) {
+        if (cached("indexIs", index)) {
+            return this;
+        }
         npcs = npcs.stream().filter(npcs -> npcs.getIndex() == index).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public boolean empty() {
+        QueryProfiler.finish(trace, "empty", npcs.size());
         return npcs.size() == 0;
     }
 
     public NPCQuery filterUnique() {
-        npcs =
-                npcs.stream().collect(Collectors.collectingAndThen(Collectors.toCollection(() -> new TreeSet<>(Comparator.comparingInt(NPC::getId))), ArrayList::new));
-        return this;
+        if (cached("filterUnique")) {
+            return this;
+        }
+        npcs = IntSet.uniqueBy(npcs, NPC::getId);
+        return remember();
     }
 
     public List<NPC> result() {
+        QueryProfiler.finish(trace, "result", npcs.size());
         return npcs;
     }
 
     public NPCQuery walkable() {
+        if (cached("walkable")) {
+            return this;
+        }
         npcs = npcs.stream().filter(npc -> EthanApiPlugin.canPathToTile(npc.getWorldLocation()).isReachable()).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public NPCQuery interacting() {
+        if (cached("interacting")) {
+            return this;
+        }
         npcs = npcs.stream().filter(Actor::isInteracting).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public NPCQuery notInteracting() {
+        if (cached("notInteracting")) {
+            return this;
+        }
         npcs = npcs.stream().filter(npc -> !npc.isInteracting()).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public NPCQuery noOneInteractingWith() {
-        npcs = npcs.stream().filter(npc -> Players.search().interactingWith(npc).isEmpty()).collect(Collectors.toList());
-        return this;
+        if (cached("noOneInteractingWith")) {
+            return this;
+        }
+        InteractionGraph graph = InteractionGraph.get();
+        npcs = npcs.stream().filter(npc -> !graph.isTargetedByPlayer(npc)).collect(Collectors.toList());
+        return remember();
     }
 
     public NPCQuery playerInteractingWith() {
+        if (cached("playerInteractingWith")) {
+            return this;
+        }
         npcs = npcs.stream().filter(npc -> client.getLocalPlayer().isInteracting() && client.getLocalPlayer().getInteracting() == npc).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public NPCQuery playerNotInteractingWith() {
+        if (cached("playerNotInteractingWith")) {
+            return this;
+        }
         npcs = npcs.stream().filter(npc -> !client.getLocalPlayer().isInteracting() || client.getLocalPlayer().getInteracting() != npc).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public NPCQuery meleeable() {
+        if (cached("meleeable")) {
+            return this;
+        }
         List<WorldPoint> meleeTiles = new ArrayList<>();
         meleeTiles.add(client.getLocalPlayer().getWorldLocation().dx(1));
         meleeTiles.add(client.getLocalPlayer().getWorldLocation().dx(-1));
@@ -170,15 +253,19 @@ public class NPCQuery {
         meleeTiles.add(client.getLocalPlayer().getWorldLocation().dy(-1));
         npcs =
                 npcs.stream().filter(npc -> !Collections.disjoint(meleeTiles, npc.getWorldArea().toWorldPointList()) && npc.getWorldArea().distanceTo(client.getLocalPlayer().getWorldLocation()) == 1).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public NPCQuery alive() {
+        if (cached("alive")) {
+            return this;
+        }
         npcs = npcs.stream().filter(npc -> !npc.isDead() && npc.getHealthRatio() != 0).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public Optional<NPC> nearestToPlayer() {
+        QueryProfiler.finish(trace, "nearestToPlayer", npcs.size());
         if (npcs.size() == 0) {
             return Optional.ofNullable(null);
         }
@@ -186,6 +273,7 @@ public class NPCQuery {
     }
 
     public Optional<NPC> nearestToPoint(WorldPoint point) {
+        QueryProfiler.finish(trace, "nearestToPoint", npcs.size());
         if (npcs.size() == 0) {
             return Optional.ofNullable(null);
         }
@@ -193,6 +281,7 @@ public class NPCQuery {
     }
 
     public Optional<NPC> first() {
+        QueryProfiler.finish(trace, "first", npcs.size());
         if (npcs.size() == 0) {
             return Optional.ofNullable(null);
         }
@@ -207,6 +296,7 @@ public class NPCQuery {
     }
 
     public Optional<NPC> nearestByPath() {
+        QueryProfiler.finish(trace, "nearestByPath", npcs.size());
         HashMap<WorldPoint, NPC> npcMap = new HashMap<>();
         for (NPC npc : npcs) {
             for (WorldPoint wp : npc.getWorldArea().toWorldPointList()) {
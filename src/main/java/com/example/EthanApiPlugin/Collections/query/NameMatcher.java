@@ -0,0 +1,96 @@
+package com.example.EthanApiPlugin.Collections.query;
+
+import com.example.EthanApiPlugin.Collections.ItemMetaTable;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.SneakyThrows;
+import net.runelite.client.util.Text;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+//A set of item names and wildcard patterns compiled once. Plain names go into a hash set, the wildcard ones are
+//merged into a single regex, and since an item's name never changes the answer is remembered per item id.
+//Matchers are cached by their inputs because scripts tend to pass the same loot or alch list every tick.
+//Matching is case insensitive and ignores tags, the same as WildcardMatcher on lowercased names.
+public class NameMatcher {
+    private static final Cache<List<String>, NameMatcher> compiled = CacheBuilder.newBuilder().maximumSize(256).build();
+    private static final Cache<List<String>, NameMatcher> compiledExact = CacheBuilder.newBuilder().maximumSize(256).build();
+
+    private final Set<String> exact = new HashSet<>();
+    private final Pattern wildcards;
+    private final Map<Integer, Boolean> byId = new ConcurrentHashMap<>();
+
+    private NameMatcher(List<String> inputs, boolean allowWildcards) {
+        StringBuilder regex = new StringBuilder();
+        for (String input : inputs) {
+            if (input == null) {
+                continue;
+            }
+            String name = Text.removeTags(input).toLowerCase();
+            if (!allowWildcards || name.indexOf('*') == -1) {
+                exact.add(name);
+                continue;
+            }
+            if (regex.length() > 0) {
+                regex.append('|');
+            }
+            regex.append("(?:");
+            String[] parts = name.split("\\*", -1);
+            for (int i = 0; i < parts.length; i++) {
+                if (i > 0) {
+                    regex.append(".*");
+                }
+                if (!parts[i].isEmpty()) {
+                    regex.append(Pattern.quote(parts[i]));
+                }
+            }
+            regex.append(')');
+        }
+        wildcards = regex.length() == 0 ? null : Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    @SneakyThrows
+    public static NameMatcher of(Collection<String> inputs) {
+        List<String> key = Collections.unmodifiableList(new ArrayList<>(inputs));
+        return compiled.get(key, () -> new NameMatcher(key, true));
+    }
+
+    public static NameMatcher of(String... inputs) {
+        return of(Arrays.asList(inputs));
+    }
+
+    //'*' is just another character here
+    @SneakyThrows
+    public static NameMatcher exact(Collection<String> names) {
+        List<String> key = Collections.unmodifiableList(new ArrayList<>(names));
+        return compiledExact.get(key, () -> new NameMatcher(key, false));
+    }
+
+    //lowerName has to be tag free and lowercase already, ItemMetaTable.getLowerName gives that
+    public boolean matches(String lowerName) {
+        if (lowerName == null) {
+            return false;
+        }
+        if (exact.contains(lowerName)) {
+            return true;
+        }
+        return wildcards != null && wildcards.matcher(lowerName).matches();
+    }
+
+    //by the item definition's name, memoized per id. Ids the table hasn't filled yet, like off the client thread,
+    //don't match this time and aren't memoized so they're looked at again once it has
+    public boolean matches(int itemId) {
+        Boolean result = byId.get(itemId);
+        if (result == null) {
+            String lowerName = ItemMetaTable.getLowerName(itemId);
+            if (lowerName == null) {
+                return false;
+            }
+            result = matches(lowerName);
+            byId.put(itemId, result);
+        }
+        return result;
+    }
+}
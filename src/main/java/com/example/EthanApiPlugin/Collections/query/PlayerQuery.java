@@ -1,8 +1,10 @@
 package com.example.EthanApiPlugin.Collections.query;
 
+import com.example.EthanApiPlugin.Collections.InteractionGraph;
 import com.example.EthanApiPlugin.EthanApiPlugin;
 import com.example.EthanApiPlugin.PathFinding.GlobalCollisionMap;
 import com.example.EthanApiPlugin.Utility.WorldAreaUtility;
+import com.example.EthanApiPlugin.Profiling.QueryProfiler;
 import net.runelite.api.Actor;
 import net.runelite.api.Client;
 import net.runelite.api.NPC;
@@ -18,95 +20,137 @@ import java.util.stream.Collectors;
 public class PlayerQuery {
     static Client client = RuneLite.getInjector().getInstance(Client.class);
     private List<Player> players;
+    private final QueryMemo<Player> memo;
+    private final QueryProfiler.Trace trace;
 
     public PlayerQuery(List<Player> players) {
+        this.trace = QueryProfiler.start("PlayerQuery", players.size());
+        this.memo = new QueryMemo<>(players, trace);
         this.players = new ArrayList<>(players);
     }
 
+    //remembers every filter step of this query for the rest of the tick, call it straight after search()
+    public PlayerQuery memoized() {
+        memo.enable();
+        return this;
+    }
+
+    private boolean cached(String op, Object... args) {
+        List<Player> hit = memo.cached(op, players.size(), args);
+        if (hit == null) {
+            return false;
+        }
+        players = hit;
+        return true;
+    }
+
+    private PlayerQuery remember() {
+        memo.store(players);
+        return this;
+    }
+
     public PlayerQuery withName(String name) {
+        if (cached("withName", name)) {
+            return this;
+        }
         List<Player> filteredPlayers = new ArrayList<>();
         for (Player player : players) {
             if (player.getName().equals(name))
                 filteredPlayers.add(player);
         }
         players = filteredPlayers;
-        return this;
+        return remember();
     }
 
     public PlayerQuery withinWorldArea(WorldArea area) {
+        if (cached("withinWorldArea", area)) {
+            return this;
+        }
         players = players.stream().filter(player -> area.contains(player.getWorldLocation())).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public PlayerQuery filter(Predicate<? super Player> predicate) {
+        memo.uncacheable(players.size());
         players = players.stream().filter(predicate).collect(Collectors.toList());
         return this;
     }
 
     public PlayerQuery interactingWithLocal() {
-        List<Player> filteredPlayers = new ArrayList<>();
-        for (Player player : players) {
-            if (!player.isInteracting())
-                continue;
-            if (player.getInteracting() == client.getLocalPlayer())
-                filteredPlayers.add(player);
-        }
-        players = filteredPlayers;
-        return this;
+        return interactingWith(client.getLocalPlayer());
     }
 
     public PlayerQuery interactingWith(Actor actor) {
+        if (cached("interactingWith", actor)) {
+            return this;
+        }
         List<Player> filteredPlayers = new ArrayList<>();
+        if (actor == null) {
+            players = filteredPlayers;
+            return remember();
+        }
+        InteractionGraph graph = InteractionGraph.get();
         for (Player player : players) {
-            if (!player.isInteracting())
-                continue;
-            if (player.getInteracting() == actor)
+            if (graph.targetOf(player) == actor)
                 filteredPlayers.add(player);
         }
         players = filteredPlayers;
-        return this;
+        return remember();
     }
 
     public PlayerQuery nameContains(String name) {
+        if (cached("nameContains", name)) {
+            return this;
+        }
         List<Player> filteredPlayers = new ArrayList<>();
         for (Player player : players) {
             if (player.getName().contains(name))
                 filteredPlayers.add(player);
         }
         players = filteredPlayers;
-        return this;
+        return remember();
     }
 
     public PlayerQuery notLocalPlayer() {
+        if (cached("notLocalPlayer")) {
+            return this;
+        }
         players.remove(client.getLocalPlayer());
-        return this;
+        return remember();
     }
 
     public PlayerQuery withinLevel(int low, int high) {
+        if (cached("withinLevel", low, high)) {
+            return this;
+        }
         List<Player> filteredPlayers = new ArrayList<>();
         for (Player player : players) {
             if (player.getCombatLevel() >= low && player.getCombatLevel() <= high)
                 filteredPlayers.add(player);
         }
         players = filteredPlayers;
-        return this;
+        return remember();
     }
 
     public boolean isEmpty() {
+        QueryProfiler.finish(trace, "isEmpty", players.size());
         return players.isEmpty();
     }
 
     public Optional<Player> first() {
+        QueryProfiler.finish(trace, "first", players.size());
         if (players.isEmpty())
             return Optional.empty();
         return Optional.ofNullable(players.get(0));
     }
 
     public List<Player> result() {
+        QueryProfiler.finish(trace, "result", players.size());
         return players;
     }
 
     public Optional<Player> nearestByPath() {
+        QueryProfiler.finish(trace, "nearestByPath", players.size());
         HashMap<WorldPoint, Player> playerMap = new HashMap<>();
         for (Player player : players) {
             for (WorldPoint wp : player.getWorldArea().toWorldPointList()) {
@@ -0,0 +1,154 @@
+package com.example.EthanApiPlugin.Collections.query;
+
+import com.example.EthanApiPlugin.Profiling.QueryProfiler;
+import net.runelite.api.Client;
+import net.runelite.client.RuneLite;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Results of memoized queries for the current tick. A query is described by the list it started from, compared by
+//identity since the collections publish a new list every tick, and the filters applied so far with their arguments.
+//Every step of a chain is stored, so queries sharing a prefix share those results too. Filters that take a lambda
+//can't be described, so they switch memoization off for the rest of the chain. Every query over a collection keeps
+//one of these from the start, it also counts the steps and reports them to the profiler, and only looks results up
+//once enable() was called before the first step.
+public final class QueryMemo<T> {
+    static Client client = RuneLite.getInjector().getInstance(Client.class);
+    //a runaway script shouldn't be able to fill the heap within one tick
+    private static final int MAX_ENTRIES = 4096;
+    private static final Map<Key, List<?>> results = new ConcurrentHashMap<>();
+    private static volatile int tick = -1;
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    private final Object source;
+    private final QueryProfiler.Trace trace;
+    private final List<Object> chain = new ArrayList<>();
+    private Key pending;
+    private boolean enabled = false;
+    private int steps = 0;
+
+    QueryMemo(Object source, QueryProfiler.Trace trace) {
+        this.source = source;
+        this.trace = trace;
+    }
+
+    //does nothing once the query has been filtered
+    void enable() {
+        if (steps == 0) {
+            enabled = true;
+        }
+    }
+
+    //a copy of what this step produced earlier this tick, or null when the query has to run it and store() the result
+    List<T> cached(String op, int size, Object... args) {
+        steps++;
+        QueryProfiler.step(trace, op, size);
+        if (!enabled) {
+            return null;
+        }
+        List<T> hit = step(op, args);
+        return hit == null ? null : new ArrayList<>(hit);
+    }
+
+    //for filters that can't be described, nothing after them is looked up or stored
+    void uncacheable(int size) {
+        steps++;
+        QueryProfiler.step(trace, "filter", size);
+        enabled = false;
+    }
+
+    public static long getHits() {
+        return hits.get();
+    }
+
+    public static long getMisses() {
+        return misses.get();
+    }
+
+    public static double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    public static void resetStats() {
+        hits.set(0);
+        misses.set(0);
+    }
+
+    //adds a step to the chain, returns what it produced earlier this tick or null
+    @SuppressWarnings("unchecked")
+    private List<T> step(String op, Object... args) {
+        int now = client.getTickCount();
+        if (tick != now) {
+            results.clear();
+            tick = now;
+        }
+        chain.add(op);
+        for (Object arg : args) {
+            chain.add(describe(arg));
+        }
+        pending = new Key(source, new ArrayList<>(chain), now);
+        List<?> hit = results.get(pending);
+        if (hit == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return (List<T>) hit;
+    }
+
+    void store(List<T> result) {
+        if (!enabled) {
+            return;
+        }
+        Key key = pending;
+        pending = null;
+        if (key == null || key.tick != tick || results.size() >= MAX_ENTRIES) {
+            return;
+        }
+        results.put(key, Collections.unmodifiableList(new ArrayList<>(result)));
+    }
+
+    //arrays compare by content, everything else by its own equals
+    private static Object describe(Object arg) {
+        if (arg instanceof int[]) {
+            return Arrays.toString((int[]) arg);
+        }
+        if (arg instanceof Object[]) {
+            return Arrays.asList((Object[]) arg);
+        }
+        return arg;
+    }
+
+    private static final class Key {
+        private final Object source;
+        private final List<Object> chain;
+        private final int tick;
+        private final int hash;
+
+        Key(Object source, List<Object> chain, int tick) {
+            this.source = source;
+            this.chain = chain;
+            this.tick = tick;
+            this.hash = System.identityHashCode(source) * 31 + chain.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return source == other.source && tick == other.tick && chain.equals(other.chain);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
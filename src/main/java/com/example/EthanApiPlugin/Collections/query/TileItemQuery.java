@@ -1,169 +1,170 @@
 package com.example.EthanApiPlugin.Collections.query;
 
 import com.example.EthanApiPlugin.Collections.ETileItem;
+import com.example.EthanApiPlugin.Collections.ItemMetaTable;
 import com.example.EthanApiPlugin.EthanApiPlugin;
 import com.example.EthanApiPlugin.PathFinding.GlobalCollisionMap;
-import lombok.SneakyThrows;
+import com.example.EthanApiPlugin.Profiling.QueryProfiler;
 import net.runelite.api.Client;
-import net.runelite.api.ItemComposition;
 import net.runelite.api.TileItem;
 import net.runelite.api.TileObject;
 import net.runelite.api.coords.WorldPoint;
 import net.runelite.client.RuneLite;
 import net.runelite.client.game.ItemManager;
-import net.runelite.client.util.Text;
-import net.runelite.client.util.WildcardMatcher;
 
 import java.util.*;
-import java.util.concurrent.ExecutionException;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 public class TileItemQuery {
     public List<ETileItem> tileItems;
+    private final QueryMemo<ETileItem> memo;
+    private final QueryProfiler.Trace trace;
     static Client client = RuneLite.getInjector().getInstance(Client.class);
     static ItemManager itemManager = RuneLite.getInjector().getInstance(ItemManager.class);
 
     public TileItemQuery(List<ETileItem> tileItems) {
+        this.trace = QueryProfiler.start("TileItemQuery", tileItems.size());
+        this.memo = new QueryMemo<>(tileItems, trace);
         this.tileItems = new ArrayList<ETileItem>(tileItems);
     }
 
+    //remembers every filter step of this query for the rest of the tick, call it straight after search()
+    public TileItemQuery memoized() {
+        memo.enable();
+        return this;
+    }
+
+    private boolean cached(String op, Object... args) {
+        List<ETileItem> hit = memo.cached(op, tileItems.size(), args);
+        if (hit == null) {
+            return false;
+        }
+        tileItems = hit;
+        return true;
+    }
+
+    private TileItemQuery remember() {
+        memo.store(tileItems);
+        return this;
+    }
+
     public TileItemQuery withId(int id) {
+        if (cached("withId", id)) {
+            return this;
+        }
         tileItems = this.tileItems.stream().filter(tileItem -> tileItem.tileItem.getId() == id).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
-    @SneakyThrows
     public TileItemQuery withName(String name) {
-        tileItems = tileItems.stream().filter(tileItem ->
-        {
-            try {
-                return EthanApiPlugin.itemDefs.get(tileItem.tileItem.getId()).getName().equals(name);
-            } catch (ExecutionException e) {
-                throw new RuntimeException(e);
-            }
-        }).collect(Collectors.toList());
-        return this;
+        if (cached("withName", name)) {
+            return this;
+        }
+        tileItems = tileItems.stream().filter(tileItem -> name.equals(ItemMetaTable.getName(tileItem.tileItem.getId()))).collect(Collectors.toList());
+        return remember();
     }
 
     public TileItemQuery nameContains(String name) {
+        if (cached("nameContains", name)) {
+            return this;
+        }
         tileItems = tileItems.stream().filter(tileItem ->
         {
-            try {
-                return EthanApiPlugin.itemDefs.get(tileItem.tileItem.getId()).getName().contains(name);
-            } catch (ExecutionException e) {
-                throw new RuntimeException(e);
-            }
+            String itemName = ItemMetaTable.getName(tileItem.tileItem.getId());
+            return itemName != null && itemName.contains(name);
         }).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public TileItemQuery filter(Predicate<? super ETileItem> predicate) {
+        memo.uncacheable(tileItems.size());
         tileItems = tileItems.stream().filter(predicate).collect(Collectors.toList());
         return this;
     }
 
     public TileItemQuery onlyNoted() {
+        if (cached("onlyNoted")) {
+            return this;
+        }
         tileItems = tileItems.stream().filter(this::isNoted).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public TileItemQuery onlyUnnoted() {
+        if (cached("onlyUnnoted")) {
+            return this;
+        }
         tileItems = tileItems.stream().filter(item -> !isNoted(item)).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public TileItemQuery matchesWildCardNoCase(String input) {
-        tileItems =
-                tileItems.stream().
-                        filter(item ->
-                        {
-                            try {
-                                return WildcardMatcher.matches(input.toLowerCase(),
-                                        Text.removeTags(EthanApiPlugin.itemDefs.get(item.tileItem.getId()).getName().toLowerCase()));
-                            } catch (ExecutionException e) {
-                                throw new RuntimeException(e);
-                            }
-                        }).
-                        collect(Collectors.toList());
-        return this;
+        if (cached("matchesWildCardNoCase", input)) {
+            return this;
+        }
+        NameMatcher matcher = NameMatcher.of(input);
+        tileItems = tileItems.stream().filter(item -> matcher.matches(item.tileItem.getId())).collect(Collectors.toList());
+        return remember();
     }
 
     public TileItemQuery eachItemAboveXValue(int value) {
+        if (cached("eachItemAboveXValue", value)) {
+            return this;
+        }
         tileItems = tileItems.stream().filter(item -> itemManager.getItemPrice(item.getTileItem().getId()) > value).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public TileItemQuery stackAboveXValue(int value) {
+        if (cached("stackAboveXValue", value)) {
+            return this;
+        }
         tileItems = tileItems.stream().filter(item -> item.getTileItem().getQuantity() * itemManager.getItemPrice(item.getTileItem().getId()) > value).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
-    //the 3 methods below are ugly af and might not work
     public TileItemQuery doesNotMatchWildCardNoCase(String input) {
-        tileItems =
-                tileItems.stream().
-                        filter(item ->
-                        {
-                            try {
-                                return !WildcardMatcher.matches(input.toLowerCase(),
-                                        Text.removeTags(EthanApiPlugin.itemDefs.get(item.tileItem.getId()).getName().toLowerCase()));
-                            } catch (ExecutionException e) {
-                                throw new RuntimeException(e);
-                            }
-                        }).
-                        collect(Collectors.toList());
-        return this;
+        if (cached("doesNotMatchWildCardNoCase", input)) {
+            return this;
+        }
+        NameMatcher matcher = NameMatcher.of(input);
+        tileItems = tileItems.stream().filter(item -> ItemMetaTable.getName(item.tileItem.getId()) != null && !matcher.matches(item.tileItem.getId())).collect(Collectors.toList());
+        return remember();
     }
 
+    //each item is kept once, in its original order, however many of the patterns it matches
     public TileItemQuery itemsMatchingWildcardsNoCase(String... input) {
-        List<ETileItem> tileItemsTemp = new ArrayList<>();
-        for (String s : input) {
-            tileItemsTemp.addAll(tileItems.stream().
-                    filter(item ->
-                    {
-                        try {
-                            return WildcardMatcher.matches(s.toLowerCase(),
-                                    Text.removeTags(EthanApiPlugin.itemDefs.get(item.tileItem.getId()).getName().toLowerCase()));
-                        } catch (ExecutionException e) {
-                            throw new RuntimeException(e);
-                        }
-                    }).
-                    collect(Collectors.toList()));
-        }
-        tileItems = tileItemsTemp;
-        return this;
+        if (cached("itemsMatchingWildcardsNoCase", input)) {
+            return this;
+        }
+        NameMatcher matcher = NameMatcher.of(input);
+        tileItems = tileItems.stream().filter(item -> matcher.matches(item.tileItem.getId())).collect(Collectors.toList());
+        return remember();
     }
 
     public TileItemQuery itemsExcludingMatchingWildcardsNoCase(String... input) {
-        List<ETileItem> tileItemsTemp = new ArrayList<>();
-        for (String s : input) {
-            tileItemsTemp.addAll(tileItems.stream().
-                    filter(item ->
-                    {
-                        try {
-                            return WildcardMatcher.matches(s.toLowerCase(),
-                                    Text.removeTags(EthanApiPlugin.itemDefs.get(item.tileItem.getId()).getName().toLowerCase()));
-                        } catch (ExecutionException e) {
-                            throw new RuntimeException(e);
-                        }
-                    }).
-                    collect(Collectors.toList()));
-        }
-        tileItems.removeAll(tileItemsTemp);
-        return this;
+        if (cached("itemsExcludingMatchingWildcardsNoCase", input)) {
+            return this;
+        }
+        NameMatcher matcher = NameMatcher.of(input);
+        tileItems = tileItems.stream().filter(item -> !matcher.matches(item.tileItem.getId())).collect(Collectors.toList());
+        return remember();
     }
 
 
     public boolean empty() {
+        QueryProfiler.finish(trace, "empty", tileItems.size());
         return tileItems.size() == 0;
     }
 
     public List<ETileItem> result() {
+        QueryProfiler.finish(trace, "result", tileItems.size());
         return tileItems;
     }
 
     public Optional<ETileItem> first() {
+        QueryProfiler.finish(trace, "first", tileItems.size());
         if (tileItems.size() == 0) {
             return Optional.empty();
         }
@@ -171,37 +172,47 @@ public class TileItemQuery {
     }
 
     public TileItemQuery withinDistance(int distance) {
+        if (cached("withinDistance", distance)) {
+            return this;
+        }
         tileItems = tileItems.stream().filter(tileItem -> tileItem.getLocation().distanceTo(client.getLocalPlayer().getWorldLocation()) <= distance).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public TileItemQuery withinDistanceToPoint(int distance, WorldPoint point) {
+        if (cached("withinDistanceToPoint", distance, point)) {
+            return this;
+        }
         tileItems = tileItems.stream().filter(tileItem -> tileItem.getLocation().distanceTo(point) <= distance).collect(Collectors.toList());
-        return this;
+        return remember();
     }
     public TileItemQuery alchValueAbove(int value){
-        tileItems = tileItems.stream().filter(tileItem -> itemManager.getItemComposition(tileItem.getTileItem().getId()).getHaPrice() > value).collect(Collectors.toList());
-        return this;
+        if (cached("alchValueAbove", value)) {
+            return this;
+        }
+        tileItems = tileItems.stream().filter(tileItem -> ItemMetaTable.getHaPrice(tileItem.getTileItem().getId()) > value).collect(Collectors.toList());
+        return remember();
     }
 
     public Optional<ETileItem> nearestToPlayer() {
+        QueryProfiler.finish(trace, "nearestToPlayer", tileItems.size());
         return nearestToPoint(client.getLocalPlayer().getWorldLocation());
     }
 
     public Optional<ETileItem> nearestToPoint(WorldPoint point) {
+        QueryProfiler.finish(trace, "nearestToPoint", tileItems.size());
         if (tileItems.size() == 0) {
             return Optional.empty();
         }
         return tileItems.stream().min(Comparator.comparingInt(tileItem -> tileItem.location.distanceTo(point)));
     }
 
-    @SneakyThrows
     public boolean isNoted(ETileItem item) {
-        ItemComposition itemComposition = EthanApiPlugin.itemDefs.get(item.tileItem.getId());
-        return itemComposition.getNote() != -1;
+        return ItemMetaTable.isNoted(item.tileItem.getId());
     }
 
     public Optional<ETileItem> nearestByPath() {
+        QueryProfiler.finish(trace, "nearestByPath", tileItems.size());
         HashSet<WorldPoint> tiles = new HashSet<>();
         HashMap<WorldPoint, ETileItem> map = new HashMap<>();
         WorldPoint playerLoc = client.getLocalPlayer().getWorldLocation();
@@ -1,8 +1,11 @@
 package com.example.EthanApiPlugin.Collections.query;
 
+import com.example.EthanApiPlugin.Collections.ActionIndex;
+import com.example.EthanApiPlugin.Collections.ObjectCompositions;
 import com.example.EthanApiPlugin.EthanApiPlugin;
 import com.example.EthanApiPlugin.PathFinding.GlobalCollisionMap;
 import com.example.EthanApiPlugin.Utility.WorldAreaUtility;
+import com.example.EthanApiPlugin.Profiling.QueryProfiler;
 import net.runelite.api.Client;
 import net.runelite.api.ObjectComposition;
 import net.runelite.api.TileObject;
@@ -16,13 +19,40 @@ import java.util.stream.Collectors;
 
 public class TileObjectQuery {
     private List<TileObject> tileObjects;
+    private final QueryMemo<TileObject> memo;
+    private final QueryProfiler.Trace trace;
     static Client client = RuneLite.getInjector().getInstance(Client.class);
 
     public TileObjectQuery(List<TileObject> tileObjects) {
+        this.trace = QueryProfiler.start("TileObjectQuery", tileObjects.size());
+        this.memo = new QueryMemo<>(tileObjects, trace);
         this.tileObjects = new ArrayList(tileObjects);
     }
 
+    //remembers every filter step of this query for the rest of the tick, call it straight after search()
+    public TileObjectQuery memoized() {
+        memo.enable();
+        return this;
+    }
+
+    private boolean cached(String op, Object... args) {
+        List<TileObject> hit = memo.cached(op, tileObjects.size(), args);
+        if (hit == null) {
+            return false;
+        }
+        tileObjects = hit;
+        return true;
+    }
+
+    private TileObjectQuery remember() {
+        memo.store(tileObjects);
+        return this;
+    }
+
     public TileObjectQuery withName(String name) {
+        if (cached("withName", name)) {
+            return this;
+        }
         tileObjects =
                 tileObjects.stream().filter(tileObject -> {
                     ObjectComposition objectComposition = getObjectComposition(tileObject);
@@ -30,7 +60,7 @@ public class TileObjectQuery {
                         return false;
                     return objectComposition.getName().equals(name);
                 }).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 //    public TileObjectQuery withActions(String... actions){
 //tileObjects =
@@ -50,34 +80,46 @@ public class TileObjectQuery {
 //    }
 
     public TileObjectQuery withId(int id) {
+        if (cached("withId", id)) {
+            return this;
+        }
         tileObjects = tileObjects.stream().filter(tileObject -> tileObject.getId() == id).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public TileObjectQuery withAction(String action) {
+        if (cached("withAction", action)) {
+            return this;
+        }
         tileObjects =
                 tileObjects.stream().filter(tileObject ->
                 {
-                    ObjectComposition objectComposition = getObjectComposition(tileObject);
-                    if (objectComposition == null)
-                        return false;
-                    String[] actions = getObjectComposition(tileObject).getActions();
-                    return Arrays.stream(actions).filter(Objects::nonNull).anyMatch(a -> a.equalsIgnoreCase(action));
+                    ActionIndex.Actions actions = ActionIndex.object(tileObject);
+                    return actions != null && actions.has(action);
                 }).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public TileObjectQuery atLocation(WorldPoint location) {
+        if (cached("atLocation", location)) {
+            return this;
+        }
         tileObjects = tileObjects.stream().filter(tileObject -> tileObject.getWorldLocation().equals(location)).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public TileObjectQuery withinDistance(int distance) {
+        if (cached("withinDistance", distance)) {
+            return this;
+        }
         tileObjects = tileObjects.stream().filter(tileObject -> tileObject.getWorldLocation().distanceTo(client.getLocalPlayer().getWorldLocation()) <= distance).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public TileObjectQuery withinBounds(WorldPoint min, WorldPoint max){
+        if (cached("withinBounds", min, max)) {
+            return this;
+        }
         int x1 = min.getX();
         int x2 = max.getX();
         int y1 = min.getY();
@@ -93,22 +135,29 @@ public class TileObjectQuery {
 
             return y3 <= Math.max(y1, y2) && y3 >= Math.min(y1, y2);
         }).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public TileObjectQuery atLocation(int x, int y, int plane) {
+        if (cached("atLocation", x, y, plane)) {
+            return this;
+        }
         WorldPoint p = new WorldPoint(x, y, plane);
         tileObjects =
                 tileObjects.stream().filter(tileObject -> tileObject.getWorldLocation().equals(p)).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public TileObjectQuery filter(Predicate<? super TileObject> predicate) {
+        memo.uncacheable(tileObjects.size());
         tileObjects = tileObjects.stream().filter(predicate).collect(Collectors.toList());
         return this;
     }
 
     public TileObjectQuery nameContains(String name) {
+        if (cached("nameContains", name)) {
+            return this;
+        }
         tileObjects =
                 tileObjects.stream().filter(tileObject -> {
                     ObjectComposition comp = getObjectComposition(tileObject);
@@ -116,31 +165,47 @@ public class TileObjectQuery {
                         return false;
                     return comp.getName().contains(name);
                 }).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public TileObjectQuery idInList(List<Integer> ids) {
+        return withSet(IntSet.of(ids));
+    }
+
+    public TileObjectQuery idInList(int... ids) {
+        return withSet(IntSet.of(ids));
+    }
+
+    public TileObjectQuery withSet(IntSet ids) {
+        if (cached("withSet", ids)) {
+            return this;
+        }
         tileObjects = tileObjects.stream().filter(tileObject -> ids.contains(tileObject.getId())).collect(Collectors.toList());
-        return this;
+        return remember();
     }
 
     public boolean empty() {
+        QueryProfiler.finish(trace, "empty", tileObjects.size());
         return tileObjects.size() == 0;
     }
 
     public List<TileObject> result() {
+        QueryProfiler.finish(trace, "result", tileObjects.size());
         return tileObjects;
     }
 
     public Optional<TileObject> first() {
+        QueryProfiler.finish(trace, "first", tileObjects.size());
         return tileObjects.stream().findFirst();
     }
 
     public Optional<TileObject> nearestToPlayer() {
+        QueryProfiler.finish(trace, "nearestToPlayer", tileObjects.size());
         return tileObjects.stream().min(Comparator.comparingInt(o -> client.getLocalPlayer().getWorldLocation().distanceTo(o.getWorldLocation())));
     }
 
     public Optional<TileObject> nearestByPath() {
+        QueryProfiler.finish(trace, "nearestByPath", tileObjects.size());
         HashMap<WorldPoint, TileObject> map = new HashMap<>();
         var playerLoc = client.getLocalPlayer().getWorldLocation();
         for (TileObject tileObject : tileObjects) {
@@ -162,20 +227,15 @@ public class TileObjectQuery {
     }
 
     public Optional<TileObject> nearestToPoint(WorldPoint point) {
+        QueryProfiler.finish(trace, "nearestToPoint", tileObjects.size());
         return tileObjects.stream().min(Comparator.comparingInt(o -> point.distanceTo(o.getWorldLocation())));
     }
 
     public static ObjectComposition getObjectComposition(TileObject tileObject) {
-        if (client.getObjectDefinition(tileObject.getId()).getImpostorIds() == null || client.getObjectDefinition(tileObject.getId()).getImpostor() == null) {
-            return client.getObjectDefinition(tileObject.getId());
-        }
-        return client.getObjectDefinition(tileObject.getId()).getImpostor();
+        return ObjectCompositions.resolve(tileObject.getId());
     }
 
     public static ObjectComposition getObjectComposition(int id) {
-        if (client.getObjectDefinition(id).getImpostorIds() == null || client.getObjectDefinition(id).getImpostor() == null) {
-            return client.getObjectDefinition(id);
-        }
-        return client.getObjectDefinition(id).getImpostor();
+        return ObjectCompositions.resolve(id);
     }
 }
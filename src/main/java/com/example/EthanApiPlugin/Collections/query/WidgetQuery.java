@@ -1,5 +1,7 @@
 package com.example.EthanApiPlugin.Collections.query;
 
+import com.example.EthanApiPlugin.Collections.WidgetIndex;
+import com.example.EthanApiPlugin.Profiling.QueryProfiler;
 import net.runelite.api.widgets.Widget;
 import net.runelite.client.util.Text;
 import net.runelite.client.util.WildcardMatcher;
@@ -10,21 +12,72 @@ import java.util.stream.Collectors;
 
 public class WidgetQuery {
     List<Widget> widgets;
+    //set until the first filter, withId and withGroupId start from one of its buckets and everything else from the
+    //whole tree. hiddenState checks wait for that
+    private WidgetIndex index;
+    private List<Predicate<Widget>> pending;
+    private final QueryProfiler.Trace trace;
 
     public WidgetQuery(HashSet<Widget> widgets) {
+        this.trace = QueryProfiler.start("WidgetQuery", widgets.size());
         this.widgets = new ArrayList<>(widgets);
     }
 
+    public WidgetQuery(WidgetIndex index) {
+        this.trace = QueryProfiler.start("WidgetQuery", index.all().size());
+        this.index = index;
+        this.pending = new ArrayList<>();
+    }
+
+    private void seed(List<Widget> bucket) {
+        if (index == null) {
+            return;
+        }
+        List<Widget> seeded = new ArrayList<>(bucket.size());
+        for (Widget widget : bucket) {
+            boolean keep = true;
+            for (Predicate<Widget> predicate : pending) {
+                if (!predicate.test(widget)) {
+                    keep = false;
+                    break;
+                }
+            }
+            if (keep) {
+                seeded.add(widget);
+            }
+        }
+        widgets = seeded;
+        index = null;
+        pending = null;
+    }
+
+    //before seeding this is the whole tree the first bucket will be picked from
+    private int size() {
+        return index != null ? index.all().size() : widgets.size();
+    }
+
+    private void seedAll() {
+        if (index != null) {
+            seed(index.all());
+        }
+    }
+
     public List<Widget> result() {
+        QueryProfiler.finish(trace, "result", size());
+        seedAll();
         return widgets;
     }
 
     public WidgetQuery filter(Predicate<? super Widget> predicate) {
+        QueryProfiler.step(trace, "filter", size());
+        seedAll();
         widgets = widgets.stream().filter(predicate).collect(Collectors.toList());
         return this;
     }
 
     public WidgetQuery withAction(String action) {
+        QueryProfiler.step(trace, "withAction", size());
+        seedAll();
         widgets = widgets.stream().filter(x->{
             String[] actions = x.getActions();
             if(actions==null){
@@ -44,25 +97,49 @@ public class WidgetQuery {
     }
 
     public boolean empty() {
+        QueryProfiler.finish(trace, "empty", size());
+        seedAll();
         return widgets.isEmpty();
     }
 
     public WidgetQuery hiddenState(boolean hidden) {
+        QueryProfiler.step(trace, "hiddenState", size());
+        if (index != null) {
+            pending.add(widget -> widget.isHidden() == hidden);
+            return this;
+        }
         widgets = widgets.stream().filter(widget -> widget.isHidden() == hidden).collect(java.util.stream.Collectors.toList());
         return this;
     }
 
     public WidgetQuery withId(int id) {
+        QueryProfiler.step(trace, "withId", size());
+        if (index != null) {
+            seed(index.withId(id));
+        }
         widgets = widgets.stream().filter(widget -> widget.getId() == id).collect(java.util.stream.Collectors.toList());
         return this;
     }
 
+    public WidgetQuery withGroupId(int groupId) {
+        QueryProfiler.step(trace, "withGroupId", size());
+        if (index != null) {
+            seed(index.withGroupId(groupId));
+        }
+        widgets = widgets.stream().filter(widget -> widget.getId() >>> 16 == groupId).collect(Collectors.toList());
+        return this;
+    }
+
     public WidgetQuery withItemId(int itemId) {
+        QueryProfiler.step(trace, "withItemId", size());
+        seedAll();
         widgets = widgets.stream().filter(widget -> widget.getItemId() == itemId).collect(java.util.stream.Collectors.toList());
         return this;
     }
 
     public Optional<Widget> first() {
+        QueryProfiler.finish(trace, "first", size());
+        seedAll();
         return widgets.stream().findFirst();
     }
 
@@ -71,42 +148,58 @@ public class WidgetQuery {
     }
 
     public WidgetQuery itemIdInList(List<Integer> ids) {
+        QueryProfiler.step(trace, "itemIdInList", size());
+        seedAll();
         widgets = widgets.stream().filter(item -> ids.contains(item.getItemId())).collect(Collectors.toList());
         return this;
     }
 
     public WidgetQuery quantityGreaterThan(int quanity) {
+        QueryProfiler.step(trace, "quantityGreaterThan", size());
+        seedAll();
         widgets = widgets.stream().filter(item -> item.getItemQuantity() > quanity).collect(Collectors.toList());
         return this;
     }
 
     public WidgetQuery nameContains(String name) {
+        QueryProfiler.step(trace, "nameContains", size());
+        seedAll();
         widgets =
                 widgets.stream().filter(item -> item.getName() != null && item.getName().contains(name)).collect(Collectors.toList());
         return this;
     }
 
     public WidgetQuery withName(String name) {
+        QueryProfiler.step(trace, "withName", size());
+        seedAll();
         widgets = widgets.stream().filter(item -> item.getName() != null && Text.removeTags(item.getName()).equals(name)).collect(Collectors.toList());
         return this;
     }
 
     public WidgetQuery withText(String text) {
+        QueryProfiler.step(trace, "withText", size());
+        seedAll();
         widgets = widgets.stream().filter(item -> item.getText() != null && item.getText().equals(text)).collect(Collectors.toList());
         return this;
     }
 
     public WidgetQuery withTextContains(String text) {
+        QueryProfiler.step(trace, "withTextContains", size());
+        seedAll();
         widgets = widgets.stream().filter(item -> item.getText() != null && item.getText().contains(text)).collect(Collectors.toList());
         return this;
     }
 
     public WidgetQuery withParentId(int parentId) {
+        QueryProfiler.step(trace, "withParentId", size());
+        seedAll();
         widgets = widgets.stream().filter(item -> item.getParentId() == parentId).collect(Collectors.toList());
         return this;
     }
 
     public WidgetQuery nameMatchesWildCardNoCase(String input) {
+        QueryProfiler.step(trace, "nameMatchesWildCardNoCase", size());
+        seedAll();
         widgets =
                 widgets.stream().
                         filter(item -> item.getName() != null && WildcardMatcher.matches(input.toLowerCase(),
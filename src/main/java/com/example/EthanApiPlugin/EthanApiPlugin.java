@@ -2,7 +2,15 @@ package com.example.EthanApiPlugin;
 
 import com.example.EthanApiPlugin.Collections.*;
 import com.example.EthanApiPlugin.Collections.query.QuickPrayer;
+import com.example.EthanApiPlugin.PathFinding.CostGrid;
+import com.example.EthanApiPlugin.PathFinding.IncrementalPlanner;
 import com.example.EthanApiPlugin.PathFinding.Node;
+import com.example.EthanApiPlugin.PathFinding.SpaceTimePlanner;
+import com.example.EthanApiPlugin.PathFinding.WeightedPathfinder;
+import com.example.EthanApiPlugin.Profiling.CanPathToTileEvent;
+import com.example.EthanApiPlugin.Profiling.PathToGoalSetEvent;
+import com.example.EthanApiPlugin.Profiling.TickProfiler;
+import com.example.PacketUtils.ObfuscatedAccessors;
 import com.example.PacketUtils.ObfuscatedNames;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
@@ -28,9 +36,9 @@ import net.runelite.client.util.Text;
 import net.runelite.client.util.WildcardMatcher;
 
 import javax.swing.*;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -49,8 +57,6 @@ public class EthanApiPlugin extends Plugin {
     static PluginManager pluginManager = RuneLite.getInjector().getInstance(PluginManager.class);
     static ItemManager itemManager = RuneLite.getInjector().getInstance(ItemManager.class);
     static Method doAction = null;
-    static String animationField = null;
-    static long animationMult;
     static final HashSet<WorldPoint> EMPTY_SET = new HashSet<>();
     public static final int[][] directionsMap = {
             {-2, 0},
@@ -119,83 +125,31 @@ public class EthanApiPlugin extends Plugin {
     }
 
 
-    @SneakyThrows
     public static int getAnimation(NPC npc) {
         if (npc == null) {
             return -1;
         }
-        if(animationField ==null|| animationMult ==0){
-            Field[] fields = Arrays.stream(npc.getClass().getSuperclass().getDeclaredFields()).filter(x->x.getType()==int.class&&!Modifier.isFinal(x.getModifiers())&&!Modifier.isStatic(x.getModifiers())).toArray(Field[]::new);
-            boolean[] changed = new boolean[fields.length];
-            int[] values = new int[fields.length];
-            for (int i = 0; i < fields.length; i++) {
-                fields[i].setAccessible(true);
-                values[i] = fields[i].getInt(npc);
-                changed[i] = false;
-            }
-            Random rand = new Random();
-            for (int i = 0; i < 5; i++) {
-                npc.setAnimation(rand.nextInt(Integer.MAX_VALUE));
-                for (int i1 = 0; i1 < values.length; i1++) {
-                    if(values[i1]!=fields[i1].getInt(npc)){
-                        changed[i1] = true;
-                    }
-                }
-            }
-            int animationFieldIndex = -1;
-            for (int i = 0; i < changed.length; i++) {
-                if(changed[i]){
-                    if(animationFieldIndex!=-1){
-                        System.out.println("too many changed");
-                        return -1;
-                    }
-                    animationFieldIndex = i;
-                }
-            }
-            String fieldName = fields[animationFieldIndex].getName();
-            fields[animationFieldIndex].setInt(npc,1);
-            long multiplier = npc.getAnimation();
-            for (Field field : fields) {
-                field.setAccessible(false);
-            }
-            animationField = fieldName;
-            animationMult = multiplier;
-        }
-        Field animation = npc.getClass().getSuperclass().getDeclaredField(animationField);
-        animation.setAccessible(true);
-        int anim = (int) (animation.getInt(npc) * animationMult);
-        animation.setAccessible(false);
-        return anim;
+        return ObfuscatedAccessors.getAnimation(npc);
     }
 
+    @SneakyThrows
     public static HeadIcon headIconThruLengthEightArrays(NPC npc) throws IllegalAccessException {
         Class<?>[] trying = new Class<?>[]{npc.getClass(),npc.getComposition().getClass()};
         for (Class<?> aClass : trying) {
-            for (Field declaredField : aClass.getDeclaredFields()) {
-                Field[] decFields = declaredField.getType().getDeclaredFields();
-                if(decFields.length==2){
-                    if(decFields[0].getType().isArray()&&decFields[1].getType().isArray()){
-                        for (Field decField : decFields) {
-                            decField.setAccessible(true);
-                        }
-                        Object[] array1 = (Object[]) decFields[0].get(npc);
-                        Object[] array2 = (Object[]) decFields[1].get(npc);
-                        for (Field decField : decFields) {
-                            decField.setAccessible(false);
-                        }
-                        if(array1.length==8&array2.length==8){
-                            if(decFields[0].getType()==short[].class){
-                                if((short)array1[0]==-1){
-                                    return null;
-                                }
-                                return HeadIcon.values()[(short)array1[0]];
-                            }
-                            if((short)array2[0]==-1){
-                                return null;
-                            }
-                            return HeadIcon.values()[(short)array2[0]];
+            for (ObfuscatedAccessors.ArrayPair pair : ObfuscatedAccessors.getHeadIconArrayPairs(aClass)) {
+                Object[] array1 = (Object[]) pair.getFirst().invoke(npc);
+                Object[] array2 = (Object[]) pair.getSecond().invoke(npc);
+                if(array1.length==8&array2.length==8){
+                    if(pair.getFirstType()==short[].class){
+                        if((short)array1[0]==-1){
+                            return null;
                         }
+                        return HeadIcon.values()[(short)array1[0]];
+                    }
+                    if((short)array2[0]==-1){
+                        return null;
                     }
+                    return HeadIcon.values()[(short)array2[0]];
                 }
             }
         }
@@ -222,48 +176,37 @@ public class EthanApiPlugin extends Plugin {
 
     @SneakyThrows
     public static HeadIcon getOlderHeadicon(NPC npc){
-        Method getHeadIconMethod = null;
-        for (Method declaredMethod : npc.getComposition().getClass().getDeclaredMethods()) {
-            if (declaredMethod.getName().length() == 2 && declaredMethod.getReturnType() == short.class && declaredMethod.getParameterCount() == 1) {
-                getHeadIconMethod = declaredMethod;
-                getHeadIconMethod.setAccessible(true);
-                short headIcon = -1;
-                try {
-                    headIcon = (short) getHeadIconMethod.invoke(npc.getComposition(), 0);
-                }catch (Exception e){
-                    //nothing
-                }
-                getHeadIconMethod.setAccessible(false);
+        NPCComposition composition = npc.getComposition();
+        for (MethodHandle getHeadIconMethod : ObfuscatedAccessors.getHeadIconCompositionMethods(composition)) {
+            short headIcon = -1;
+            try {
+                headIcon = (short) getHeadIconMethod.invoke(composition, 0);
+            }catch (Throwable e){
+                //nothing
+            }
 
-                if (headIcon == -1) {
-                    continue;
-                }
-                return HeadIcon.values()[headIcon];
+            if (headIcon == -1) {
+                continue;
             }
+            return HeadIcon.values()[headIcon];
         }
         return null;
     }
 
     @SneakyThrows
     public static HeadIcon getOldHeadIcon(NPC npc) {
-        Method getHeadIconMethod;
-        for (Method declaredMethod : npc.getClass().getDeclaredMethods()) {
-            if (declaredMethod.getName().length() == 2 && declaredMethod.getReturnType() == short[].class && declaredMethod.getParameterCount() == 0) {
-                getHeadIconMethod = declaredMethod;
-                getHeadIconMethod.setAccessible(true);
-                short[] headIcon = null;
-                try {
-                    headIcon = (short[]) getHeadIconMethod.invoke(npc);
-                } catch (Exception e) {
-                    //nothing
-                }
-                getHeadIconMethod.setAccessible(false);
+        for (MethodHandle getHeadIconMethod : ObfuscatedAccessors.getHeadIconArrayMethods(npc)) {
+            short[] headIcon = null;
+            try {
+                headIcon = (short[]) getHeadIconMethod.invoke(npc);
+            } catch (Throwable e) {
+                //nothing
+            }
 
-                if (headIcon == null) {
-                    continue;
-                }
-                return HeadIcon.values()[headIcon[0]];
+            if (headIcon == null) {
+                continue;
             }
+            return HeadIcon.values()[headIcon[0]];
         }
         return null;
     }
@@ -291,22 +234,12 @@ public class EthanApiPlugin extends Plugin {
         return null;
     }
 
-    @SneakyThrows
     public static int pathLength(NPC npc) {
-        Field pathLength = npc.getClass().getSuperclass().getDeclaredField(ObfuscatedNames.pathLengthFieldName);
-        pathLength.setAccessible(true);
-        int path = pathLength.getInt(npc) * ObfuscatedNames.pathLengthMultiplier;
-        pathLength.setAccessible(false);
-        return path;
+        return ObfuscatedAccessors.getPathLength(npc);
     }
 
-    @SneakyThrows
     public static int pathLength(Player player) {
-        Field pathLength = player.getClass().getSuperclass().getDeclaredField(ObfuscatedNames.pathLengthFieldName);
-        pathLength.setAccessible(true);
-        int path = pathLength.getInt(player) * ObfuscatedNames.pathLengthMultiplier;
-        pathLength.setAccessible(false);
-        return path;
+        return ObfuscatedAccessors.getPathLength(player);
     }
 
     public static List<WorldPoint> sceneWorldPoints() {
@@ -545,6 +478,19 @@ public class EthanApiPlugin extends Plugin {
     }
 
     public static PathResult canPathToTile(WorldPoint destinationTile) {
+        CanPathToTileEvent event = new CanPathToTileEvent();
+        event.begin();
+        PathResult result = searchToTile(destinationTile);
+        if (event.shouldCommit()) {
+            event.destination = destinationTile.toString();
+            event.reachable = result.isReachable();
+            event.distance = result.getDistance();
+            event.commit();
+        }
+        return result;
+    }
+
+    private static PathResult searchToTile(WorldPoint destinationTile) {
         int z = client.getPlane();
         if (z != destinationTile.getPlane()) {
             return new PathResult(false, Integer.MAX_VALUE);
@@ -737,6 +683,11 @@ public class EthanApiPlugin extends Plugin {
         return pathToGoalSet(new HashSet<>(List.of(goal)), dangerous, EMPTY_SET, new HashSet<>(reachableTiles()), playerPosition());
     }
 
+    //for calling every tick, the planner keeps its search and only repairs around what changed since its last call
+    public static List<WorldPoint> pathToGoalFromPlayerUsingCustomDangerous(IncrementalPlanner planner, WorldPoint goal, HashSet<WorldPoint> dangerous) {
+        return planner.pathToGoalSet(new HashSet<>(List.of(goal)), dangerous, EMPTY_SET, new HashSet<>(reachableTiles()), playerPosition());
+    }
+
     public static List<WorldPoint> pathToGoalFromPlayerUsingReachableTiles(WorldPoint goal, HashSet<WorldPoint> dangerous, HashSet<WorldPoint> impassible) {
         return pathToGoalSet(new HashSet<>(List.of(goal)), dangerous, impassible, new HashSet<>(reachableTiles()), playerPosition());
     }
@@ -745,8 +696,26 @@ public class EthanApiPlugin extends Plugin {
         return pathToGoalSet(new HashSet<>(List.of(goal)), EMPTY_SET, EMPTY_SET, new HashSet<>(reachableTiles()), playerPosition());
     }
 
+    //one tile per tick, repeated where the path waits for a hazard to clear
+    public static List<WorldPoint> pathToGoalSetFromPlayerAvoiding(HashSet<WorldPoint> goalSet, SpaceTimePlanner.Hazards hazards, HashSet<WorldPoint> impassible) {
+        return SpaceTimePlanner.plan(playerPosition(), goalSet, hazards, new HashSet<>(reachableTiles()), impassible);
+    }
+
+    public static List<WorldPoint> pathToGoalSetFromPlayerWeighted(HashSet<WorldPoint> goalSet, CostGrid costs, HashSet<WorldPoint> impassible) {
+        return pathToGoalSetWeighted(goalSet, costs, impassible, new HashSet<>(reachableTiles()), playerPosition());
+    }
+
+    //dangerous tiles go in the grid as CostGrid.BLOCKED to keep them excluded
+    public static List<WorldPoint> pathToGoalSetWeighted(HashSet<WorldPoint> goalSet, CostGrid costs, HashSet<WorldPoint> impassible, HashSet<WorldPoint> walkable, WorldPoint starting) {
+        return WeightedPathfinder.pathToGoalSet(goalSet, costs, impassible, walkable, starting);
+    }
+
     public static List<WorldPoint> pathToGoalSet(HashSet<WorldPoint> goalSet, HashSet<WorldPoint> dangerous, HashSet<WorldPoint> impassible, HashSet<WorldPoint> walkable, WorldPoint starting) {
+        PathToGoalSetEvent event = new PathToGoalSetEvent();
+        event.begin();
+        int expanded = 0;
         if (Collections.disjoint(goalSet, walkable)) {
+            commit(event, starting, goalSet, walkable, expanded, null);
             return null;
         }
         ArrayDeque<Node> queue = new ArrayDeque<Node>();
@@ -755,6 +724,7 @@ public class EthanApiPlugin extends Plugin {
         queue.add(new Node(starting));
         while (!queue.isEmpty()) {
             Node current = queue.poll();
+            expanded++;
             if (goalSet.contains(current.getData())) {
                 List<WorldPoint> ret = new ArrayList<>();
                 while (current != null) {
@@ -763,6 +733,7 @@ public class EthanApiPlugin extends Plugin {
                 }
                 Collections.reverse(ret);
                 ret.remove(0);
+                commit(event, starting, goalSet, walkable, expanded, ret);
                 return ret;
             }
             for (int[] direction : directionsMap) {
@@ -967,9 +938,22 @@ public class EthanApiPlugin extends Plugin {
                 }
             }
         }
+        commit(event, starting, goalSet, walkable, expanded, null);
         return null;
     }
 
+    private static void commit(PathToGoalSetEvent event, WorldPoint starting, Set<WorldPoint> goalSet, Set<WorldPoint> walkable, int expanded, List<WorldPoint> path) {
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.start = String.valueOf(starting);
+        event.goals = goalSet.size();
+        event.walkable = walkable.size();
+        event.nodesExpanded = expanded;
+        event.pathLength = path == null ? -1 : path.size();
+        event.commit();
+    }
+
 
     static boolean nwObstructed(WorldPoint starting, HashSet<WorldPoint> impassible, HashSet<WorldPoint> walkable) {
         if (impassible.contains(starting.dx(-1).dy(0)) || !walkable.contains(starting.dx(-1).dy(0))) {
@@ -1167,6 +1151,7 @@ public class EthanApiPlugin extends Plugin {
 
     @Override
     public void startUp() throws Exception {
+        ItemMetaTable.load();
         eventBus.register(RuneLite.getInjector().getInstance(Inventory.class));
         eventBus.register(RuneLite.getInjector().getInstance(Bank.class));
         eventBus.register(RuneLite.getInjector().getInstance(BankInventory.class));
@@ -1177,5 +1162,17 @@ public class EthanApiPlugin extends Plugin {
         eventBus.register(RuneLite.getInjector().getInstance(DepositBox.class));
         eventBus.register(RuneLite.getInjector().getInstance(ShopInventory.class));
         eventBus.register(RuneLite.getInjector().getInstance(Shop.class));
+        eventBus.register(RuneLite.getInjector().getInstance(WorldSnapshot.class));
+        eventBus.register(RuneLite.getInjector().getInstance(ObjectCompositions.class));
+        eventBus.register(RuneLite.getInjector().getInstance(InteractionGraph.class));
+        eventBus.register(RuneLite.getInjector().getInstance(Widgets.class));
+        eventBus.register(RuneLite.getInjector().getInstance(TickProfiler.class));
+        eventBus.register(RuneLite.getInjector().getInstance(WarmUp.class));
+        WarmUp.start();
+    }
+
+    @Override
+    public void shutDown() throws Exception {
+        ItemMetaTable.shutDown();
     }
 }
@@ -0,0 +1,124 @@
+package com.example.EthanApiPlugin.PathFinding;
+
+import com.example.EthanApiPlugin.EthanApiPlugin;
+import net.runelite.api.Client;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+//Extra cost for ending a tick on each tile of the scene, on top of the 1 every move costs. 0 is a plain tile and
+//BLOCKED can't be stood on at all, the same as a dangerous tile for pathToGoalSet. A cost of 3 means the search will
+//take up to 3 extra ticks to stay off that tile.
+public class CostGrid {
+    public static final int SIZE = TileBits.SIZE;
+    public static final int MAX_COST = 254;
+    public static final int BLOCKED = 255;
+    private final byte[] costs = new byte[SIZE * SIZE];
+    private final int baseX;
+    private final int baseY;
+    private final int plane;
+
+    public CostGrid(int baseX, int baseY, int plane) {
+        this.baseX = baseX;
+        this.baseY = baseY;
+        this.plane = plane;
+    }
+
+    //covering the loaded scene on the player's plane
+    public static CostGrid scene() {
+        Client client = EthanApiPlugin.getClient();
+        return new CostGrid(client.getBaseX(), client.getBaseY(), client.getPlane());
+    }
+
+    public int getBaseX() {
+        return baseX;
+    }
+
+    public int getBaseY() {
+        return baseY;
+    }
+
+    public int getPlane() {
+        return plane;
+    }
+
+    //-1 for tiles outside the grid
+    public int cell(WorldPoint tile) {
+        int x = tile.getX() - baseX;
+        int y = tile.getY() - baseY;
+        if (tile.getPlane() != plane || !TileBits.inBounds(x, y)) {
+            return -1;
+        }
+        return y * SIZE + x;
+    }
+
+    public int get(WorldPoint tile) {
+        int cell = cell(tile);
+        return cell < 0 ? 0 : cost(cell);
+    }
+
+    int cost(int cell) {
+        return costs[cell] & 0xFF;
+    }
+
+    public CostGrid set(WorldPoint tile, int cost) {
+        int cell = cell(tile);
+        if (cell >= 0) {
+            costs[cell] = (byte) Math.max(0, Math.min(BLOCKED, cost));
+        }
+        return this;
+    }
+
+    //adds to what's there, capped at MAX_COST so penalties never turn into a block
+    public CostGrid add(WorldPoint tile, int cost) {
+        int cell = cell(tile);
+        if (cell >= 0 && cost(cell) != BLOCKED) {
+            costs[cell] = (byte) Math.max(0, Math.min(MAX_COST, cost(cell) + cost));
+        }
+        return this;
+    }
+
+    public CostGrid add(Collection<WorldPoint> tiles, int cost) {
+        for (WorldPoint tile : tiles) {
+            add(tile, cost);
+        }
+        return this;
+    }
+
+    //every tile within radius (chebyshev) of center, like the tiles an npc can attack from
+    public CostGrid addAround(WorldPoint center, int radius, int cost) {
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dy = -radius; dy <= radius; dy++) {
+                add(center.dx(dx).dy(dy), cost);
+            }
+        }
+        return this;
+    }
+
+    public CostGrid block(WorldPoint tile) {
+        return set(tile, BLOCKED);
+    }
+
+    public CostGrid block(Collection<WorldPoint> tiles) {
+        for (WorldPoint tile : tiles) {
+            block(tile);
+        }
+        return this;
+    }
+
+    public void clear() {
+        Arrays.fill(costs, (byte) 0);
+    }
+
+    int maxCost() {
+        int max = 0;
+        for (byte cost : costs) {
+            int c = cost & 0xFF;
+            if (c != BLOCKED) {
+                max = Math.max(max, c);
+            }
+        }
+        return max;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.EthanApiPlugin.PathFinding;
 
 import com.example.EthanApiPlugin.EthanApiPlugin;
+import com.example.EthanApiPlugin.Profiling.FindPathEvent;
 import net.runelite.api.coords.WorldPoint;
 import org.roaringbitmap.RoaringBitmap;
 
@@ -12,6 +13,7 @@ import java.util.zip.GZIPInputStream;
 
 public class GlobalCollisionMap {
     static RoaringBitmap bitmap = init();
+    static TransportIndex transports = TransportIndex.load();
 
     static byte[] load() {
         try {
@@ -62,15 +64,79 @@ public class GlobalCollisionMap {
         return (wp.getX() & 16383) | ((wp.getY() & 16383) << 14) | (wp.getPlane() << 28);
     }
 
+    //which plain steps out of a tile are open, the bitmap for findPath
+    interface Walls {
+        boolean west(WorldPoint wp);
+
+        boolean east(WorldPoint wp);
+
+        boolean south(WorldPoint wp);
+
+        boolean north(WorldPoint wp);
+    }
+
+    private static final Walls BITMAP = new Walls() {
+        @Override
+        public boolean west(WorldPoint wp) {
+            return GlobalCollisionMap.west(wp);
+        }
+
+        @Override
+        public boolean east(WorldPoint wp) {
+            return GlobalCollisionMap.east(wp);
+        }
+
+        @Override
+        public boolean south(WorldPoint wp) {
+            return GlobalCollisionMap.south(wp);
+        }
+
+        @Override
+        public boolean north(WorldPoint wp) {
+            return GlobalCollisionMap.north(wp);
+        }
+    };
+
     public static List<WorldPoint> findPath(WorldPoint p) {
+        FindPathEvent event = new FindPathEvent();
+        event.begin();
         long start = System.currentTimeMillis();
         WorldPoint starting = EthanApiPlugin.getClient().getLocalPlayer().getWorldLocation();
-        HashSet<WorldPoint> visited = new HashSet<>();
-        ArrayDeque<Node> queue = new ArrayDeque<Node>();
-        queue.add(new Node(starting));
-        while (!queue.isEmpty()) {
-            Node current = queue.poll();
+        List<WorldPoint> ret = search(starting, p, BITMAP, transports, event);
+        if (ret != null) {
+            System.out.println("Path took " + (System.currentTimeMillis() - start) + "ms");
+        }
+        return ret;
+    }
+
+    //walking a tile costs 1 and a transport its own cost, so the queue is a ring of buckets by distance (Dial's) rather
+    //than a plain fifo. With no transports this is a plain bfs over the walls
+    static List<WorldPoint> search(WorldPoint starting, WorldPoint p, Walls walls, TransportIndex transports, FindPathEvent event) {
+        int expanded = 0;
+        HashMap<WorldPoint, Integer> distances = new HashMap<>();
+        int buckets = Math.max(1, transports.getMaxCost()) + 1;
+        List<ArrayDeque<Node>> ring = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            ring.add(new ArrayDeque<>());
+        }
+        distances.put(starting, 0);
+        ring.get(0).add(new Node(starting));
+        int queued = 1;
+        int distance = 0;
+        while (queued > 0) {
+            ArrayDeque<Node> bucket = ring.get(distance % buckets);
+            if (bucket.isEmpty()) {
+                distance++;
+                continue;
+            }
+            Node current = bucket.poll();
+            queued--;
             WorldPoint currentData = current.getData();
+            //queued again since with a shorter distance
+            if (distances.get(currentData) != distance) {
+                continue;
+            }
+            expanded++;
             if (currentData.equals(p)) {
                 List<WorldPoint> ret = new ArrayList<>();
                 while (current != null) {
@@ -79,26 +145,58 @@ public class GlobalCollisionMap {
                 }
                 Collections.reverse(ret);
                 ret.remove(0);
-                System.out.println("Path took " + (System.currentTimeMillis() - start) + "ms");
+                commit(event, starting, p, expanded, ret.size());
                 return ret;
             }
             //west
-            if (west(currentData) && visited.add(currentData.dx(-1))) {
-                queue.add(new Node(currentData.dx(-1), current));
+            if (walls.west(currentData)) {
+                queued += relax(distances, ring, current, currentData.dx(-1), distance + 1);
             }
             //east
-            if (east(currentData) && visited.add(currentData.dx(1))) {
-                queue.add(new Node(currentData.dx(1), current));
+            if (walls.east(currentData)) {
+                queued += relax(distances, ring, current, currentData.dx(1), distance + 1);
             }
             //south
-            if (south(currentData) && visited.add(currentData.dy(-1))) {
-                queue.add(new Node(currentData.dy(-1), current));
+            if (walls.south(currentData)) {
+                queued += relax(distances, ring, current, currentData.dy(-1), distance + 1);
             }
             //north
-            if (north(currentData) && visited.add(currentData.dy(1))) {
-                queue.add(new Node(currentData.dy(1), current));
+            if (walls.north(currentData)) {
+                queued += relax(distances, ring, current, currentData.dy(1), distance + 1);
+            }
+            //transports, which can change plane
+            int packed = packed(currentData);
+            for (int i = transports.first(packed); i < transports.size() && transports.source(i) == packed; i++) {
+                queued += relax(distances, ring, current, unpack(transports.destination(i)), distance + transports.cost(i));
             }
         }
+        commit(event, starting, p, expanded, -1);
         return null;
     }
+
+    private static int relax(HashMap<WorldPoint, Integer> distances, List<ArrayDeque<Node>> ring, Node current, WorldPoint next, int distance) {
+        Integer known = distances.get(next);
+        if (known != null && known <= distance) {
+            return 0;
+        }
+        distances.put(next, distance);
+        ring.get(distance % ring.size()).add(new Node(next, current));
+        return 1;
+    }
+
+    //the transport a findPath result uses to get from a to b, null when it's a plain step
+    public static TransportIndex.Transport transportBetween(WorldPoint a, WorldPoint b) {
+        return transports.between(a, b);
+    }
+
+    private static void commit(FindPathEvent event, WorldPoint start, WorldPoint goal, int expanded, int length) {
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.start = start.toString();
+        event.goal = goal.toString();
+        event.nodesExpanded = expanded;
+        event.pathLength = length;
+        event.commit();
+    }
 }
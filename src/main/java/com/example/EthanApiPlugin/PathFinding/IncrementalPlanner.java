@@ -0,0 +1,408 @@
+package com.example.EthanApiPlugin.PathFinding;
+
+import com.example.EthanApiPlugin.EthanApiPlugin;
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+//Keeps the search between calls for scripts that path every tick with only a few tiles changed. Same contract as
+//EthanApiPlugin.pathToGoalSet: the tiles after the start up to the nearest goal, empty when already on a goal, null
+//when no goal is reachable. The search runs backwards from the goals (D* Lite), so g is the number of moves from a
+//tile to the nearest goal. Each call diffs the tile states against the last call and repairs only the tiles whose
+//moves went through a changed tile; a moved start only raises the key offset. A new scene, or a change too big to be
+//worth repairing, starts over from the goals, and anything outside the 104x104 grid goes to pathToGoalSet.
+public class IncrementalPlanner {
+    private static final int SIZE = TileBits.SIZE;
+    private static final int CELLS = SIZE * SIZE;
+    private static final int INF = Integer.MAX_VALUE / 2;
+    private static final int MAX_KM = 1 << 18;
+    private static final StepModel MOVES = StepModel.DIRECTIONS_MAP;
+    //past this many changed tiles a search from scratch is cheaper than the repairs
+    private static final int REPAIR_LIMIT = CELLS / 8;
+
+    private final int[] g = new int[CELLS];
+    private final int[] rhs = new int[CELLS];
+    //walkable and not impassible, what a move can pass over
+    private boolean[] passable = new boolean[CELLS];
+    //passable and not dangerous, what a move can end on
+    private boolean[] enterable = new boolean[CELLS];
+    private boolean[] goal = new boolean[CELLS];
+    private boolean[] nextPassable = new boolean[CELLS];
+    private boolean[] nextEnterable = new boolean[CELLS];
+    private boolean[] nextGoal = new boolean[CELLS];
+    private final Heap open = new Heap();
+    private boolean initialized = false;
+    private int baseX;
+    private int baseY;
+    private int plane;
+    private int start = -1;
+    private int km = 0;
+    private int lastExpanded = 0;
+    private boolean lastFull = false;
+
+    public void reset() {
+        initialized = false;
+    }
+
+    //tiles expanded by the last call, a full search or a repair
+    public int getLastExpanded() {
+        return lastExpanded;
+    }
+
+    public boolean wasLastFullSearch() {
+        return lastFull;
+    }
+
+    public List<WorldPoint> pathToGoalSet(HashSet<WorldPoint> goalSet, HashSet<WorldPoint> dangerous, HashSet<WorldPoint> impassible, HashSet<WorldPoint> walkable, WorldPoint starting) {
+        lastExpanded = 0;
+        if (Collections.disjoint(goalSet, walkable)) {
+            return null;
+        }
+        int minX = starting.getX();
+        int minY = starting.getY();
+        for (WorldPoint tile : walkable) {
+            if (tile.getPlane() == starting.getPlane()) {
+                minX = Math.min(minX, tile.getX());
+                minY = Math.min(minY, tile.getY());
+            }
+        }
+        int sx = starting.getX() - minX;
+        int sy = starting.getY() - minY;
+        if (!TileBits.inBounds(sx, sy) || !inGrid(goalSet, minX, minY, starting.getPlane())) {
+            initialized = false;
+            lastFull = true;
+            return EthanApiPlugin.pathToGoalSet(goalSet, dangerous, impassible, walkable, starting);
+        }
+
+        fill(walkable, impassible, dangerous, goalSet, minX, minY, starting.getPlane());
+        int startCell = sy * SIZE + sx;
+        if (!initialized || minX != baseX || minY != baseY || starting.getPlane() != plane || km >= MAX_KM) {
+            baseX = minX;
+            baseY = minY;
+            plane = starting.getPlane();
+            start = startCell;
+            swap();
+            initialize();
+        } else {
+            km += heuristic(start, startCell);
+            start = startCell;
+            repair();
+        }
+        if (goal[start]) {
+            return new ArrayList<>();
+        }
+        computeShortestPath();
+        return walk();
+    }
+
+    private static boolean inGrid(Set<WorldPoint> goalSet, int minX, int minY, int plane) {
+        for (WorldPoint tile : goalSet) {
+            if (tile.getPlane() == plane && !TileBits.inBounds(tile.getX() - minX, tile.getY() - minY)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void fill(Set<WorldPoint> walkable, Set<WorldPoint> impassible, Set<WorldPoint> dangerous, Set<WorldPoint> goals,
+                      int minX, int minY, int plane) {
+        Arrays.fill(nextPassable, false);
+        Arrays.fill(nextGoal, false);
+        for (WorldPoint tile : walkable) {
+            int cell = cell(tile, minX, minY, plane);
+            if (cell >= 0) {
+                nextPassable[cell] = true;
+            }
+        }
+        for (WorldPoint tile : impassible) {
+            int cell = cell(tile, minX, minY, plane);
+            if (cell >= 0) {
+                nextPassable[cell] = false;
+            }
+        }
+        System.arraycopy(nextPassable, 0, nextEnterable, 0, CELLS);
+        for (WorldPoint tile : dangerous) {
+            int cell = cell(tile, minX, minY, plane);
+            if (cell >= 0) {
+                nextEnterable[cell] = false;
+            }
+        }
+        for (WorldPoint tile : goals) {
+            int cell = cell(tile, minX, minY, plane);
+            if (cell >= 0) {
+                nextGoal[cell] = true;
+            }
+        }
+    }
+
+    private static int cell(WorldPoint tile, int minX, int minY, int plane) {
+        int x = tile.getX() - minX;
+        int y = tile.getY() - minY;
+        if (tile.getPlane() != plane || !TileBits.inBounds(x, y)) {
+            return -1;
+        }
+        return y * SIZE + x;
+    }
+
+    private void swap() {
+        boolean[] t = passable;
+        passable = nextPassable;
+        nextPassable = t;
+        t = enterable;
+        enterable = nextEnterable;
+        nextEnterable = t;
+        t = goal;
+        goal = nextGoal;
+        nextGoal = t;
+    }
+
+    private void initialize() {
+        lastFull = true;
+        initialized = true;
+        km = 0;
+        open.clear();
+        Arrays.fill(g, INF);
+        Arrays.fill(rhs, INF);
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (goal[cell]) {
+                rhs[cell] = 0;
+                open.push(key(cell), cell);
+            }
+        }
+    }
+
+    //every tile with a move that passes over or ends on a changed tile gets its rhs worked out again
+    private void repair() {
+        List<Integer> changed = new ArrayList<>();
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (passable[cell] != nextPassable[cell] || enterable[cell] != nextEnterable[cell] || goal[cell] != nextGoal[cell]) {
+                changed.add(cell);
+            }
+        }
+        swap();
+        if (changed.size() > REPAIR_LIMIT) {
+            initialize();
+            return;
+        }
+        lastFull = false;
+        for (int cell : changed) {
+            int x = cell % SIZE;
+            int y = cell / SIZE;
+            updateVertex(cell);
+            for (int move = 0; move < MOVES.size(); move++) {
+                int dx = MOVES.dx(move);
+                int dy = MOVES.dy(move);
+                if (dx == 0 && dy == 0) {
+                    continue;
+                }
+                updateIfInGrid(x - dx, y - dy);
+                for (int[] through : MOVES.through(move)) {
+                    updateIfInGrid(x - through[0], y - through[1]);
+                }
+            }
+        }
+    }
+
+    private void updateIfInGrid(int x, int y) {
+        if (TileBits.inBounds(x, y)) {
+            updateVertex(y * SIZE + x);
+        }
+    }
+
+    private void updateVertex(int cell) {
+        if (!goal[cell]) {
+            int best = INF;
+            int x = cell % SIZE;
+            int y = cell / SIZE;
+            for (int move = 0; move < MOVES.size(); move++) {
+                if (legal(x, y, move)) {
+                    int next = (y + MOVES.dy(move)) * SIZE + x + MOVES.dx(move);
+                    best = Math.min(best, g[next] + 1);
+                }
+            }
+            rhs[cell] = best;
+        } else {
+            rhs[cell] = 0;
+        }
+        if (g[cell] != rhs[cell]) {
+            open.push(key(cell), cell);
+        }
+    }
+
+    //the same checks pathToGoalSet makes, the tile moved from isn't checked
+    private boolean legal(int x, int y, int move) {
+        int dx = MOVES.dx(move);
+        int dy = MOVES.dy(move);
+        if (dx == 0 && dy == 0) {
+            return false;
+        }
+        if (!TileBits.inBounds(x + dx, y + dy) || !enterable[(y + dy) * SIZE + x + dx]) {
+            return false;
+        }
+        for (int[] through : MOVES.through(move)) {
+            int tx = x + through[0];
+            int ty = y + through[1];
+            if (!TileBits.inBounds(tx, ty) || !passable[ty * SIZE + tx]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void computeShortestPath() {
+        while (!open.isEmpty()) {
+            int cell = open.peekCell();
+            long oldKey = open.peekKey();
+            if (g[cell] == rhs[cell]) {
+                open.pop();
+                continue;
+            }
+            long newKey = key(cell);
+            //queued before the start moved or before a cheaper rhs, requeue at its key now
+            if (oldKey != newKey) {
+                open.pop();
+                open.push(newKey, cell);
+                continue;
+            }
+            if (oldKey >= key(start) && g[start] == rhs[start]) {
+                return;
+            }
+            open.pop();
+            lastExpanded++;
+            int x = cell % SIZE;
+            int y = cell / SIZE;
+            if (g[cell] > rhs[cell]) {
+                g[cell] = rhs[cell];
+            } else {
+                g[cell] = INF;
+                updateVertex(cell);
+            }
+            if (!enterable[cell]) {
+                continue;
+            }
+            for (int move = 0; move < MOVES.size(); move++) {
+                int px = x - MOVES.dx(move);
+                int py = y - MOVES.dy(move);
+                if (TileBits.inBounds(px, py) && legal(px, py, move)) {
+                    updateVertex(py * SIZE + px);
+                }
+            }
+        }
+    }
+
+    //downhill on g from the start, null when the start can't reach a goal
+    private List<WorldPoint> walk() {
+        if (g[start] >= INF) {
+            return null;
+        }
+        List<WorldPoint> path = new ArrayList<>();
+        int cell = start;
+        while (!goal[cell] && path.size() < CELLS) {
+            int x = cell % SIZE;
+            int y = cell / SIZE;
+            int best = -1;
+            for (int move = 0; move < MOVES.size(); move++) {
+                if (legal(x, y, move)) {
+                    int next = (y + MOVES.dy(move)) * SIZE + x + MOVES.dx(move);
+                    if (best < 0 || g[next] < g[best]) {
+                        best = next;
+                    }
+                }
+            }
+            if (best < 0 || g[best] >= INF) {
+                return null;
+            }
+            cell = best;
+            path.add(new WorldPoint(baseX + cell % SIZE, baseY + cell / SIZE, plane));
+        }
+        return path;
+    }
+
+    //a run tick covers up to 2 tiles on each axis
+    private static int heuristic(int a, int b) {
+        int dx = Math.abs(a % SIZE - b % SIZE);
+        int dy = Math.abs(a / SIZE - b / SIZE);
+        return (Math.max(dx, dy) + 1) / 2;
+    }
+
+    //k1 then k2, packed so a long compare orders them
+    private long key(int cell) {
+        long k2 = Math.min(g[cell], rhs[cell]);
+        long k1 = k2 + heuristic(cell, start) + km;
+        return (k1 << 32) | k2;
+    }
+
+    //binary min heap of (key, cell) that never removes, stale entries are skipped when they reach the top
+    private static class Heap {
+        private long[] keys = new long[1024];
+        private int[] cells = new int[1024];
+        private int size = 0;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        long peekKey() {
+            return keys[0];
+        }
+
+        int peekCell() {
+            return cells[0];
+        }
+
+        void push(long key, int cell) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                cells = Arrays.copyOf(cells, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                cells[i] = cells[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            cells[i] = cell;
+        }
+
+        void pop() {
+            size--;
+            if (size == 0) {
+                return;
+            }
+            long key = keys[size];
+            int cell = cells[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= key) {
+                    break;
+                }
+                keys[i] = keys[child];
+                cells[i] = cells[child];
+                i = child;
+            }
+            keys[i] = key;
+            cells[i] = cell;
+        }
+    }
+}
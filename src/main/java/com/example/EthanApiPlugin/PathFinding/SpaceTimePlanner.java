@@ -0,0 +1,156 @@
+package com.example.EthanApiPlugin.PathFinding;
+
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.*;
+
+//Plans around hazards that move from tick to tick, like aoe markers and projectiles. The search is over (tile, tick):
+//the tiles the player can be standing on after t ticks are one bitboard, and the next tick's board is every legal
+//move of the step model applied to it at once, minus that tick's hazards. The first tick a goal shows up is the
+//earliest safe arrival, and the path is read back through the stored boards. Waiting in place is a move, so the plan
+//can stand still until a tile clears.
+public class SpaceTimePlanner {
+    public static final int DEFAULT_HORIZON = 64;
+
+    //Tiles that are unsafe to be standing on after a number of ticks from now, 1 being after the next move
+    public static class Hazards {
+        private final Map<Integer, List<WorldPoint>> byTick = new HashMap<>();
+        private final List<WorldPoint> always = new ArrayList<>();
+        private int lastTick = 0;
+
+        public Hazards at(int tick, WorldPoint tile) {
+            byTick.computeIfAbsent(tick, k -> new ArrayList<>()).add(tile);
+            lastTick = Math.max(lastTick, tick);
+            return this;
+        }
+
+        public Hazards at(int tick, Collection<WorldPoint> tiles) {
+            byTick.computeIfAbsent(tick, k -> new ArrayList<>()).addAll(tiles);
+            lastTick = Math.max(lastTick, tick);
+            return this;
+        }
+
+        //ticks from and to inclusive
+        public Hazards between(int from, int to, Collection<WorldPoint> tiles) {
+            for (int tick = from; tick <= to; tick++) {
+                at(tick, tiles);
+            }
+            return this;
+        }
+
+        public Hazards always(Collection<WorldPoint> tiles) {
+            always.addAll(tiles);
+            return this;
+        }
+
+        public int getLastTick() {
+            return lastTick;
+        }
+    }
+
+    //tiles to stand on after each tick until a goal is reached, repeated while waiting. Empty when already on a goal,
+    //null when no goal can be reached safely within the horizon
+    public static List<WorldPoint> plan(WorldPoint start, Set<WorldPoint> goals, Hazards hazards, Set<WorldPoint> walkable,
+                                        Set<WorldPoint> impassible, StepModel model, int horizon) {
+        if (goals.contains(start)) {
+            return new ArrayList<>();
+        }
+        int plane = start.getPlane();
+        int baseX = start.getX();
+        int baseY = start.getY();
+        for (WorldPoint tile : walkable) {
+            if (tile.getPlane() == plane) {
+                baseX = Math.min(baseX, tile.getX());
+                baseY = Math.min(baseY, tile.getY());
+            }
+        }
+        int sx = start.getX() - baseX;
+        int sy = start.getY() - baseY;
+        if (!TileBits.inBounds(sx, sy)) {
+            return null;
+        }
+
+        TileBits open = new TileBits();
+        open.setAll(walkable, baseX, baseY, plane);
+        TileBits blocked = new TileBits();
+        blocked.setAll(impassible, baseX, baseY, plane);
+        open.andNot(blocked);
+        TileBits goalBits = new TileBits();
+        goalBits.setAll(goals, baseX, baseY, plane);
+        goalBits.and(open);
+        if (goalBits.isEmpty()) {
+            return null;
+        }
+        //like pathToGoalSet's dangerous tiles, hazards only matter where a tick ends, not on the tiles run through
+        TileBits[] legal = new TileBits[model.size()];
+        for (int move = 0; move < model.size(); move++) {
+            legal[move] = model.legalFrom(move, open);
+        }
+        TileBits always = new TileBits();
+        always.setAll(hazards.always, baseX, baseY, plane);
+        TileBits safe = open.copy().andNot(always);
+
+        List<TileBits> frontiers = new ArrayList<>();
+        TileBits frontier = new TileBits();
+        frontier.set(sx, sy);
+        frontiers.add(frontier);
+        TileBits moved = new TileBits();
+        TileBits shifted = new TileBits();
+        for (int tick = 1; tick <= horizon; tick++) {
+            TileBits next = new TileBits();
+            for (int move = 0; move < model.size(); move++) {
+                System.arraycopy(frontier.words, 0, moved.words, 0, TileBits.WORDS);
+                moved.and(legal[move]);
+                TileBits.shift(moved, model.dx(move), model.dy(move), shifted);
+                next.or(shifted);
+            }
+            next.and(safe);
+            List<WorldPoint> unsafe = hazards.byTick.get(tick);
+            if (unsafe != null) {
+                for (WorldPoint tile : unsafe) {
+                    if (tile.getPlane() == plane) {
+                        next.clear(tile.getX() - baseX, tile.getY() - baseY);
+                    }
+                }
+            }
+            frontiers.add(next);
+            if (next.intersects(goalBits)) {
+                return walkBack(frontiers, next.copy().and(goalBits), legal, model, baseX, baseY, plane);
+            }
+            //nothing left alive, or nothing new to reach and no more hazards coming
+            if (next.isEmpty() || (tick > hazards.lastTick && next.sameAs(frontier))) {
+                return null;
+            }
+            frontier = next;
+        }
+        return null;
+    }
+
+    private static List<WorldPoint> walkBack(List<TileBits> frontiers, TileBits reachedGoals, TileBits[] legal,
+                                             StepModel model, int baseX, int baseY, int plane) {
+        int packed = reachedGoals.next(0);
+        int x = packed % TileBits.SIZE;
+        int y = packed / TileBits.SIZE;
+        int ticks = frontiers.size() - 1;
+        WorldPoint[] path = new WorldPoint[ticks];
+        for (int tick = ticks; tick >= 1; tick--) {
+            path[tick - 1] = new WorldPoint(baseX + x, baseY + y, plane);
+            TileBits before = frontiers.get(tick - 1);
+            for (int move = 0; move < model.size(); move++) {
+                int px = x - model.dx(move);
+                int py = y - model.dy(move);
+                if (before.get(px, py) && legal[move].get(px, py)) {
+                    x = px;
+                    y = py;
+                    break;
+                }
+            }
+        }
+        return new ArrayList<>(Arrays.asList(path));
+    }
+
+    public static List<WorldPoint> plan(WorldPoint start, Set<WorldPoint> goals, Hazards hazards, Set<WorldPoint> walkable,
+                                        Set<WorldPoint> impassible) {
+        return plan(start, goals, hazards, walkable, impassible, StepModel.RUN, DEFAULT_HORIZON);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.EthanApiPlugin.PathFinding;
+
+//The moves a player can make in one tick and the tiles each one passes over, the same rules
+//EthanApiPlugin.pathToGoalSet applies to directionsMap. RUN has the 2 tile moves, WALK only the single tile ones.
+//DIRECTIONS_MAP is the moves pathToGoalSet actually takes: RUN without the single tile straight steps, which no branch
+//of it accepts. The planners that have to give the same path lengths as pathToGoalSet use it. All of them include
+//standing still, which a search over time needs.
+public class StepModel {
+    public static final StepModel RUN = new StepModel(true, true);
+    public static final StepModel WALK = new StepModel(false, true);
+    public static final StepModel DIRECTIONS_MAP = new StepModel(true, false);
+
+    private final int[] dx;
+    private final int[] dy;
+    //tiles besides the destination that have to be walkable, as {dx, dy} pairs from the start tile
+    private final int[][][] through;
+
+    private StepModel(boolean run, boolean straightSteps) {
+        int moves = (run ? 21 : 5) + (straightSteps ? 4 : 0);
+        dx = new int[moves];
+        dy = new int[moves];
+        through = new int[moves][][];
+        int i = 0;
+        if (run) {
+            for (int sx = -1; sx <= 1; sx += 2) {
+                for (int sy = -1; sy <= 1; sy += 2) {
+                    //2 diagonal
+                    i = add(i, 2 * sx, 2 * sy, new int[][]{{sx, 2 * sy}, {2 * sx, sy}, {0, sy}, {sx, 0}, {sx, sy}});
+                    //L, 2 along y then 1 along x
+                    i = add(i, sx, 2 * sy, new int[][]{{sx, sy}, {0, sy}, {0, 2 * sy}});
+                    //L, 2 along x then 1 along y
+                    i = add(i, 2 * sx, sy, new int[][]{{sx, sy}, {sx, 0}, {2 * sx, 0}});
+                }
+            }
+            i = add(i, 2, 0, new int[][]{{1, 0}});
+            i = add(i, -2, 0, new int[][]{{-1, 0}});
+            i = add(i, 0, 2, new int[][]{{0, 1}});
+            i = add(i, 0, -2, new int[][]{{0, -1}});
+        }
+        for (int sx = -1; sx <= 1; sx += 2) {
+            for (int sy = -1; sy <= 1; sy += 2) {
+                i = add(i, sx, sy, new int[][]{{sx, 0}, {0, sy}});
+            }
+        }
+        if (straightSteps) {
+            i = add(i, 1, 0, new int[0][]);
+            i = add(i, -1, 0, new int[0][]);
+            i = add(i, 0, 1, new int[0][]);
+            i = add(i, 0, -1, new int[0][]);
+        }
+        add(i, 0, 0, new int[0][]);
+    }
+
+    private int add(int i, int dx, int dy, int[][] through) {
+        this.dx[i] = dx;
+        this.dy[i] = dy;
+        this.through[i] = through;
+        return i + 1;
+    }
+
+    //longest moves first, standing still last
+    public int size() {
+        return dx.length;
+    }
+
+    public int dx(int move) {
+        return dx[move];
+    }
+
+    public int dy(int move) {
+        return dy[move];
+    }
+
+    public int[][] through(int move) {
+        return through[move];
+    }
+
+    //start tiles from which the move stays on open tiles the whole way, the start tile itself isn't checked
+    public TileBits legalFrom(int move, TileBits open) {
+        TileBits legal = new TileBits();
+        TileBits shifted = new TileBits();
+        TileBits.shift(open, -dx[move], -dy[move], legal);
+        for (int[] tile : through[move]) {
+            TileBits.shift(open, -tile[0], -tile[1], shifted);
+            legal.and(shifted);
+        }
+        return legal;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.EthanApiPlugin.PathFinding;
+
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+//One bit per tile of a 104x104 scene sized window. Rows are padded to 128 bits so a whole board can be moved a
+//couple of tiles in any direction with a single bit shift; bits that wrap into the padding have to be masked off by
+//and-ing with a board that never has padding bits set, like the walkable tiles.
+public class TileBits {
+    public static final int SIZE = 104;
+    static final int ROW_BITS = 128;
+    static final int WORDS = SIZE * ROW_BITS / 64;
+    final long[] words;
+
+    public TileBits() {
+        this.words = new long[WORDS];
+    }
+
+    private TileBits(long[] words) {
+        this.words = words;
+    }
+
+    public static boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < SIZE && y < SIZE;
+    }
+
+    static int bit(int x, int y) {
+        return y * ROW_BITS + x;
+    }
+
+    public void set(int x, int y) {
+        if (inBounds(x, y)) {
+            int bit = bit(x, y);
+            words[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    public void clear(int x, int y) {
+        if (inBounds(x, y)) {
+            int bit = bit(x, y);
+            words[bit >>> 6] &= ~(1L << bit);
+        }
+    }
+
+    public boolean get(int x, int y) {
+        if (!inBounds(x, y)) {
+            return false;
+        }
+        int bit = bit(x, y);
+        return (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    //tiles relative to baseX/baseY on the given plane, anything outside the window is ignored
+    public void setAll(Collection<WorldPoint> tiles, int baseX, int baseY, int plane) {
+        for (WorldPoint tile : tiles) {
+            if (tile.getPlane() == plane) {
+                set(tile.getX() - baseX, tile.getY() - baseY);
+            }
+        }
+    }
+
+    public TileBits copy() {
+        return new TileBits(words.clone());
+    }
+
+    public TileBits and(TileBits other) {
+        for (int i = 0; i < WORDS; i++) {
+            words[i] &= other.words[i];
+        }
+        return this;
+    }
+
+    public TileBits or(TileBits other) {
+        for (int i = 0; i < WORDS; i++) {
+            words[i] |= other.words[i];
+        }
+        return this;
+    }
+
+    public TileBits andNot(TileBits other) {
+        for (int i = 0; i < WORDS; i++) {
+            words[i] &= ~other.words[i];
+        }
+        return this;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean intersects(TileBits other) {
+        for (int i = 0; i < WORDS; i++) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean sameAs(TileBits other) {
+        return Arrays.equals(words, other.words);
+    }
+
+    //packed y * SIZE + x of the lowest set tile at or after from, -1 when there is none
+    public int next(int from) {
+        int start = bit(from % SIZE, from / SIZE);
+        for (int w = start >>> 6; w < WORDS; w++) {
+            long word = words[w];
+            if (w == start >>> 6) {
+                word &= -1L << (start & 63);
+            }
+            while (word != 0) {
+                int bit = (w << 6) + Long.numberOfTrailingZeros(word);
+                int x = bit & (ROW_BITS - 1);
+                if (x < SIZE) {
+                    return (bit / ROW_BITS) * SIZE + x;
+                }
+                word &= word - 1;
+            }
+        }
+        return -1;
+    }
+
+    //dst(x + dx, y + dy) = src(x, y), dst may not be src
+    static void shift(TileBits src, int dx, int dy, TileBits dst) {
+        long[] in = src.words;
+        long[] out = dst.words;
+        int k = dy * ROW_BITS + dx;
+        if (k == 0) {
+            System.arraycopy(in, 0, out, 0, WORDS);
+            return;
+        }
+        int q = Math.abs(k) >>> 6;
+        int r = Math.abs(k) & 63;
+        if (k > 0) {
+            for (int i = WORDS - 1; i >= 0; i--) {
+                int j = i - q;
+                long word = j >= 0 ? in[j] << r : 0;
+                if (r != 0 && j - 1 >= 0) {
+                    word |= in[j - 1] >>> (64 - r);
+                }
+                out[i] = word;
+            }
+        } else {
+            for (int i = 0; i < WORDS; i++) {
+                int j = i + q;
+                long word = j < WORDS ? in[j] >>> r : 0;
+                if (r != 0 && j + 1 < WORDS) {
+                    word |= in[j + 1] << (64 - r);
+                }
+                out[i] = word;
+            }
+        }
+    }
+}
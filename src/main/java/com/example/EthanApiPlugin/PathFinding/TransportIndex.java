@@ -0,0 +1,219 @@
+package com.example.EthanApiPlugin.PathFinding;
+
+import net.runelite.api.coords.WorldPoint;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+//Stairs, ladders, doors and the like as extra edges for GlobalCollisionMap, read from the gzipped "transports" resource.
+//Edges are kept as columns sorted by packed source tile, so the edges out of a tile are a binary search and a short
+//scan. The file is written by write():
+//int version, int action count, the action names as UTF, int edge count, then per edge
+//int source, int destination, int object id, short action index, short cost in ticks
+public class TransportIndex {
+    static final int VERSION = 1;
+    private static final TransportIndex EMPTY = new TransportIndex(new int[0], new int[0], new int[0], new int[0], new int[0], new String[0]);
+    private final int[] sources;
+    private final int[] destinations;
+    private final int[] objectIds;
+    private final int[] actions;
+    private final int[] costs;
+    private final String[] actionNames;
+    private final int maxCost;
+
+    public static class Transport {
+        private final WorldPoint source;
+        private final WorldPoint destination;
+        private final int objectId;
+        private final String action;
+        private final int cost;
+
+        public Transport(WorldPoint source, WorldPoint destination, int objectId, String action, int cost) {
+            this.source = source;
+            this.destination = destination;
+            this.objectId = objectId;
+            this.action = action;
+            this.cost = cost;
+        }
+
+        public WorldPoint getSource() {
+            return source;
+        }
+
+        public WorldPoint getDestination() {
+            return destination;
+        }
+
+        public int getObjectId() {
+            return objectId;
+        }
+
+        public String getAction() {
+            return action;
+        }
+
+        public int getCost() {
+            return cost;
+        }
+
+        @Override
+        public String toString() {
+            return action + " " + objectId + " " + source + " -> " + destination + " (" + cost + ")";
+        }
+    }
+
+    private TransportIndex(int[] sources, int[] destinations, int[] objectIds, int[] actions, int[] costs, String[] actionNames) {
+        this.sources = sources;
+        this.destinations = destinations;
+        this.objectIds = objectIds;
+        this.actions = actions;
+        this.costs = costs;
+        this.actionNames = actionNames;
+        int max = 0;
+        for (int cost : costs) {
+            max = Math.max(max, cost);
+        }
+        this.maxCost = max;
+    }
+
+    //empty when the resource is missing or unreadable, walking still works without it
+    public static TransportIndex load() {
+        try (InputStream is = TransportIndex.class.getResourceAsStream("transports")) {
+            if (is == null) {
+                return EMPTY;
+            }
+            return read(new GZIPInputStream(is));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return EMPTY;
+    }
+
+    public static TransportIndex read(InputStream is) throws IOException {
+        DataInputStream in = new DataInputStream(is);
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("unsupported transport index version " + version);
+        }
+        String[] actionNames = new String[in.readInt()];
+        for (int i = 0; i < actionNames.length; i++) {
+            actionNames[i] = in.readUTF();
+        }
+        int count = in.readInt();
+        int[] sources = new int[count];
+        int[] destinations = new int[count];
+        int[] objectIds = new int[count];
+        int[] actions = new int[count];
+        int[] costs = new int[count];
+        for (int i = 0; i < count; i++) {
+            sources[i] = in.readInt();
+            destinations[i] = in.readInt();
+            objectIds[i] = in.readInt();
+            actions[i] = in.readUnsignedShort();
+            costs[i] = in.readUnsignedShort();
+            if (i > 0 && sources[i] < sources[i - 1]) {
+                throw new IOException("transport index isn't sorted by source at edge " + i);
+            }
+            if (actions[i] >= actionNames.length) {
+                throw new IOException("transport index action " + actions[i] + " out of range at edge " + i);
+            }
+        }
+        return new TransportIndex(sources, destinations, objectIds, actions, costs, actionNames);
+    }
+
+    //gzipped, ready to be dropped in as the resource
+    public static void write(OutputStream os, Collection<Transport> transports) throws IOException {
+        List<Transport> sorted = new ArrayList<>(transports);
+        sorted.sort(Comparator.comparingInt(t -> GlobalCollisionMap.packed(t.getSource())));
+        Map<String, Integer> actionIndex = new LinkedHashMap<>();
+        for (Transport transport : sorted) {
+            actionIndex.putIfAbsent(transport.getAction(), actionIndex.size());
+        }
+        GZIPOutputStream gzip = new GZIPOutputStream(os);
+        DataOutputStream out = new DataOutputStream(gzip);
+        out.writeInt(VERSION);
+        out.writeInt(actionIndex.size());
+        for (String action : actionIndex.keySet()) {
+            out.writeUTF(action);
+        }
+        out.writeInt(sorted.size());
+        for (Transport transport : sorted) {
+            out.writeInt(GlobalCollisionMap.packed(transport.getSource()));
+            out.writeInt(GlobalCollisionMap.packed(transport.getDestination()));
+            out.writeInt(transport.getObjectId());
+            out.writeShort(actionIndex.get(transport.getAction()));
+            out.writeShort(Math.max(0, Math.min(0xFFFF, transport.getCost())));
+        }
+        out.flush();
+        gzip.finish();
+    }
+
+    public int size() {
+        return sources.length;
+    }
+
+    public int getMaxCost() {
+        return maxCost;
+    }
+
+    //index of the first edge out of the packed tile, or size() when there are none. The edges out of it run
+    //while source(i) == packed
+    public int first(int packed) {
+        int lo = 0;
+        int hi = sources.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sources[mid] < packed) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    public int source(int i) {
+        return sources[i];
+    }
+
+    public int destination(int i) {
+        return destinations[i];
+    }
+
+    public int cost(int i) {
+        return costs[i];
+    }
+
+    public Transport get(int i) {
+        return new Transport(GlobalCollisionMap.unpack(sources[i]), GlobalCollisionMap.unpack(destinations[i]), objectIds[i],
+                actionNames[actions[i]], costs[i]);
+    }
+
+    public List<Transport> from(WorldPoint source) {
+        int packed = GlobalCollisionMap.packed(source);
+        List<Transport> ret = new ArrayList<>();
+        for (int i = first(packed); i < sources.length && sources[i] == packed; i++) {
+            ret.add(get(i));
+        }
+        return ret;
+    }
+
+    //the cheapest transport taking a to b, null if there isn't one
+    public Transport between(WorldPoint a, WorldPoint b) {
+        int packedA = GlobalCollisionMap.packed(a);
+        int packedB = GlobalCollisionMap.packed(b);
+        int best = -1;
+        for (int i = first(packedA); i < sources.length && sources[i] == packedA; i++) {
+            if (destinations[i] == packedB && (best < 0 || costs[i] < costs[best])) {
+                best = i;
+            }
+        }
+        return best < 0 ? null : get(best);
+    }
+}
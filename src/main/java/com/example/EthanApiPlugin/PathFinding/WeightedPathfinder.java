@@ -0,0 +1,154 @@
+package com.example.EthanApiPlugin.PathFinding;
+
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+//pathToGoalSet with costs instead of only exclusions. Every move costs 1 plus the CostGrid cost of the tile it ends on,
+//tiles passed over only have to be walkable like in the Obstructed checks. Edge weights are small integers, so the
+//queue is Dial's: a ring of maxCost + 2 buckets indexed by distance, and every push and pop is O(1). With an empty grid
+//the paths are as short as the BFS's.
+public class WeightedPathfinder {
+    private static final int SIZE = TileBits.SIZE;
+    private static final int CELLS = SIZE * SIZE;
+    private static final StepModel MOVES = StepModel.DIRECTIONS_MAP;
+
+    //same contract as pathToGoalSet, the cheapest path rather than the shortest. Searches only inside the grid
+    public static List<WorldPoint> pathToGoalSet(Set<WorldPoint> goalSet, CostGrid costs, Set<WorldPoint> impassible,
+                                                 Set<WorldPoint> walkable, WorldPoint starting) {
+        if (Collections.disjoint(goalSet, walkable)) {
+            return null;
+        }
+        if (goalSet.contains(starting)) {
+            return new ArrayList<>();
+        }
+        int start = costs.cell(starting);
+        if (start < 0) {
+            return null;
+        }
+        boolean[] passable = new boolean[CELLS];
+        for (WorldPoint tile : walkable) {
+            int cell = costs.cell(tile);
+            if (cell >= 0) {
+                passable[cell] = true;
+            }
+        }
+        for (WorldPoint tile : impassible) {
+            int cell = costs.cell(tile);
+            if (cell >= 0) {
+                passable[cell] = false;
+            }
+        }
+        boolean[] goal = new boolean[CELLS];
+        for (WorldPoint tile : goalSet) {
+            int cell = costs.cell(tile);
+            if (cell >= 0) {
+                goal[cell] = true;
+            }
+        }
+
+        int[] dist = new int[CELLS];
+        int[] parent = new int[CELLS];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Buckets buckets = new Buckets(costs.maxCost() + 2);
+        dist[start] = 0;
+        parent[start] = -1;
+        buckets.push(0, start);
+        int d = 0;
+        while (buckets.size > 0) {
+            int cell = buckets.pop(d);
+            if (cell < 0) {
+                d++;
+                continue;
+            }
+            //pushed again since with a lower distance
+            if (dist[cell] != d) {
+                continue;
+            }
+            if (goal[cell]) {
+                return walkBack(parent, cell, costs);
+            }
+            int x = cell % SIZE;
+            int y = cell / SIZE;
+            for (int move = 0; move < MOVES.size(); move++) {
+                int next = legal(x, y, move, passable, costs);
+                if (next < 0) {
+                    continue;
+                }
+                int nd = d + 1 + costs.cost(next);
+                if (nd < dist[next]) {
+                    dist[next] = nd;
+                    parent[next] = cell;
+                    buckets.push(nd, next);
+                }
+            }
+        }
+        return null;
+    }
+
+    //destination cell, or -1 when the move isn't allowed from x, y
+    private static int legal(int x, int y, int move, boolean[] passable, CostGrid costs) {
+        int dx = MOVES.dx(move);
+        int dy = MOVES.dy(move);
+        if (dx == 0 && dy == 0 || !TileBits.inBounds(x + dx, y + dy)) {
+            return -1;
+        }
+        int next = (y + dy) * SIZE + x + dx;
+        if (!passable[next] || costs.cost(next) == CostGrid.BLOCKED) {
+            return -1;
+        }
+        for (int[] through : MOVES.through(move)) {
+            int tx = x + through[0];
+            int ty = y + through[1];
+            if (!TileBits.inBounds(tx, ty) || !passable[ty * SIZE + tx]) {
+                return -1;
+            }
+        }
+        return next;
+    }
+
+    private static List<WorldPoint> walkBack(int[] parent, int cell, CostGrid costs) {
+        List<WorldPoint> ret = new ArrayList<>();
+        while (parent[cell] >= 0) {
+            ret.add(new WorldPoint(costs.getBaseX() + cell % SIZE, costs.getBaseY() + cell / SIZE, costs.getPlane()));
+            cell = parent[cell];
+        }
+        Collections.reverse(ret);
+        return ret;
+    }
+
+    //no edge is longer than the ring, so distance d and everything queued after it never share a bucket
+    private static class Buckets {
+        private final int[][] cells;
+        private final int[] sizes;
+        private int size = 0;
+
+        Buckets(int count) {
+            cells = new int[count][16];
+            sizes = new int[count];
+        }
+
+        void push(int distance, int cell) {
+            int b = distance % cells.length;
+            if (sizes[b] == cells[b].length) {
+                cells[b] = Arrays.copyOf(cells[b], sizes[b] * 2);
+            }
+            cells[b][sizes[b]++] = cell;
+            size++;
+        }
+
+        //-1 once the bucket for distance is empty
+        int pop(int distance) {
+            int b = distance % cells.length;
+            if (sizes[b] == 0) {
+                return -1;
+            }
+            size--;
+            return cells[b][--sizes[b]];
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.EthanApiPlugin.Profiling;
+
+import jdk.jfr.*;
+
+//EthanApiPlugin.canPathToTile, off unless a recording turns it on
+@Name("com.example.EthanApi.CanPathToTile")
+@Label("Can Path To Tile")
+@Category({"EthanApi", "Pathfinding"})
+@Description("Scene reachability check from the local player to a tile")
+@Enabled(false)
+public class CanPathToTileEvent extends Event {
+    @Label("Destination")
+    public String destination;
+
+    @Label("Reachable")
+    public boolean reachable;
+
+    @Label("Distance")
+    public int distance;
+}
@@ -0,0 +1,18 @@
+package com.example.EthanApiPlugin.Profiling;
+
+import jdk.jfr.*;
+
+//Refresh of one of the collections' cached views, off unless a recording turns it on
+@Name("com.example.EthanApi.CollectionRefresh")
+@Label("Collection Refresh")
+@Category({"EthanApi", "Collections"})
+@Description("A collection rebuilding what its queries read from")
+@Enabled(false)
+@StackTrace(false)
+public class CollectionRefreshEvent extends Event {
+    @Label("Collection")
+    public String collection;
+
+    @Label("Size")
+    public int size;
+}
@@ -0,0 +1,24 @@
+package com.example.EthanApiPlugin.Profiling;
+
+import jdk.jfr.*;
+
+//GlobalCollisionMap.findPath, off unless a recording turns it on
+@Name("com.example.EthanApi.FindPath")
+@Label("Find Path")
+@Category({"EthanApi", "Pathfinding"})
+@Description("Global collision map search from the local player to a goal tile")
+@Enabled(false)
+public class FindPathEvent extends Event {
+    @Label("Start")
+    public String start;
+
+    @Label("Goal")
+    public String goal;
+
+    @Label("Nodes Expanded")
+    public int nodesExpanded;
+
+    //-1 when no path was found
+    @Label("Path Length")
+    public int pathLength;
+}
@@ -0,0 +1,27 @@
+package com.example.EthanApiPlugin.Profiling;
+
+import jdk.jfr.*;
+
+//EthanApiPlugin.pathToGoalSet, off unless a recording turns it on
+@Name("com.example.EthanApi.PathToGoalSet")
+@Label("Path To Goal Set")
+@Category({"EthanApi", "Pathfinding"})
+@Description("Scene search from a start tile to the nearest of a set of goal tiles")
+@Enabled(false)
+public class PathToGoalSetEvent extends Event {
+    @Label("Start")
+    public String start;
+
+    @Label("Goals")
+    public int goals;
+
+    @Label("Walkable Tiles")
+    public int walkable;
+
+    @Label("Nodes Expanded")
+    public int nodesExpanded;
+
+    //-1 when no path was found
+    @Label("Path Length")
+    public int pathLength;
+}
@@ -0,0 +1,235 @@
+package com.example.EthanApiPlugin.Profiling;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+//Sampled profile of query chains keyed by the script line that started them. One in every sampleEvery queries gets a
+//Trace; each operator calls step() with the size it starts from, so an operator's output size, time and allocation are
+//whatever changed by the next step or the terminal call. Rows are per call site, query class and operator, plus a
+//"<chain> terminal" row per call site covering the whole query up to the terminal call. Off by default, start() is a
+//volatile read while it's off.
+public class QueryProfiler {
+    public static final String CHAIN = "<chain>";
+    //frames under these belong to the api, not the script: the collections and queries, the interaction helpers that
+    //search on a script's behalf, the plugin's static helpers and the profiler itself
+    private static final String[] API_FRAMES = {
+            "com.example.EthanApiPlugin.Collections.",
+            "com.example.InteractionApi.",
+            "com.example.EthanApiPlugin.EthanApiPlugin",
+            QueryProfiler.class.getName()
+    };
+    private static final StackWalker walker = StackWalker.getInstance();
+    private static volatile boolean enabled = false;
+    private static volatile int sampleEvery = 16;
+    private static final AtomicInteger counter = new AtomicInteger();
+    private static final Map<Key, Stats> profile = new ConcurrentHashMap<>();
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    //1 traces every query
+    public static void setSampleEvery(int every) {
+        sampleEvery = Math.max(1, every);
+    }
+
+    //null unless this query was picked for sampling
+    public static Trace start(String query, int size) {
+        if (!enabled || counter.incrementAndGet() % sampleEvery != 0) {
+            return null;
+        }
+        return new Trace(query, callSite(), size);
+    }
+
+    public static void step(Trace trace, String op, int size) {
+        if (trace != null) {
+            trace.step(op, size);
+        }
+    }
+
+    public static void finish(Trace trace, String op, int size) {
+        if (trace != null) {
+            trace.finish(op, size);
+        }
+    }
+
+    //first frame outside the api is the script that built the query
+    private static String callSite() {
+        return walker.walk(frames -> frames
+                .filter(f -> !isApiFrame(f.getClassName()))
+                .findFirst()
+                .map(f -> f.getClassName() + "." + f.getMethodName() + ":" + f.getLineNumber())
+                .orElse("unknown"));
+    }
+
+    private static boolean isApiFrame(String className) {
+        for (String prefix : API_FRAMES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static class Trace {
+        private final String query;
+        private final String callSite;
+        private final long threadId = Thread.currentThread().getId();
+        private final int startSize;
+        private final long startNanos;
+        private final long startBytes;
+        private String op;
+        private int opSize;
+        private long opNanos;
+        private long opBytes;
+        private boolean finished = false;
+
+        private Trace(String query, String callSite, int size) {
+            this.query = query;
+            this.callSite = callSite;
+            this.startSize = size;
+            this.startBytes = ThreadAllocation.bytes();
+            this.startNanos = System.nanoTime();
+        }
+
+        private void step(String op, int size) {
+            if (finished) {
+                return;
+            }
+            long now = System.nanoTime();
+            long bytes = bytes();
+            close(size, now, bytes);
+            this.op = op;
+            this.opSize = size;
+            this.opNanos = now;
+            this.opBytes = bytes;
+        }
+
+        //called as the terminal starts, so the terminal's own work isn't counted. A query can be read more than once,
+        //only the first read is recorded
+        private void finish(String terminal, int size) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            long now = System.nanoTime();
+            long bytes = bytes();
+            close(size, now, bytes);
+            record(CHAIN + " " + terminal, startSize, size, now - startNanos, startBytes < 0 || bytes < 0 ? -1 : bytes - startBytes);
+        }
+
+        private void close(int size, long now, long bytes) {
+            if (op == null) {
+                return;
+            }
+            record(op, opSize, size, now - opNanos, opBytes < 0 || bytes < 0 ? -1 : bytes - opBytes);
+            op = null;
+        }
+
+        //allocation is only comparable while the query stays on the thread that started it
+        private long bytes() {
+            return Thread.currentThread().getId() == threadId ? ThreadAllocation.bytes() : -1;
+        }
+
+        private void record(String op, int in, int out, long nanos, long bytes) {
+            profile.computeIfAbsent(new Key(callSite, query, op), k -> new Stats()).add(in, out, nanos, bytes);
+        }
+    }
+
+    public static String toCsv() {
+        StringBuilder sb = new StringBuilder("call_site,query,operator,samples,avg_input,avg_output,p50_nanos,p99_nanos,max_nanos,avg_alloc_bytes,total_alloc_bytes\n");
+        List<Map.Entry<Key, Stats>> rows = new ArrayList<>(profile.entrySet());
+        //worst chains first
+        rows.sort((a, b) -> Long.compare(b.getValue().totalNanos.sum(), a.getValue().totalNanos.sum()));
+        for (Map.Entry<Key, Stats> row : rows) {
+            Key key = row.getKey();
+            Stats s = row.getValue();
+            long samples = s.samples.sum();
+            long allocSamples = s.allocSamples.sum();
+            Histogram.Snapshot nanos = s.nanos.snapshot();
+            sb.append(csv(key.callSite)).append(',').append(key.query).append(',').append(csv(key.op)).append(',')
+                    .append(samples).append(',')
+                    .append(samples == 0 ? 0 : s.input.sum() / samples).append(',')
+                    .append(samples == 0 ? 0 : s.output.sum() / samples).append(',')
+                    .append(nanos.getP50()).append(',').append(nanos.getP99()).append(',').append(nanos.getMax()).append(',')
+                    .append(allocSamples == 0 ? -1 : s.bytes.sum() / allocSamples).append(',')
+                    .append(allocSamples == 0 ? -1 : s.bytes.sum()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public static Path writeCsv(Path file) throws IOException {
+        return Files.write(file, toCsv().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static void reset() {
+        profile.clear();
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static class Key {
+        private final String callSite;
+        private final String query;
+        private final String op;
+
+        Key(String callSite, String query, String op) {
+            this.callSite = callSite;
+            this.query = query;
+            this.op = op;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return callSite.equals(key.callSite) && query.equals(key.query) && op.equals(key.op);
+        }
+
+        @Override
+        public int hashCode() {
+            return (callSite.hashCode() * 31 + query.hashCode()) * 31 + op.hashCode();
+        }
+    }
+
+    private static class Stats {
+        private final LongAdder samples = new LongAdder();
+        private final LongAdder input = new LongAdder();
+        private final LongAdder output = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final Histogram nanos = new Histogram();
+        private final LongAdder allocSamples = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        void add(int in, int out, long nanos, long bytes) {
+            samples.increment();
+            input.add(Math.max(0, in));
+            output.add(Math.max(0, out));
+            totalNanos.add(nanos);
+            this.nanos.record(nanos);
+            if (bytes >= 0) {
+                allocSamples.increment();
+                this.bytes.add(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.EthanApiPlugin.Profiling;
+
+import jdk.jfr.*;
+
+//PacketReflection.sendPacket, off unless a recording turns it on
+@Name("com.example.EthanApi.SendPacket")
+@Label("Send Packet")
+@Category({"EthanApi", "Packets"})
+@Description("Packet built and handed to the client's packet writer")
+@Enabled(false)
+@StackTrace(false)
+public class SendPacketEvent extends Event {
+    @Label("Packet Type")
+    public String packetType;
+
+    @Label("Size")
+    @DataAmount
+    public int bytes;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,28 @@
+package com.example.EthanApiPlugin.Profiling;
+
+import java.lang.management.ManagementFactory;
+
+//Bytes allocated by the current thread so far, -1 when the jvm can't tell us
+public class ThreadAllocation {
+    private static final com.sun.management.ThreadMXBean threads = threadBean();
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) bean;
+            if (sun.isThreadAllocatedMemorySupported()) {
+                sun.setThreadAllocatedMemoryEnabled(true);
+                return sun;
+            }
+        }
+        return null;
+    }
+
+    public static boolean isSupported() {
+        return threads != null;
+    }
+
+    public static long bytes() {
+        return threads == null ? -1 : threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.EthanApiPlugin.Profiling;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.events.GameTick;
+import net.runelite.client.eventbus.Subscribe;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+//How much of each tick the collections spend refreshing, split by component. Callers wrap their work in
+//begin()/end(component, start); the time and bytes allocated by the calling thread are added to the component's total
+//for the current tick, and when the next tick starts each total goes into that component's histograms. Off by
+//default, begin() is a volatile read while it's off. A section nested in another is counted in both, so the
+//*_UPDATE components are timed from the container events rather than from the searches that can also load them.
+@Slf4j
+public class TickProfiler {
+    public static final long TICK_NANOS = 600_000_000L;
+    private static final long WARN_INTERVAL_NANOS = 10_000_000_000L;
+    private static volatile boolean enabled = false;
+    private static volatile double budgetFraction = 0.1;
+    private static final Stats[] stats = new Stats[Component.values().length];
+    private static final Histogram totalNanos = new Histogram();
+    //allocation counter at each open begin() on this thread, so nested sections don't clobber each other
+    private static final ThreadLocal<long[]> allocationStack = ThreadLocal.withInitial(() -> new long[16]);
+    private static final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+    private static long lastWarning = 0;
+    private static long overBudgetTicks = 0;
+
+    public enum Component {
+        NPCS_TICK,
+        TILE_OBJECTS_TICK,
+        PLAYERS_TICK,
+        INVENTORY_SEARCH,
+        BANK_SEARCH,
+        EQUIPMENT_SEARCH,
+        WIDGETS_SEARCH,
+        BANK_UPDATE,
+        INVENTORY_UPDATE,
+        EQUIPMENT_UPDATE,
+        WIDGETS_INVALIDATE,
+        OBJECT_COMPOSITIONS_VARBIT,
+        INTERACTION_GRAPH
+    }
+
+    static {
+        for (Component component : Component.values()) {
+            stats[component.ordinal()] = new Stats();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    //warn when the collections take more than this fraction of a 600ms tick
+    public static void setBudgetFraction(double fraction) {
+        budgetFraction = fraction;
+    }
+
+    public static double getBudgetFraction() {
+        return budgetFraction;
+    }
+
+    //timestamp to hand to end(), 0 while disabled
+    public static long begin() {
+        if (!enabled) {
+            return 0;
+        }
+        int[] d = depth.get();
+        long[] allocations = allocationStack.get();
+        if (d[0] < allocations.length) {
+            allocations[d[0]] = ThreadAllocation.bytes();
+        }
+        d[0]++;
+        return System.nanoTime();
+    }
+
+    public static void end(Component component, long start) {
+        if (start == 0) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        int[] d = depth.get();
+        long[] allocations = allocationStack.get();
+        d[0]--;
+        long allocated = 0;
+        if (d[0] < allocations.length && allocations[d[0]] >= 0) {
+            allocated = Math.max(0, ThreadAllocation.bytes() - allocations[d[0]]);
+        }
+        Stats s = stats[component.ordinal()];
+        s.tickNanos.add(nanos);
+        s.tickBytes.add(allocated);
+        s.tickCalls.increment();
+    }
+
+    //ahead of the collections' own tick refresh so their work is counted in the tick it starts
+    @Subscribe(priority = 10001)
+    public void onGameTick(GameTick e) {
+        if (!enabled) {
+            return;
+        }
+        long total = 0;
+        Map<Component, Long> breakdown = new EnumMap<>(Component.class);
+        for (Component component : Component.values()) {
+            Stats s = stats[component.ordinal()];
+            if (s.tickCalls.sumThenReset() == 0) {
+                continue;
+            }
+            long nanos = s.tickNanos.sumThenReset();
+            s.nanos.record(nanos);
+            s.bytes.record(s.tickBytes.sumThenReset());
+            breakdown.put(component, nanos);
+            total += nanos;
+        }
+        totalNanos.record(total);
+        if (total > budgetFraction * TICK_NANOS) {
+            overBudgetTicks++;
+            long now = System.nanoTime();
+            if (now - lastWarning > WARN_INTERVAL_NANOS) {
+                lastWarning = now;
+                log.warn("EthanApi used {}ms of the last tick, over the {}% budget ({} ticks over so far): {}",
+                        total / 1_000_000, Math.round(budgetFraction * 100), overBudgetTicks, breakdown);
+            }
+        }
+    }
+
+    //per tick nanos for the components that ran in that tick
+    public static Histogram.Snapshot getNanos(Component component) {
+        return stats[component.ordinal()].nanos.snapshot();
+    }
+
+    //per tick allocated bytes, all zero when the jvm can't measure allocation
+    public static Histogram.Snapshot getBytes(Component component) {
+        return stats[component.ordinal()].bytes.snapshot();
+    }
+
+    //summed over all components for every tick since enabled
+    public static Histogram.Snapshot getTotalNanos() {
+        return totalNanos.snapshot();
+    }
+
+    public static long getOverBudgetTicks() {
+        return overBudgetTicks;
+    }
+
+    public static String report() {
+        StringBuilder sb = new StringBuilder("tick total nanos ").append(totalNanos.snapshot());
+        for (Component component : Component.values()) {
+            Stats s = stats[component.ordinal()];
+            if (s.nanos.getCount() == 0) {
+                continue;
+            }
+            sb.append('\n').append(component).append(" nanos ").append(s.nanos.snapshot())
+                    .append(" bytes ").append(s.bytes.snapshot());
+        }
+        return sb.toString();
+    }
+
+    public static void reset() {
+        for (Stats s : stats) {
+            s.reset();
+        }
+        totalNanos.reset();
+        overBudgetTicks = 0;
+    }
+
+    private static class Stats {
+        private final LongAdder tickNanos = new LongAdder();
+        private final LongAdder tickBytes = new LongAdder();
+        private final LongAdder tickCalls = new LongAdder();
+        private final Histogram nanos = new Histogram();
+        private final Histogram bytes = new Histogram();
+
+        void reset() {
+            tickNanos.reset();
+            tickBytes.reset();
+            tickCalls.reset();
+            nanos.reset();
+            bytes.reset();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.EthanApiPlugin.Utility;
+
+import net.runelite.api.Client;
+import net.runelite.api.Perspective;
+import net.runelite.api.Point;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.ui.overlay.OverlayUtil;
+
+import java.awt.*;
+import java.awt.geom.Path2D;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+//Draws a path or any set of tiles for debug overlays. Tiles off the current scene or plane are dropped before any
+//projection, and the projected polygons and label positions are kept until the camera, viewport, scene base or the
+//tiles themselves change, so a still camera costs one fill, one outline and the labels per frame.
+public class TilePathRenderer {
+    private static final Font LABEL_FONT = new Font("Arial", Font.BOLD, 15);
+    private static final int SCENE_SIZE = 104;
+    private static String[] labels = new String[0];
+    private final Client client;
+    private final Color border;
+    private final Color fill;
+    private final Stroke stroke;
+    private final boolean numbered;
+    private Collection<WorldPoint> tiles = null;
+    private final long[] cameraState = new long[13];
+    private boolean cached = false;
+    private Path2D.Float shape = new Path2D.Float();
+    private final List<Point> labelLocations = new ArrayList<>();
+    private final List<String> labelTexts = new ArrayList<>();
+
+    //numbered labels each tile with its 1 based position in the path
+    public TilePathRenderer(Client client, Color color, int fillAlpha, Stroke stroke, boolean numbered) {
+        this.client = client;
+        this.border = color;
+        this.fill = new Color(color.getRed(), color.getGreen(), color.getBlue(), fillAlpha);
+        this.stroke = stroke;
+        this.numbered = numbered;
+    }
+
+    //the cache is kept while the same collection is passed in, hand over a new one when the path changes
+    public void setTiles(Collection<WorldPoint> tiles) {
+        if (tiles != this.tiles) {
+            this.tiles = tiles;
+            cached = false;
+        }
+    }
+
+    public void invalidate() {
+        cached = false;
+    }
+
+    public void render(Graphics2D graphics) {
+        if (tiles == null || tiles.isEmpty()) {
+            return;
+        }
+        graphics.setFont(LABEL_FONT);
+        if (!cached || cameraMoved()) {
+            rebuild(graphics);
+        }
+        graphics.setColor(fill);
+        graphics.fill(shape);
+        graphics.setColor(border);
+        graphics.setStroke(stroke);
+        graphics.draw(shape);
+        for (int i = 0; i < labelLocations.size(); i++) {
+            OverlayUtil.renderTextLocation(graphics, labelLocations.get(i), labelTexts.get(i), border);
+        }
+    }
+
+    //records the current camera as it compares, so it doesn't allocate on the frames where nothing moved
+    private boolean cameraMoved() {
+        return changed(0, client.getCameraX()) | changed(1, client.getCameraY()) | changed(2, client.getCameraZ())
+                | changed(3, client.getCameraPitch()) | changed(4, client.getCameraYaw()) | changed(5, client.getScale())
+                | changed(6, client.getViewportWidth()) | changed(7, client.getViewportHeight())
+                | changed(8, client.getViewportXOffset()) | changed(9, client.getViewportYOffset())
+                | changed(10, client.getBaseX()) | changed(11, client.getBaseY()) | changed(12, client.getPlane());
+    }
+
+    private boolean changed(int i, long value) {
+        if (cameraState[i] == value) {
+            return false;
+        }
+        cameraState[i] = value;
+        return true;
+    }
+
+    private void rebuild(Graphics2D graphics) {
+        cameraMoved();
+        Path2D.Float shape = new Path2D.Float();
+        labelLocations.clear();
+        labelTexts.clear();
+        int baseX = client.getBaseX();
+        int baseY = client.getBaseY();
+        int plane = client.getPlane();
+        int index = 0;
+        for (WorldPoint tile : tiles) {
+            index++;
+            int sceneX = tile.getX() - baseX;
+            int sceneY = tile.getY() - baseY;
+            if (tile.getPlane() != plane || sceneX < 0 || sceneY < 0 || sceneX >= SCENE_SIZE || sceneY >= SCENE_SIZE) {
+                continue;
+            }
+            LocalPoint lp = LocalPoint.fromWorld(client, tile);
+            if (lp == null) {
+                continue;
+            }
+            Polygon poly = Perspective.getCanvasTilePoly(client, lp);
+            if (poly != null) {
+                shape.append(poly, false);
+            }
+            if (numbered) {
+                String label = label(index);
+                Point location = Perspective.getCanvasTextLocation(client, graphics, lp, label, 0);
+                if (location != null) {
+                    labelLocations.add(location);
+                    labelTexts.add(label);
+                }
+            }
+        }
+        this.shape = shape;
+        cached = true;
+    }
+
+    private static String label(int index) {
+        String[] labels = TilePathRenderer.labels;
+        if (index >= labels.length) {
+            String[] grown = new String[Math.max(index + 1, labels.length * 2)];
+            System.arraycopy(labels, 0, grown, 0, labels.length);
+            for (int i = labels.length; i < grown.length; i++) {
+                grown[i] = String.valueOf(i);
+            }
+            TilePathRenderer.labels = labels = grown;
+        }
+        return labels[index];
+    }
+}
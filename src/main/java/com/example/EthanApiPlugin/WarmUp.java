@@ -0,0 +1,165 @@
+package com.example.EthanApiPlugin;
+
+import com.example.EthanApiPlugin.Collections.Equipment;
+import com.example.EthanApiPlugin.Collections.Inventory;
+import com.example.EthanApiPlugin.Collections.NPCs;
+import com.example.PacketUtils.ObfuscatedAccessors;
+import com.example.PacketUtils.PacketReflection;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.GameState;
+import net.runelite.api.NPC;
+import net.runelite.api.events.NpcSpawned;
+import net.runelite.client.RuneLite;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.eventbus.Subscribe;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+//One time costs paid at plugin start instead of on whichever thread touches them first, usually the client thread in
+//the middle of a tick. Anything that only loads classes or reads resources runs on a small pool, anything that needs
+//the client thread is queued on it. ready() completes when the startup steps are done, the animation probe needs an
+//npc so it runs on the first NpcSpawned, or straight away if one is already around, and completes actorsReady().
+//The packet reflection step fills PacketReflection's cached members, so the first packet sent doesn't resolve them.
+@Slf4j
+public class WarmUp {
+    static Client client = RuneLite.getInjector().getInstance(Client.class);
+    static ClientThread clientThread = RuneLite.getInjector().getInstance(ClientThread.class);
+    private static final AtomicInteger threads = new AtomicInteger();
+    private static final ExecutorService executor = Executors.newFixedThreadPool(2, r -> {
+        Thread thread = new Thread(r, "EthanApi-warmup-" + threads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+    private static volatile CompletableFuture<Void> ready = null;
+    private static volatile CompletableFuture<Void> actorsReady = null;
+
+    public static synchronized CompletableFuture<Void> start() {
+        if (ready != null) {
+            return ready;
+        }
+        long start = System.nanoTime();
+        CompletableFuture<Void> collision = background("collision map", () -> load("com.example.EthanApiPlugin.PathFinding.GlobalCollisionMap"));
+        CompletableFuture<Void> packets = background("packet reflection", () -> {
+            load("com.example.PacketUtils.PacketDef");
+            load("com.example.Packets.BufferMethods");
+            PacketReflection.getClientPacketClass();
+            PacketReflection.getPacketBufferNodeClass();
+            PacketReflection.getGetPacketBufferNode();
+            PacketReflection.getPacketWriterField();
+            PacketReflection.getIsaacField();
+        });
+        CompletableFuture<Void> accessors = background("obfuscated accessors", ObfuscatedAccessors::report);
+        CompletableFuture<Void> items = onClientThread("item definitions", () -> {
+            if (client.getGameState() != GameState.LOGGED_IN) {
+                return true;
+            }
+            for (int slot = 0; slot < 28; slot++) {
+                define(Inventory.getItemId(slot));
+            }
+            for (int slot = 0; slot < 14; slot++) {
+                define(Equipment.getItemId(slot));
+            }
+            return true;
+        });
+        ready = CompletableFuture.allOf(collision, packets, accessors, items).whenComplete((v, e) ->
+                log.info("warm-up finished in {}ms: {}", (System.nanoTime() - start) / 1_000_000, getTimings()));
+        actorsReady = new CompletableFuture<>();
+        //one look for an npc that's already loaded, after that onNpcSpawned probes the first one that spawns
+        clientThread.invoke(() -> NPCs.search().first().ifPresent(WarmUp::probeAnimation));
+        return ready;
+    }
+
+    @Subscribe
+    public void onNpcSpawned(NpcSpawned e) {
+        probeAnimation(e.getNpc());
+    }
+
+    //client thread only
+    private static void probeAnimation(NPC npc) {
+        CompletableFuture<Void> future = actorsReady;
+        if (future == null || future.isDone()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            ObfuscatedAccessors.getAnimation(npc);
+            timings.put("animation field", (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("warm-up step {} failed", "animation field", e);
+        }
+        future.complete(null);
+    }
+
+    public static CompletableFuture<Void> ready() {
+        CompletableFuture<Void> future = ready;
+        return future == null ? start() : future;
+    }
+
+    public static CompletableFuture<Void> actorsReady() {
+        ready();
+        return actorsReady;
+    }
+
+    //milliseconds each finished step took, in the order they finished
+    public static Map<String, Long> getTimings() {
+        synchronized (timings) {
+            return new LinkedHashMap<>(timings);
+        }
+    }
+
+    private static CompletableFuture<Void> background(String name, Runnable task) {
+        return CompletableFuture.runAsync(() -> time(name, task), executor).exceptionally(e -> {
+            log.warn("warm-up step {} failed", name, e);
+            return null;
+        });
+    }
+
+    private static CompletableFuture<Void> onClientThread(String name, BooleanSupplier task) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        clientThread.invoke(() -> {
+            long start = System.nanoTime();
+            try {
+                if (!task.getAsBoolean()) {
+                    return false;
+                }
+                timings.put(name, (System.nanoTime() - start) / 1_000_000);
+                future.complete(null);
+            } catch (RuntimeException e) {
+                log.warn("warm-up step {} failed", name, e);
+                future.complete(null);
+            }
+            return true;
+        });
+        return future;
+    }
+
+    private static void time(String name, Runnable task) {
+        long start = System.nanoTime();
+        task.run();
+        timings.put(name, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void define(int itemId) {
+        if (itemId > 0) {
+            EthanApiPlugin.itemDefs.getUnchecked(itemId);
+        }
+    }
+
+    //runs the static initializer, which is where these classes do their loading
+    private static void load(String className) {
+        try {
+            Class.forName(className, true, WarmUp.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
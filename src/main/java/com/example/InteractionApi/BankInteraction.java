@@ -25,7 +25,7 @@ public class BankInteraction {
     private static final String NOTE_MODE_ACTION = "Note";
 
     public static boolean useItem(String name, String... actions) {
-        return Bank.search().withName(name).first().flatMap(item ->
+        return Bank.findName(name).flatMap(item ->
         {
             setWithdrawMode(EthanApiPlugin.getClient().getVarbitValue(WITHDRAW_AS_VARBIT));
 
@@ -36,7 +36,7 @@ public class BankInteraction {
     }
 
     public static boolean useItem(int id, String... actions) {
-        return Bank.search().withId(id).first().flatMap(item ->
+        return Bank.findId(id).flatMap(item ->
         {
             setWithdrawMode(EthanApiPlugin.getClient().getVarbitValue(WITHDRAW_AS_VARBIT));
 
@@ -116,7 +116,7 @@ public class BankInteraction {
     }
 
     public static boolean useItem(String name, boolean noted, String... actions) {
-        return Bank.search().withName(name).first().flatMap(item ->
+        return Bank.findName(name).flatMap(item ->
         {
             setWithdrawMode(EthanApiPlugin.getClient().getVarbitValue(WITHDRAW_AS_VARBIT));
 
@@ -127,7 +127,7 @@ public class BankInteraction {
     }
 
     public static boolean useItem(int id, boolean noted, String... actions) {
-        return Bank.search().withId(id).first().flatMap(item ->
+        return Bank.findId(id).flatMap(item ->
         {
             setWithdrawMode(noted? WITHDRAW_NOTES_MODE : WITHDRAW_ITEM_MODE);
 
@@ -0,0 +1,285 @@
+package com.example.PacketUtils;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+//Finds the addNode call in doAction by reading the class file directly. Every menu action branch of doAction ends by
+//handing its packet to addNode, so the method invoked most often with the packet writer, or on the packet writer
+//with a packet buffer node, is addNode. Only the constant pool and the doAction code attributes are read.
+public class AddNodeScanner {
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+    private static final int INVOKEINTERFACE = 0xb9;
+    private static final int TABLESWITCH = 0xaa;
+    private static final int LOOKUPSWITCH = 0xab;
+    private static final int WIDE = 0xc4;
+    private static final int IINC = 0x84;
+    private static final int LAST_OPCODE = 0xc9;
+    //instruction lengths including the opcode, 0 for the variable length ones and for bytes that aren't opcodes, so
+    //a walk that lost its place fails instead of quietly finding other calls
+    private static final int[] LENGTHS = new int[256];
+
+    static {
+        Arrays.fill(LENGTHS, 0, LAST_OPCODE + 1, 1);
+        LENGTHS[0x10] = 2; //bipush
+        LENGTHS[0x11] = 3; //sipush
+        LENGTHS[0x12] = 2; //ldc
+        LENGTHS[0x13] = 3; //ldc_w
+        LENGTHS[0x14] = 3; //ldc2_w
+        for (int op = 0x15; op <= 0x19; op++) {
+            LENGTHS[op] = 2; //loads
+        }
+        for (int op = 0x36; op <= 0x3a; op++) {
+            LENGTHS[op] = 2; //stores
+        }
+        LENGTHS[IINC] = 3;
+        for (int op = 0x99; op <= 0xa8; op++) {
+            LENGTHS[op] = 3; //if*, goto, jsr
+        }
+        LENGTHS[0xa9] = 2; //ret
+        LENGTHS[TABLESWITCH] = 0;
+        LENGTHS[LOOKUPSWITCH] = 0;
+        for (int op = 0xb2; op <= 0xb8; op++) {
+            LENGTHS[op] = 3; //field access and invokes
+        }
+        LENGTHS[INVOKEINTERFACE] = 5;
+        LENGTHS[0xba] = 5; //invokedynamic
+        LENGTHS[0xbb] = 3; //new
+        LENGTHS[0xbc] = 2; //newarray
+        LENGTHS[0xbd] = 3; //anewarray
+        LENGTHS[0xc0] = 3; //checkcast
+        LENGTHS[0xc1] = 3; //instanceof
+        LENGTHS[WIDE] = 0;
+        LENGTHS[0xc5] = 4; //multianewarray
+        LENGTHS[0xc6] = 3; //ifnull
+        LENGTHS[0xc7] = 3; //ifnonnull
+        LENGTHS[0xc8] = 5; //goto_w
+        LENGTHS[0xc9] = 5; //jsr_w
+    }
+
+    public static class Result {
+        private final String owner;
+        private final String name;
+        private final String descriptor;
+        private final boolean onPacketWriter;
+        private final int calls;
+
+        Result(String owner, String name, String descriptor, boolean onPacketWriter, int calls) {
+            this.owner = owner;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.onPacketWriter = onPacketWriter;
+            this.calls = calls;
+        }
+
+        public String getOwner() {
+            return owner;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescriptor() {
+            return descriptor;
+        }
+
+        public int getCalls() {
+            return calls;
+        }
+
+        //true when addNode is the packet writer's own method rather than a static helper
+        public boolean isClientAddNode() {
+            return onPacketWriter;
+        }
+
+        //second line of the <version>-<rev>.txt config, same shape the decompiler based lookup wrote
+        public String toConfigLine() {
+            return (onPacketWriter ? "client." : "") + owner.replace('/', '.') + "." + name;
+        }
+
+        @Override
+        public String toString() {
+            return owner + "." + name + descriptor + " x" + calls;
+        }
+    }
+
+    public static Result scan(Path jar, String className, String methodName, String packetWriterClassName,
+                              String packetBufferNodeClassName) throws IOException {
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            JarEntry entry = jarFile.getJarEntry(className + ".class");
+            if (entry == null) {
+                throw new FileNotFoundException(className + ".class not found in " + jar);
+            }
+            try (InputStream in = jarFile.getInputStream(entry)) {
+                return scan(in, methodName, packetWriterClassName, packetBufferNodeClassName);
+            }
+        }
+    }
+
+    //null when no candidate call was found
+    public static Result scan(InputStream classFile, String methodName, String packetWriterClassName,
+                              String packetBufferNodeClassName) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(classFile));
+        if (in.readInt() != 0xCAFEBABE) {
+            throw new IOException("not a class file");
+        }
+        in.readUnsignedShort();
+        in.readUnsignedShort();
+        int count = in.readUnsignedShort();
+        int[] tags = new int[count];
+        String[] utf8 = new String[count];
+        int[] first = new int[count];
+        int[] second = new int[count];
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            tags[i] = tag;
+            switch (tag) {
+                case 1:
+                    utf8[i] = in.readUTF();
+                    break;
+                case 3:
+                case 4:
+                    in.readInt();
+                    break;
+                case 5:
+                case 6:
+                    in.readLong();
+                    //longs and doubles take two slots
+                    i++;
+                    break;
+                case 7:
+                case 8:
+                case 16:
+                case 19:
+                case 20:
+                    first[i] = in.readUnsignedShort();
+                    break;
+                case 9:
+                case 10:
+                case 11:
+                case 12:
+                case 17:
+                case 18:
+                    first[i] = in.readUnsignedShort();
+                    second[i] = in.readUnsignedShort();
+                    break;
+                case 15:
+                    in.readUnsignedByte();
+                    first[i] = in.readUnsignedShort();
+                    break;
+                default:
+                    throw new IOException("unknown constant pool tag " + tag + " at " + i);
+            }
+        }
+        in.readUnsignedShort();
+        in.readUnsignedShort();
+        in.readUnsignedShort();
+        skip(in, in.readUnsignedShort() * 2L);
+        int fields = in.readUnsignedShort();
+        for (int i = 0; i < fields; i++) {
+            skip(in, 6);
+            skipAttributes(in);
+        }
+
+        String writerType = "L" + packetWriterClassName + ";";
+        String nodeType = "L" + packetBufferNodeClassName + ";";
+        Map<Integer, Integer> callsByRef = new HashMap<>();
+        int methods = in.readUnsignedShort();
+        for (int i = 0; i < methods; i++) {
+            in.readUnsignedShort();
+            String name = utf8[in.readUnsignedShort()];
+            in.readUnsignedShort();
+            int attributes = in.readUnsignedShort();
+            for (int a = 0; a < attributes; a++) {
+                String attribute = utf8[in.readUnsignedShort()];
+                int length = in.readInt();
+                if (!methodName.equals(name) || !"Code".equals(attribute)) {
+                    skip(in, length);
+                    continue;
+                }
+                in.readUnsignedShort();
+                in.readUnsignedShort();
+                byte[] code = new byte[in.readInt()];
+                in.readFully(code);
+                countInvokes(code, callsByRef);
+                //exception table and the code's own attributes
+                skip(in, length - 8 - code.length);
+            }
+        }
+
+        Result best = null;
+        for (Map.Entry<Integer, Integer> entry : callsByRef.entrySet()) {
+            int ref = entry.getKey();
+            String owner = utf8[first[first[ref]]];
+            int nameAndType = second[ref];
+            String name = utf8[first[nameAndType]];
+            String descriptor = utf8[second[nameAndType]];
+            String parameters = descriptor.substring(0, descriptor.indexOf(')') + 1);
+            boolean takesWriter = parameters.contains(writerType);
+            boolean onWriter = owner.equals(packetWriterClassName) && parameters.contains(nodeType);
+            if (!takesWriter && !onWriter) {
+                continue;
+            }
+            if (best == null || entry.getValue() > best.calls) {
+                best = new Result(owner, name, descriptor, onWriter && !takesWriter, entry.getValue());
+            }
+        }
+        return best;
+    }
+
+    private static void countInvokes(byte[] code, Map<Integer, Integer> callsByRef) throws IOException {
+        int pc = 0;
+        while (pc < code.length) {
+            int op = code[pc] & 0xff;
+            int length = LENGTHS[op];
+            if (op == WIDE && pc + 1 < code.length) {
+                length = (code[pc + 1] & 0xff) == IINC ? 6 : 4;
+            } else if (op == TABLESWITCH && ((pc + 4) & ~3) + 12 <= code.length) {
+                int base = (pc + 4) & ~3;
+                long low = readInt(code, base + 4);
+                long high = readInt(code, base + 8);
+                length = (int) Math.min(Integer.MAX_VALUE, base + 12 + (high - low + 1) * 4 - pc);
+            } else if (op == LOOKUPSWITCH && ((pc + 4) & ~3) + 8 <= code.length) {
+                int base = (pc + 4) & ~3;
+                long pairs = readInt(code, base + 4);
+                length = (int) Math.min(Integer.MAX_VALUE, base + 8 + pairs * 8 - pc);
+            }
+            if (length <= 0 || length > code.length - pc) {
+                throw new IOException("bad instruction " + op + " at " + pc);
+            }
+            if (op == INVOKEVIRTUAL || op == INVOKESPECIAL || op == INVOKESTATIC || op == INVOKEINTERFACE) {
+                int ref = ((code[pc + 1] & 0xff) << 8) | (code[pc + 2] & 0xff);
+                callsByRef.merge(ref, 1, Integer::sum);
+            }
+            pc += length;
+        }
+    }
+
+    private static int readInt(byte[] code, int i) {
+        return ((code[i] & 0xff) << 24) | ((code[i + 1] & 0xff) << 16) | ((code[i + 2] & 0xff) << 8) | (code[i + 3] & 0xff);
+    }
+
+    private static void skipAttributes(DataInputStream in) throws IOException {
+        int attributes = in.readUnsignedShort();
+        for (int a = 0; a < attributes; a++) {
+            in.readUnsignedShort();
+            skip(in, in.readInt() & 0xffffffffL);
+        }
+    }
+
+    private static void skip(DataInputStream in, long bytes) throws IOException {
+        while (bytes > 0) {
+            long skipped = in.skip(bytes);
+            if (skipped <= 0) {
+                in.readByte();
+                skipped = 1;
+            }
+            bytes -= skipped;
+        }
+    }
+}
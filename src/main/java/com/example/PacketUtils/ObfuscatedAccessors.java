@@ -0,0 +1,359 @@
+package com.example.PacketUtils;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Actor;
+import net.runelite.api.Client;
+import net.runelite.api.NPC;
+import net.runelite.client.RuneLite;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Every obfuscated field and method the api reads outside of packet writing, resolved once into a VarHandle or
+//MethodHandle and kept for as long as the client class lives. Multipliers are parsed once and their modular inverses
+//worked out up front, so reads and writes are a handle call and a multiplication. Fields of the actor class are
+//resolved from the first actor that's passed in, everything else on first use or by report().
+@Slf4j
+public class ObfuscatedAccessors {
+    static Client client = RuneLite.getInjector().getInstance(Client.class);
+    private static final MethodType OBJECT_GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final Map<String, String> status = new ConcurrentHashMap<>();
+
+    private static volatile Accessor mouseHandlerLastPressed;
+    private static volatile Accessor clientLastMillis;
+    private static final ClassValue<Accessor> pathLength = new ClassValue<Accessor>() {
+        @Override
+        protected Accessor computeValue(Class<?> type) {
+            return Accessor.resolve("pathLength", type, ObfuscatedNames.pathLengthFieldName,
+                    ObfuscatedNames.pathLengthMultiplier, 32);
+        }
+    };
+    private static final Map<Class<?>, Accessor> animation = new ConcurrentHashMap<>();
+    private static final ClassValue<List<MethodHandle>> headIconArrayMethods = new ClassValue<List<MethodHandle>>() {
+        @Override
+        protected List<MethodHandle> computeValue(Class<?> type) {
+            return headIconMethods(type, short[].class, 0);
+        }
+    };
+    private static final ClassValue<List<MethodHandle>> headIconCompositionMethods = new ClassValue<List<MethodHandle>>() {
+        @Override
+        protected List<MethodHandle> computeValue(Class<?> type) {
+            return headIconMethods(type, short.class, 1);
+        }
+    };
+    private static final ClassValue<List<ArrayPair>> headIconArrayPairs = new ClassValue<List<ArrayPair>>() {
+        @Override
+        protected List<ArrayPair> computeValue(Class<?> type) {
+            return headIconPairs(type);
+        }
+    };
+
+    public static long getMouseHandlerLastMillis() {
+        return mouseHandlerLastPressed().getLong(null);
+    }
+
+    public static void setMouseHandlerLastMillis(long time) {
+        mouseHandlerLastPressed().setLong(null, time);
+    }
+
+    public static long getClientLastMillis() {
+        return clientLastMillis().getLong(client);
+    }
+
+    public static void setClientLastMillis(long time) {
+        clientLastMillis().setLong(client, time);
+    }
+
+    public static int getPathLength(Actor actor) {
+        return (int) pathLength.get(actor.getClass().getSuperclass()).getLong(actor);
+    }
+
+    //-1 when the animation field couldn't be told apart from the other ints on the actor
+    public static int getAnimation(NPC npc) {
+        Class<?> actorClass = npc.getClass().getSuperclass();
+        Accessor accessor = animation.get(actorClass);
+        if (accessor == null) {
+            accessor = findAnimation(npc);
+            if (accessor == null) {
+                return -1;
+            }
+            animation.put(actorClass, accessor);
+        }
+        return (int) accessor.getLong(npc);
+    }
+
+    //two letter methods on the npc class returning the head icon array
+    public static List<MethodHandle> getHeadIconArrayMethods(NPC npc) {
+        return headIconArrayMethods.get(npc.getClass());
+    }
+
+    //methods on the npc composition class returning a single head icon for an index
+    public static List<MethodHandle> getHeadIconCompositionMethods(Object composition) {
+        return headIconCompositionMethods.get(composition.getClass());
+    }
+
+    //pairs of array getters on the types of the class's fields, for the length eight head icon arrays
+    public static List<ArrayPair> getHeadIconArrayPairs(Class<?> type) {
+        return headIconArrayPairs.get(type);
+    }
+
+    //resolves what can be resolved without an actor and returns one line per accessor
+    public static List<String> report() {
+        mouseHandlerLastPressed();
+        clientLastMillis();
+        Map<String, String> sorted = new TreeMap<>(status);
+        sorted.putIfAbsent("pathLength", "not resolved yet, needs an actor");
+        sorted.putIfAbsent("animation", "not resolved yet, needs an npc");
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, String> entry : sorted.entrySet()) {
+            lines.add(entry.getKey() + ": " + entry.getValue());
+        }
+        return lines;
+    }
+
+    public static void logReport() {
+        for (String line : report()) {
+            log.info("obfuscated accessor {}", line);
+        }
+    }
+
+    private static Accessor mouseHandlerLastPressed() {
+        Accessor accessor = mouseHandlerLastPressed;
+        if (accessor == null) {
+            Class<?> mouseHandler = null;
+            try {
+                mouseHandler = client.getClass().getClassLoader().loadClass(ObfuscatedNames.MouseHandler_lastPressedTimeMillisClass);
+            } catch (ClassNotFoundException e) {
+                status.put("mouseHandlerLastPressed", "missing class " + ObfuscatedNames.MouseHandler_lastPressedTimeMillisClass);
+            }
+            accessor = mouseHandler == null ? Accessor.missing("mouseHandlerLastPressed")
+                    : Accessor.resolve("mouseHandlerLastPressed", mouseHandler, ObfuscatedNames.MouseHandler_lastPressedTimeMillisField,
+                    Long.parseLong(ObfuscatedNames.mouseHandlerMillisMultiplier), 64);
+            mouseHandlerLastPressed = accessor;
+        }
+        return accessor;
+    }
+
+    private static Accessor clientLastMillis() {
+        Accessor accessor = clientLastMillis;
+        if (accessor == null) {
+            accessor = Accessor.resolve("clientLastMillis", client.getClass(), ObfuscatedNames.clientMillisField,
+                    Long.parseLong(ObfuscatedNames.clientMillisMultiplier), 64);
+            clientLastMillis = accessor;
+        }
+        return accessor;
+    }
+
+    //the animation field isn't named in the deob, so it's the only non final int that moves when setAnimation is called.
+    //Its multiplier is whatever getAnimation returns once the raw field is set to 1.
+    @SneakyThrows
+    private static synchronized Accessor findAnimation(NPC npc) {
+        Class<?> actorClass = npc.getClass().getSuperclass();
+        Accessor found = animation.get(actorClass);
+        if (found != null) {
+            return found;
+        }
+        Field[] fields = Arrays.stream(actorClass.getDeclaredFields()).filter(x -> x.getType() == int.class && !Modifier.isFinal(x.getModifiers()) && !Modifier.isStatic(x.getModifiers())).toArray(Field[]::new);
+        boolean[] changed = new boolean[fields.length];
+        int[] values = new int[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i].setAccessible(true);
+            values[i] = fields[i].getInt(npc);
+        }
+        int original = npc.getAnimation();
+        Random rand = new Random();
+        for (int i = 0; i < 5; i++) {
+            npc.setAnimation(rand.nextInt(Integer.MAX_VALUE));
+            for (int i1 = 0; i1 < values.length; i1++) {
+                if (values[i1] != fields[i1].getInt(npc)) {
+                    changed[i1] = true;
+                }
+            }
+        }
+        int animationFieldIndex = -1;
+        for (int i = 0; i < changed.length; i++) {
+            if (changed[i]) {
+                if (animationFieldIndex != -1) {
+                    status.put("animation", "more than one field changed with the animation");
+                    npc.setAnimation(original);
+                    return null;
+                }
+                animationFieldIndex = i;
+            }
+        }
+        if (animationFieldIndex == -1) {
+            status.put("animation", "no field changed with the animation");
+            npc.setAnimation(original);
+            return null;
+        }
+        Field field = fields[animationFieldIndex];
+        field.setInt(npc, 1);
+        long multiplier = npc.getAnimation();
+        npc.setAnimation(original);
+        return Accessor.resolve("animation", actorClass, field.getName(), multiplier, 32);
+    }
+
+    private static List<MethodHandle> headIconMethods(Class<?> type, Class<?> returnType, int parameterCount) {
+        List<MethodHandle> handles = new ArrayList<>();
+        for (Method declaredMethod : type.getDeclaredMethods()) {
+            if (declaredMethod.getName().length() != 2 || declaredMethod.getReturnType() != returnType
+                    || declaredMethod.getParameterCount() != parameterCount || Modifier.isStatic(declaredMethod.getModifiers())) {
+                continue;
+            }
+            try {
+                declaredMethod.setAccessible(true);
+                handles.add(MethodHandles.lookup().unreflect(declaredMethod));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                log.debug("head icon candidate {} not usable", declaredMethod, e);
+            }
+        }
+        status.put("headIcon " + type.getSimpleName() + " " + returnType.getSimpleName(), handles.size() + " candidates");
+        return Collections.unmodifiableList(handles);
+    }
+
+    private static List<ArrayPair> headIconPairs(Class<?> type) {
+        List<ArrayPair> pairs = new ArrayList<>();
+        for (Field declaredField : type.getDeclaredFields()) {
+            Field[] decFields = declaredField.getType().getDeclaredFields();
+            if (decFields.length != 2 || !decFields[0].getType().isArray() || !decFields[1].getType().isArray()) {
+                continue;
+            }
+            try {
+                pairs.add(new ArrayPair(getter(decFields[0]), getter(decFields[1]), decFields[0].getType()));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                log.debug("head icon arrays on {} not usable", declaredField.getType(), e);
+            }
+        }
+        status.put("headIcon arrays " + type.getSimpleName(), pairs.size() + " candidates");
+        return Collections.unmodifiableList(pairs);
+    }
+
+    //(Object)Object whether the field is static or not, the argument is ignored for static fields
+    private static MethodHandle getter(Field field) throws IllegalAccessException {
+        field.setAccessible(true);
+        MethodHandle getter = MethodHandles.lookup().unreflectGetter(field);
+        if (Modifier.isStatic(field.getModifiers())) {
+            return MethodHandles.dropArguments(getter.asType(MethodType.methodType(Object.class)), 0, Object.class);
+        }
+        return getter.asType(OBJECT_GETTER);
+    }
+
+    static long inverse(long multiplier, int bits) {
+        try {
+            return BigInteger.valueOf(multiplier).modInverse(BigInteger.ONE.shiftLeft(bits)).longValue();
+        } catch (ArithmeticException e) {
+            return multiplier;
+        }
+    }
+
+    //the getters return Object, so the first field's declared type is kept to tell which array holds the icons
+    public static final class ArrayPair {
+        private final MethodHandle first;
+        private final MethodHandle second;
+        private final Class<?> firstType;
+
+        private ArrayPair(MethodHandle first, MethodHandle second, Class<?> firstType) {
+            this.first = first;
+            this.second = second;
+            this.firstType = firstType;
+        }
+
+        public MethodHandle getFirst() {
+            return first;
+        }
+
+        public MethodHandle getSecond() {
+            return second;
+        }
+
+        public Class<?> getFirstType() {
+            return firstType;
+        }
+    }
+
+    //an int or long field with its multiplier, int fields wrap to 32 bits like the client does
+    static final class Accessor {
+        private final String name;
+        private final VarHandle handle;
+        private final boolean isStatic;
+        private final boolean isInt;
+        private final long multiplier;
+        private final long inverse;
+
+        private Accessor(String name, VarHandle handle, boolean isStatic, boolean isInt, long multiplier, long inverse) {
+            this.name = name;
+            this.handle = handle;
+            this.isStatic = isStatic;
+            this.isInt = isInt;
+            this.multiplier = multiplier;
+            this.inverse = inverse;
+        }
+
+        static Accessor missing(String name) {
+            return new Accessor(name, null, false, false, 0, 0);
+        }
+
+        static Accessor resolve(String name, Class<?> owner, String fieldName, long multiplier, int bits) {
+            try {
+                Field field = owner.getDeclaredField(fieldName);
+                field.setAccessible(true);
+                VarHandle handle = MethodHandles.lookup().unreflectVarHandle(field);
+                boolean isInt = field.getType() == int.class;
+                if (!isInt && field.getType() != long.class) {
+                    status.put(name, owner.getName() + "." + fieldName + " is a " + field.getType().getName());
+                    return missing(name);
+                }
+                long inverse = inverse(multiplier, isInt ? 32 : bits);
+                status.put(name, "ok " + owner.getName() + "." + fieldName + " * " + multiplier);
+                return new Accessor(name, handle, Modifier.isStatic(field.getModifiers()), isInt, multiplier, inverse);
+            } catch (NoSuchFieldException e) {
+                status.put(name, "missing field " + owner.getName() + "." + fieldName);
+            } catch (IllegalAccessException | RuntimeException e) {
+                status.put(name, "inaccessible " + owner.getName() + "." + fieldName + ": " + e);
+            }
+            return missing(name);
+        }
+
+        long getLong(Object owner) {
+            if (handle == null) {
+                throw new IllegalStateException(name + " is not resolved: " + status.get(name));
+            }
+            if (isInt) {
+                int raw = isStatic ? (int) handle.get() : (int) handle.get(owner);
+                return (int) (raw * multiplier);
+            }
+            long raw = isStatic ? (long) handle.get() : (long) handle.get(owner);
+            return raw * multiplier;
+        }
+
+        void setLong(Object owner, long value) {
+            if (handle == null) {
+                throw new IllegalStateException(name + " is not resolved: " + status.get(name));
+            }
+            if (isInt) {
+                int raw = (int) (value * inverse);
+                if (isStatic) {
+                    handle.set(raw);
+                } else {
+                    handle.set(owner, raw);
+                }
+                return;
+            }
+            long raw = value * inverse;
+            if (isStatic) {
+                handle.set(raw);
+            } else {
+                handle.set(owner, raw);
+            }
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.PacketUtils;
+
+import com.example.EthanApiPlugin.Profiling.Histogram;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+//Per packet type counts, bytes written, encode time and failures for PacketReflection.sendPacket. Off by default, when
+//it's off start() returns 0 and nothing is timed or counted, so the packet path pays a volatile read. Failures are
+//always counted since they're rare and worth knowing about either way. Readable through snapshot() or JMX under
+//com.example.PacketUtils:type=PacketMetrics.
+@Slf4j
+public class PacketMetrics implements PacketMetricsMXBean {
+    private static final String OBJECT_NAME = "com.example.PacketUtils:type=PacketMetrics";
+    private static final PacketMetrics INSTANCE = new PacketMetrics();
+    private static volatile boolean enabled = false;
+    private static final TypeStats[] stats = new TypeStats[PacketType.values().length];
+    //failures from addNode calls that didn't come through sendPacket
+    private static final TypeStats untyped = new TypeStats(null);
+
+    static {
+        for (PacketType type : PacketType.values()) {
+            stats[type.ordinal()] = new TypeStats(type);
+        }
+    }
+
+    public static boolean enabled() {
+        return enabled;
+    }
+
+    public static void enable(boolean on) {
+        enabled = on;
+    }
+
+    //timestamp to hand to stop(), 0 while disabled
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    //nanos since start(), -1 when it wasn't started
+    public static long stop(long start) {
+        return start == 0 ? -1 : System.nanoTime() - start;
+    }
+
+    public static void sent(PacketType type, long encodeNanos, int bytes) {
+        if (encodeNanos < 0 || !enabled) {
+            return;
+        }
+        TypeStats s = of(type);
+        s.encodeNanos.record(encodeNanos);
+        s.count.increment();
+        if (bytes > 0) {
+            s.bytes.add(bytes);
+        }
+    }
+
+    public static void failed(PacketType type, Throwable e) {
+        Throwable cause = e;
+        //reflection wraps what the client threw
+        while (cause.getCause() != null && (cause instanceof java.lang.reflect.InvocationTargetException
+                || cause instanceof java.lang.reflect.UndeclaredThrowableException)) {
+            cause = cause.getCause();
+        }
+        of(type).failures.computeIfAbsent(cause.getClass().getName(), k -> new LongAdder()).increment();
+        log.warn("packet {} failed", type == null ? "addNode" : type, e);
+    }
+
+    private static TypeStats of(PacketType type) {
+        return type == null ? untyped : stats[type.ordinal()];
+    }
+
+    public static List<TypeSnapshot> snapshot() {
+        List<TypeSnapshot> snapshots = new ArrayList<>();
+        for (TypeStats s : stats) {
+            if (s.count.sum() > 0 || !s.failures.isEmpty()) {
+                snapshots.add(s.snapshot());
+            }
+        }
+        if (!untyped.failures.isEmpty()) {
+            snapshots.add(untyped.snapshot());
+        }
+        return snapshots;
+    }
+
+    public static void resetAll() {
+        for (TypeStats s : stats) {
+            s.reset();
+        }
+        untyped.reset();
+    }
+
+    public static void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (Exception e) {
+            log.warn("couldn't register packet metrics mbean", e);
+        }
+    }
+
+    public static void unregister() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (Exception e) {
+            log.warn("couldn't unregister packet metrics mbean", e);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean on) {
+        enable(on);
+    }
+
+    @Override
+    public Map<String, Long> getPacketCounts() {
+        return byType(TypeSnapshot::getCount);
+    }
+
+    @Override
+    public Map<String, Long> getBytesWritten() {
+        return byType(TypeSnapshot::getBytes);
+    }
+
+    @Override
+    public Map<String, Long> getEncodeP50Nanos() {
+        return byType(s -> s.getEncodeNanos().getP50());
+    }
+
+    @Override
+    public Map<String, Long> getEncodeP99Nanos() {
+        return byType(s -> s.getEncodeNanos().getP99());
+    }
+
+    @Override
+    public Map<String, Long> getEncodeMaxNanos() {
+        return byType(s -> s.getEncodeNanos().getMax());
+    }
+
+    @Override
+    public Map<String, Long> getFailures() {
+        Map<String, Long> failures = new TreeMap<>();
+        for (TypeSnapshot s : snapshot()) {
+            for (Map.Entry<String, Long> entry : s.getFailures().entrySet()) {
+                failures.put(s.getName() + " " + entry.getKey(), entry.getValue());
+            }
+        }
+        return failures;
+    }
+
+    @Override
+    public void reset() {
+        resetAll();
+    }
+
+    private static Map<String, Long> byType(ToLongFunction<TypeSnapshot> value) {
+        Map<String, Long> map = new TreeMap<>();
+        for (TypeSnapshot s : snapshot()) {
+            map.put(s.getName(), value.applyAsLong(s));
+        }
+        return map;
+    }
+
+    private static class TypeStats {
+        private final PacketType type;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final Histogram encodeNanos = new Histogram();
+        private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+        TypeStats(PacketType type) {
+            this.type = type;
+        }
+
+        TypeSnapshot snapshot() {
+            Map<String, Long> failed = new TreeMap<>();
+            failures.forEach((k, v) -> failed.put(k, v.sum()));
+            return new TypeSnapshot(type, count.sum(), bytes.sum(), encodeNanos.snapshot(), failed);
+        }
+
+        void reset() {
+            count.reset();
+            bytes.reset();
+            encodeNanos.reset();
+            failures.clear();
+        }
+    }
+
+    public static class TypeSnapshot {
+        private final PacketType type;
+        private final long count;
+        private final long bytes;
+        private final Histogram.Snapshot encodeNanos;
+        private final Map<String, Long> failures;
+
+        TypeSnapshot(PacketType type, long count, long bytes, Histogram.Snapshot encodeNanos, Map<String, Long> failures) {
+            this.type = type;
+            this.count = count;
+            this.bytes = bytes;
+            this.encodeNanos = encodeNanos;
+            this.failures = Collections.unmodifiableMap(failures);
+        }
+
+        //null for addNode failures outside sendPacket
+        public PacketType getType() {
+            return type;
+        }
+
+        public String getName() {
+            return type == null ? "addNode" : type.name();
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public Histogram.Snapshot getEncodeNanos() {
+            return encodeNanos;
+        }
+
+        public Map<String, Long> getFailures() {
+            return failures;
+        }
+
+        @Override
+        public String toString() {
+            return getName() + " count=" + count + " bytes=" + bytes + " encodeNanos[" + encodeNanos + "] failures=" + failures;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.PacketUtils;
+
+import java.util.Map;
+
+//What PacketMetrics exposes over JMX, maps are keyed by packet type name
+public interface PacketMetricsMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    Map<String, Long> getPacketCounts();
+
+    Map<String, Long> getBytesWritten();
+
+    Map<String, Long> getEncodeP50Nanos();
+
+    Map<String, Long> getEncodeP99Nanos();
+
+    Map<String, Long> getEncodeMaxNanos();
+
+    //"<type> <exception class>" to count
+    Map<String, Long> getFailures();
+
+    void reset();
+}
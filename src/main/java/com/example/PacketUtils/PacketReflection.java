@@ -1,5 +1,6 @@
 package com.example.PacketUtils;
 
+import com.example.EthanApiPlugin.Profiling.SendPacketEvent;
 import com.example.Packets.BufferMethods;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
@@ -11,10 +12,20 @@ import java.lang.reflect.Method;
 import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Slf4j
 public class PacketReflection {
+    //resolved on first use and kept, the client's classes don't change while it runs. The cached members are made
+    //accessible once here, callers sharing them mustn't turn that off again
+    private static volatile Method getPacketBufferNode = null;
+    private static volatile Field packetWriterField = null;
+    private static volatile Field isaacField = null;
+    private static volatile Class clientPacketClass = null;
+    private static final Map<String, Field> packetFields = new ConcurrentHashMap<>();
+
     public static Client getClient(){
         return RuneLite.getInjector().getInstance(Client.class);
     }
@@ -31,19 +42,38 @@ public class PacketReflection {
         return loadClassFromClientClassLoader(ObfuscatedNames.classContainingGetPacketBufferNodeName);
     }
     public static Method getGetPacketBufferNode(){
+        Method method = getPacketBufferNode;
+        if (method != null) {
+            return method;
+        }
         try {
-            return Arrays.stream(getClassWithGetPacketBufferNode().getDeclaredMethods()).filter(m -> m.getReturnType().equals(getPacketBufferNodeClass())).collect(Collectors.toList()).get(0);
+            method = Arrays.stream(getClassWithGetPacketBufferNode().getDeclaredMethods()).filter(m -> m.getReturnType().equals(getPacketBufferNodeClass())).collect(Collectors.toList()).get(0);
+            method.setAccessible(true);
+            getPacketBufferNode = method;
+            return method;
         } catch (Exception e) {
             e.printStackTrace();
         }
         return null;
     }
     public static Class getClientPacketClass(){
-        return loadClassFromClientClassLoader(ObfuscatedNames.clientPacketClassName);
+        Class type = clientPacketClass;
+        if (type == null) {
+            type = loadClassFromClientClassLoader(ObfuscatedNames.clientPacketClassName);
+            clientPacketClass = type;
+        }
+        return type;
     }
     public static Field getPacketWriterField() {
+        Field field = packetWriterField;
+        if (field != null) {
+            return field;
+        }
         try {
-            return getClient().getClass().getDeclaredField(ObfuscatedNames.packetWriterFieldName);
+            field = getClient().getClass().getDeclaredField(ObfuscatedNames.packetWriterFieldName);
+            field.setAccessible(true);
+            packetWriterField = field;
+            return field;
         } catch (NoSuchFieldException e) {
             e.printStackTrace();
         }
@@ -51,24 +81,31 @@ public class PacketReflection {
     }
     public static Class getPacketWriterClass(){
         try {
-            Field packetWriterField = getPacketWriterField();
-            packetWriterField.setAccessible(true);
-            Class packetWriterClass = packetWriterField.get(null).getClass();
-            packetWriterField.setAccessible(false);
-            return packetWriterClass;
+            return getPacketWriterField().get(null).getClass();
         } catch (IllegalAccessException e) {
             e.printStackTrace();
         }
         return null;
     }
+    public static Field getIsaacField() {
+        Field field = isaacField;
+        if (field != null) {
+            return field;
+        }
+        try {
+            field = getPacketWriterClass().getDeclaredField(ObfuscatedNames.isaacCipherFieldName);
+            field.setAccessible(true);
+            isaacField = field;
+            return field;
+        } catch (NoSuchFieldException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
     public static Object getIsaacObject(){
         try {
-            Field isaacField = getPacketWriterClass().getDeclaredField(ObfuscatedNames.isaacCipherFieldName);
-            isaacField.setAccessible(true);
-            Object isaacObject = isaacField.get(getPacketWriteObject());
-            isaacField.setAccessible(false);
-            return isaacObject;
-        } catch (NoSuchFieldException | IllegalAccessException e) {
+            return getIsaacField().get(getPacketWriteObject());
+        } catch (IllegalAccessException e) {
             e.printStackTrace();
         }
         return null;
@@ -80,12 +117,8 @@ public class PacketReflection {
         return loadClassFromClientClassLoader(ObfuscatedNames.packetBufferNodeClassName);
     }
     public static Object getPacketWriteObject(){
-        Field packetWriterField = getPacketWriterField();
-        packetWriterField.setAccessible(true);
         try {
-            Object packetWriter = packetWriterField.get(null);
-            packetWriterField.setAccessible(false);
-            return packetWriter;
+            return getPacketWriterField().get(null);
         } catch (IllegalAccessException e) {
             e.printStackTrace();
         }
@@ -94,18 +127,32 @@ public class PacketReflection {
 
 
     public static void sendPacket(PacketDef def, Object... objects) {
+        SendPacketEvent event = new SendPacketEvent();
+        event.begin();
+        try {
+            send(def, event, objects);
+        } finally {
+            //succeeded is only set once addNode went through, every other way out records a failed send
+            if (event.shouldCommit()) {
+                event.packetType = def.type.name();
+                event.commit();
+            }
+        }
+    }
+
+    private static void send(PacketDef def, SendPacketEvent event, Object... objects) {
+        long start = PacketMetrics.start();
         Object packetBufferNode = null;
         Method getPacketBufferNode = getGetPacketBufferNode();
         Class ClientPacket = getClientPacketClass();
         Object isaac = getIsaacObject();
-        getPacketBufferNode.setAccessible(true);
         long garbageValue = Math.abs(Long.parseLong(ObfuscatedNames.getPacketBufferNodeGarbageValue));
         if (garbageValue < 256) {
             try {
                 packetBufferNode = getPacketBufferNode.invoke(null, fetchPacketField(def.name).get(ClientPacket),
                         isaac, Byte.parseByte(ObfuscatedNames.getPacketBufferNodeGarbageValue));
             } catch (IllegalAccessException | InvocationTargetException e) {
-                e.printStackTrace();
+                PacketMetrics.failed(def.type, e);
             }
         } else if (garbageValue < 32768) {
             try {
@@ -115,23 +162,27 @@ public class PacketReflection {
                         isaac, Short.parseShort(ObfuscatedNames.getPacketBufferNodeGarbageValue));
                 //System.out.println("packetBufferNode: "+packetBufferNode);
             } catch (IllegalAccessException | InvocationTargetException e) {
-                e.printStackTrace();
+                PacketMetrics.failed(def.type, e);
             }
         } else if (garbageValue < Integer.MAX_VALUE) {
             try {
                 packetBufferNode = getPacketBufferNode.invoke(null, fetchPacketField(def.name).get(ClientPacket),
                         isaac, Integer.parseInt(ObfuscatedNames.getPacketBufferNodeGarbageValue));
             } catch (IllegalAccessException | InvocationTargetException e) {
-                e.printStackTrace();
+                PacketMetrics.failed(def.type, e);
             }
         }
+        if (packetBufferNode == null) {
+            //already counted as a failure above
+            return;
+        }
         Object buffer = null;
         try {
             buffer = packetBufferNode.getClass().getDeclaredField(ObfuscatedNames.packetBufferFieldName).get(packetBufferNode);
         } catch (IllegalAccessException | NoSuchFieldException e) {
-            e.printStackTrace();
+            PacketMetrics.failed(def.type, e);
+            return;
         }
-        getPacketBufferNode.setAccessible(false);
         List<String> params = null;
         if (def.type == PacketType.SET_HEADING) {
             params = List.of("direction");
@@ -210,20 +261,33 @@ public class PacketReflection {
                     BufferMethods.writeValue(s, (Integer) writeValue, buffer);
                 }
             }
+            //encode time is everything up to handing the node over, bytes are the buffer offset after the writes
+            long encodeNanos = PacketMetrics.stop(start);
+            int bytes = encodeNanos >= 0 ? BufferMethods.getOffset(buffer) : 0;
             Field PACKETWRITER = getPacketWriterField();
-            PACKETWRITER.setAccessible(true);
             try {
                 //System.out.println(PACKETWRITER);
                 //System.out.println(PACKETWRITER.get(null));
-                addNode(PACKETWRITER.get(null), packetBufferNode);
+                boolean added = addNode(def.type, PACKETWRITER.get(null), packetBufferNode);
+                if (added) {
+                    PacketMetrics.sent(def.type, encodeNanos, bytes);
+                }
+                if (event.isEnabled()) {
+                    event.bytes = encodeNanos >= 0 ? bytes : BufferMethods.getOffset(buffer);
+                    event.succeeded = added;
+                }
             } catch (Exception e) {
-                e.printStackTrace();
+                PacketMetrics.failed(def.type, e);
             }
-            PACKETWRITER.setAccessible(false);
         }
     }
 
     public static void addNode(Object packetWriter, Object packetBufferNode) {
+        addNode(null, packetWriter, packetBufferNode);
+    }
+
+    //false when the client call failed, the failure is recorded against type
+    static boolean addNode(PacketType type, Object packetWriter, Object packetBufferNode) {
         if (PacketUtilsPlugin.usingClientAddNode) {
             try {
                 Method addNode = null;
@@ -246,7 +310,8 @@ public class PacketReflection {
                     addNode.setAccessible(false);
                 }
             } catch (Exception e) {
-                e.printStackTrace();
+                PacketMetrics.failed(type, e);
+                return false;
             }
         } else {
             try {
@@ -266,16 +331,24 @@ public class PacketReflection {
                 }
                 addNode.setAccessible(false);
             } catch (Exception e) {
-                e.printStackTrace();
+                PacketMetrics.failed(type, e);
+                return false;
             }
         }
+        return true;
     }
 
 
     static Field fetchPacketField(String name) {
+        Field field = packetFields.get(name);
+        if (field != null) {
+            return field;
+        }
         try {
             Class ClientPacket = getClientPacketClass();
-            return ClientPacket.getDeclaredField(name);
+            field = ClientPacket.getDeclaredField(name);
+            packetFields.put(name, field);
+            return field;
         } catch (NoSuchFieldException e) {
             e.printStackTrace();
             return null;
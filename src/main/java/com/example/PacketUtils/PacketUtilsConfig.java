@@ -24,4 +24,13 @@ public interface PacketUtilsConfig extends Config {
         return false;
     }
 
+    @ConfigItem(
+            keyName = "metrics",
+            name = "Packet metrics",
+            description = "Record per packet type counts, bytes and encode times, readable over JMX"
+    )
+    default boolean metrics() {
+        return false;
+    }
+
 }
\ No newline at end of file
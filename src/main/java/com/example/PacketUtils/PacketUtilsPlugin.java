@@ -7,6 +7,7 @@ import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
 import net.runelite.api.events.MenuOptionClicked;
+import net.runelite.client.events.ConfigChanged;
 import net.runelite.client.RuneLite;
 import net.runelite.client.RuneLiteProperties;
 import net.runelite.client.config.ConfigManager;
@@ -15,7 +16,6 @@ import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.plugins.PluginInstantiationException;
 import net.runelite.client.plugins.PluginManager;
-import org.benf.cfr.reader.Main;
 
 import javax.inject.Inject;
 import javax.swing.*;
@@ -29,8 +29,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.*;
-import java.util.jar.JarFile;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Singleton
@@ -66,6 +64,13 @@ public class PacketUtilsPlugin extends Plugin {
         }
     }
 
+    @Subscribe
+    public void onConfigChanged(ConfigChanged e) {
+        if (e.getGroup().equals("PacketUtils") && e.getKey().equals("metrics")) {
+            PacketMetrics.enable(config.metrics());
+        }
+    }
+
 
     @Override
     @SneakyThrows
@@ -97,6 +102,9 @@ public class PacketUtilsPlugin extends Plugin {
         }
         setupRuneliteUpdateHandling(RuneLiteProperties.getVersion());
         cleanup();
+        ObfuscatedAccessors.logReport();
+        PacketMetrics.enable(config.metrics());
+        PacketMetrics.register();
         SwingUtilities.invokeLater(() ->
         {
             for (Plugin plugin : pluginManager.getPlugins()) {
@@ -184,29 +192,11 @@ public class PacketUtilsPlugin extends Plugin {
             log.info("addNodeMethod: " + addNodeMethod);
             return;
         }
-        String doActionClassName = ObfuscatedNames.doActionClassName;
-        String doActionMethodName = ObfuscatedNames.doActionMethodName;
-        System.out.print("finished");
-        final String doActionFinalClassName = doActionClassName;
-        final String doActionFinalMethodName = doActionMethodName;
-        System.out.println(doActionFinalClassName);
-        System.out.println(doActionFinalMethodName);
-        URL rlConfigURL = new URL("https://static.runelite.net/jav_config.ws");
+        long start = System.nanoTime();
         if (!codeSource.toFile().isDirectory()) {
             Files.createDirectory(codeSource);
         }
-        Path vanillaOutputPath = codeSource.resolve("vanilla.jar");
         Path patchedOutputPath = codeSource.resolve("patched.jar");
-        Path doActionOutputPath = codeSource.resolve("doAction.class");
-        Path decompilationOutputPath = codeSource.resolve("decompiled.txt");
-        System.out.println("Downloading vanilla client");
-        downloadVanillaJar(vanillaOutputPath, rlConfigURL);
-        File vanilla = vanillaOutputPath.toFile();
-        if (vanilla.exists()) {
-            log.info("Vanilla jar exists");
-        } else {
-            log.info("Vanilla jar does not exist");
-        }
 
         if (version.contains("SNAPSHOT")) {
             log.info("replacing snapshot version");
@@ -227,94 +217,43 @@ public class PacketUtilsPlugin extends Plugin {
             System.out.println("unsupported rl version");
             throw new UnsupportedOperationException("unsupported rl version");
         }
-        System.out.println(doActionFinalClassName);
-        try (JarFile patchedJar = new JarFile(patchedOutputPath.toFile())) {
-            patchedJar.entries().asIterator().forEachRemaining(jarEntry -> {
-                //System.out.println("jar entry: " + jarEntry.getName());
-                if (jarEntry.getName().equals(doActionFinalClassName + ".class")) {
-                    try (InputStream inputStream = patchedJar.getInputStream(jarEntry)) {
-                        Files.copy(inputStream, doActionOutputPath, StandardCopyOption.REPLACE_EXISTING);
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                    }
-                }
-            });
+        long downloaded = System.nanoTime();
+        AddNodeScanner.Result addNode;
+        try {
+            addNode = AddNodeScanner.scan(patchedOutputPath, ObfuscatedNames.doActionClassName,
+                    ObfuscatedNames.doActionMethodName, ObfuscatedNames.packetWriterClassName,
+                    ObfuscatedNames.packetBufferNodeClassName);
+        } finally {
+            Files.deleteIfExists(patchedOutputPath);
         }
-        OutputStream decompilationOutputStream = Files.newOutputStream(decompilationOutputPath);
-        PrintStream s = new PrintStream(decompilationOutputStream);
-        System.setOut(s);
-        Main.main(new String[]{doActionOutputPath.toAbsolutePath().toString(), "--methodname", doActionFinalMethodName});
-        s.flush();
-        s.close();
-        decompilationOutputStream.close();
-        System.setOut(new PrintStream(new FileOutputStream(FileDescriptor.out)));
-        File output = decompilationOutputPath.toFile();
-        BufferedReader reader = new BufferedReader(new FileReader(output));
-        List<String> lines = reader.lines().collect(Collectors.toList());
-        String previousLine = null;
-        ArrayList<String> methodCalls = new ArrayList<>();
-        for (String line : lines) {
-            System.out.println(line);
-            if (line.length() < 300) {
-                if (line.contains("}")) {
-                    if (previousLine != null && previousLine.contains("(")) {
-                        methodCalls.add(previousLine.split("\\(")[0].trim());
-                    }
-                }
-                previousLine = line;
-            }
+        if (addNode == null) {
+            log.error("no addNode call found in " + ObfuscatedNames.doActionClassName + "." + ObfuscatedNames.doActionMethodName);
+            return;
         }
-        reader.close();
-        String mostUsedMethod = methodCalls.stream()
-                .filter(str -> !str.contains("** while"))
-                .collect(Collectors.groupingBy(str -> str, Collectors.counting()))
-                .entrySet().stream().min(Map.Entry.comparingByValue(Comparator.reverseOrder()))
-                .get().getKey();
-        if (mostUsedMethod.contains("client")) {
+        log.info("found addNode call " + addNode + " in " + (System.nanoTime() - downloaded) / 1_000_000 + "ms, "
+                + (System.nanoTime() - start) / 1_000_000 + "ms including the download");
+        if (addNode.isClientAddNode()) {
             usingClientAddNode = true;
         } else {
-            String[] split = mostUsedMethod.split("\\.");
-            Class<?> addNodeClassName = client.getClass().getClassLoader().loadClass(split[0]);
+            Class<?> addNodeClassName = client.getClass().getClassLoader().loadClass(addNode.getOwner().replace('/', '.'));
             for (Method declaredMethod : addNodeClassName.getDeclaredMethods()) {
-                if (declaredMethod.getName().equals(split[1]) && declaredMethod.getParameterTypes().length != 0
+                if (declaredMethod.getName().equals(addNode.getName()) && declaredMethod.getParameterTypes().length != 0
                         && declaredMethod.getParameterTypes()[0].getSimpleName().equals(ObfuscatedNames.packetWriterClassName)) {
                     addNodeMethod = declaredMethod;
                 }
             }
         }
-        for (String line : lines) {
-            if (line.contains(mostUsedMethod)) {
-                log.info("found addNode method call example " + line.trim());
-                String stringOutput = usingClientAddNode +
-                        "\n" +
-                        mostUsedMethod;
-                Path config = Files.write(Files.createFile(codeSource.resolve(version + "-" + client.getRevision() + ".txt")), stringOutput.getBytes(StandardCharsets.UTF_8));
-                loadedConfigName = config.getFileName().toString();
-                break;
-            }
-        }
-    }
-
-    public static void downloadVanillaJar(Path vanillaOutputPath, URL rlConfigURL) throws IOException {
-        BufferedReader configReader = new BufferedReader(new InputStreamReader(rlConfigURL.openConnection().getInputStream()));
-        while (configReader.ready()) {
-            String line = configReader.readLine();
-            if (line == null) {
-                continue;
-            }
-            if (line.contains("runelite.gamepack")) {
-                URL clientURL = new URL(line.split("=")[1]);
-                log.info("Downloading vanilla client from " + clientURL);
-                try (InputStream clientStream = clientURL.openStream()) {
-                    Files.copy(clientStream, vanillaOutputPath, StandardCopyOption.REPLACE_EXISTING);
-                }
-            }
-        }
-        configReader.close();
+        String stringOutput = usingClientAddNode +
+                "\n" +
+                addNode.toConfigLine();
+        Path config = Files.write(codeSource.resolve(version + "-" + client.getRevision() + ".txt"), stringOutput.getBytes(StandardCharsets.UTF_8));
+        loadedConfigName = config.getFileName().toString();
     }
 
     @Override
     public void shutDown() {
+        PacketMetrics.enable(false);
+        PacketMetrics.unregister();
         log.info("Shutdown");
     }
 
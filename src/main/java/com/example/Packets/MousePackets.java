@@ -1,6 +1,6 @@
 package com.example.Packets;
 
-import com.example.PacketUtils.ObfuscatedNames;
+import com.example.PacketUtils.ObfuscatedAccessors;
 import com.example.PacketUtils.PacketDef;
 import com.example.PacketUtils.PacketReflection;
 import lombok.SneakyThrows;
@@ -8,8 +8,6 @@ import net.runelite.api.Client;
 import net.runelite.client.RuneLite;
 
 import java.awt.event.KeyEvent;
-import java.lang.reflect.Field;
-import java.math.BigInteger;
 import java.util.Random;
 import java.util.concurrent.Executors;
 
@@ -20,19 +18,6 @@ public class MousePackets{
     static Client client = RuneLite.getInjector().getInstance(Client.class);
     private static final Random random = new Random();
     private static long randomDelay = randomDelay();
-    public static BigInteger modInverse(BigInteger val, int bits) {
-        try {
-            BigInteger shift = BigInteger.ONE.shiftLeft(bits);
-            return val.modInverse(shift);
-        } catch (ArithmeticException e) {
-            return val;
-        }
-    }
-
-    public static long modInverse(long val) {
-        return modInverse(BigInteger.valueOf(val), 64).longValue();
-    }
-
     @SneakyThrows
     public static void queueClickPacket(int x, int y) {
         long mouseHandlerMS = System.currentTimeMillis();
@@ -87,39 +72,19 @@ public class MousePackets{
         KeyEvent keyTyped = new KeyEvent(client.getCanvas(), KeyEvent.KEY_TYPED, System.currentTimeMillis(), 0, KeyEvent.VK_UNDEFINED);
         client.getCanvas().dispatchEvent(keyTyped);
     }
-    @SneakyThrows
     public static long getMouseHandlerLastMillis() {
-        Class<?> mouseHandler = client.getClass().getClassLoader().loadClass(ObfuscatedNames.MouseHandler_lastPressedTimeMillisClass);
-        Field mouseHandlerLastPressedTime = mouseHandler.getDeclaredField(ObfuscatedNames.MouseHandler_lastPressedTimeMillisField);
-        mouseHandlerLastPressedTime.setAccessible(true);
-        long retValue = mouseHandlerLastPressedTime.getLong(null) * Long.parseLong(ObfuscatedNames.mouseHandlerMillisMultiplier);
-        mouseHandlerLastPressedTime.setAccessible(false);
-        return retValue;
+        return ObfuscatedAccessors.getMouseHandlerLastMillis();
     }
 
-    @SneakyThrows
     public static long getClientLastMillis() {
-        Field clientLastPressedTimeMillis = client.getClass().getDeclaredField(ObfuscatedNames.clientMillisField);
-        clientLastPressedTimeMillis.setAccessible(true);
-        long retValue = clientLastPressedTimeMillis.getLong(client) * Long.parseLong(ObfuscatedNames.clientMillisMultiplier);
-        clientLastPressedTimeMillis.setAccessible(false);
-        return retValue;
+        return ObfuscatedAccessors.getClientLastMillis();
     }
 
-    @SneakyThrows
     public static void setMouseHandlerLastMillis(long time) {
-        Class<?> mouseHandler = client.getClass().getClassLoader().loadClass(ObfuscatedNames.MouseHandler_lastPressedTimeMillisClass);
-        Field mouseHandlerLastPressedTime = mouseHandler.getDeclaredField(ObfuscatedNames.MouseHandler_lastPressedTimeMillisField);
-        mouseHandlerLastPressedTime.setAccessible(true);
-        mouseHandlerLastPressedTime.setLong(null, time * modInverse(Long.parseLong(ObfuscatedNames.mouseHandlerMillisMultiplier)));
-        mouseHandlerLastPressedTime.setAccessible(false);
+        ObfuscatedAccessors.setMouseHandlerLastMillis(time);
     }
 
-    @SneakyThrows
     public static void setClientLastMillis(long time) {
-        Field clientLastPressedTimeMillis = client.getClass().getDeclaredField(ObfuscatedNames.clientMillisField);
-        clientLastPressedTimeMillis.setAccessible(true);
-        clientLastPressedTimeMillis.setLong(client, time * modInverse(Long.parseLong(ObfuscatedNames.clientMillisMultiplier)));
-        clientLastPressedTimeMillis.setAccessible(false);
+        ObfuscatedAccessors.setClientLastMillis(time);
     }
 }
\ No newline at end of file
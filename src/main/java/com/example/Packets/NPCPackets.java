@@ -1,17 +1,12 @@
 package com.example.Packets;
 
-import com.example.EthanApiPlugin.Collections.query.NPCQuery;
+import com.example.EthanApiPlugin.Collections.ActionIndex;
 import com.example.PacketUtils.PacketDef;
 import com.example.PacketUtils.PacketReflection;
 import lombok.SneakyThrows;
 import net.runelite.api.NPC;
-import net.runelite.api.NPCComposition;
 import net.runelite.api.widgets.Widget;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Collectors;
-
 public class NPCPackets {
 
     @SneakyThrows
@@ -41,27 +36,11 @@ public class NPCPackets {
         if (npc == null) {
             return;
         }
-        NPCComposition comp = NPCQuery.getNPCComposition(npc);
-        if (comp == null) {
-            return;
-        }
-        if (comp.getActions() == null) {
+        ActionIndex.Actions actions = ActionIndex.npc(npc);
+        if (actions == null) {
             return;
         }
-        List<String> actions = Arrays.stream(comp.getActions()).collect(Collectors.toList());
-        for (int i = 0; i < actions.size(); i++) {
-            if (actions.get(i) == null)
-                continue;
-            actions.set(i, actions.get(i).toLowerCase());
-        }
-        int num = -1;
-        for (String action : actions) {
-            for (String action2 : actionList) {
-                if (action != null && action.equalsIgnoreCase(action2)) {
-                    num = actions.indexOf(action.toLowerCase()) + 1;
-                }
-            }
-        }
+        int num = actions.op(actionList);
 
         if (num < 1 || num > 10) {
             return;
@@ -1,21 +1,16 @@
 package com.example.Packets;
 
-import com.example.EthanApiPlugin.Collections.query.TileObjectQuery;
+import com.example.EthanApiPlugin.Collections.ActionIndex;
 import com.example.PacketUtils.PacketDef;
 import com.example.PacketUtils.PacketReflection;
 import lombok.SneakyThrows;
 import net.runelite.api.GameObject;
-import net.runelite.api.ObjectComposition;
 import net.runelite.api.Point;
 import net.runelite.api.TileObject;
 import net.runelite.api.coords.LocalPoint;
 import net.runelite.api.coords.WorldPoint;
 import net.runelite.api.widgets.Widget;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Collectors;
-
 public class ObjectPackets {
     @SneakyThrows
     public static void queueObjectAction(int actionFieldNo, int objectId, int worldPointX, int worldPointY,
@@ -45,19 +40,14 @@ public class ObjectPackets {
         if (object == null) {
             return;
         }
-        ObjectComposition comp = TileObjectQuery.getObjectComposition(object);
-        if (comp == null) {
+        ActionIndex.Actions actions = ActionIndex.object(object);
+        if (actions == null) {
             return;
         }
-        if (comp.getActions() == null) {
+        int num = actions.op(actionlist);
+        if (num < 1 || num > 10) {
             return;
         }
-        List<String> actions = Arrays.stream(comp.getActions()).collect(Collectors.toList());
-        for (int i = 0; i < actions.size(); i++) {
-            if (actions.get(i) == null)
-                continue;
-            actions.set(i, actions.get(i).toLowerCase());
-        }
         Point p;
         if (object instanceof GameObject) {
             GameObject gameObject = (GameObject) object;
@@ -67,18 +57,6 @@ public class ObjectPackets {
         }
         LocalPoint lp = new LocalPoint(p.getX(), p.getY());
         WorldPoint wp = WorldPoint.fromScene(PacketReflection.getClient(), lp.getX(), lp.getY(), object.getPlane());
-        int num = -1;
-        for (String action : actions) {
-            for (String action2 : actionlist) {
-                if (action != null && action.equalsIgnoreCase(action2.toLowerCase())) {
-                    num = actions.indexOf(action) + 1;
-                }
-            }
-        }
-
-        if (num < 1 || num > 10) {
-            return;
-        }
         queueObjectAction(num, object.getId(), wp.getX(), wp.getY(), ctrlDown);
     }
 
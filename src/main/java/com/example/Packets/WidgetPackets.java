@@ -1,17 +1,10 @@
 package com.example.Packets;
 
-import com.example.EthanApiPlugin.EthanApiPlugin;
+import com.example.EthanApiPlugin.Collections.ActionIndex;
 import com.example.PacketUtils.PacketDef;
 import com.example.PacketUtils.PacketReflection;
 import lombok.SneakyThrows;
-import net.runelite.api.ItemComposition;
 import net.runelite.api.widgets.Widget;
-import net.runelite.client.util.Text;
-
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Collectors;
 
 public class WidgetPackets {
     @SneakyThrows
@@ -25,39 +18,12 @@ public class WidgetPackets {
             return;
         }
 
-        ItemComposition composition = EthanApiPlugin.getClient().getItemDefinition(widget.getItemId());
-        String[][] subOps = composition.getSubops();
-        List<String> actions = Arrays.stream(widget.getActions()).collect(Collectors.toList());
-
-        int menuIndex = -1;
-        int actionIndex = -1;
-
-        if (subOps == null) {
+        ActionIndex.Actions itemActions = ActionIndex.item(widget.getItemId());
+        if (itemActions == null) {
             return;
         }
-
-        for (String[] subOp : subOps) {
-            if (actionIndex != -1) {
-                break;
-            }
-            if (subOp != null) {
-                for (int i = 0; i < subOp.length; i++) {
-                    String op = subOp[i];
-                    if (op != null && op.equalsIgnoreCase(action)) {
-                        actionIndex = i;
-                        break;
-                    }
-                }
-            }
-        }
-
-        for (int i = 0; i < actions.size(); i++) {
-            String a = actions.get(i);
-            if (a != null && a.equalsIgnoreCase(menu)) {
-                menuIndex = i + 1;
-                break;
-            }
-        }
+        int actionIndex = itemActions.subOp(action);
+        int menuIndex = ActionIndex.firstOp(widget.getActions(), menu);
 
         if (menuIndex == -1 || actionIndex == -1) {
             return;
@@ -72,20 +38,7 @@ public class WidgetPackets {
         if (widget == null) {
             return;
         }
-        List<String> actions = Arrays.stream(widget.getActions()).collect(Collectors.toList());
-        for (int i = 0; i < actions.size(); i++) {
-            if (actions.get(i) == null)
-                continue;
-            actions.set(i, actions.get(i).toLowerCase());
-        }
-        int num = -1;
-        for (String action : actions) {
-            for (String action2 : actionlist) {
-                if (action != null && Text.removeTags(action).equalsIgnoreCase(action2)) {
-                    num = actions.indexOf(action.toLowerCase()) + 1;
-                }
-            }
-        }
+        int num = ActionIndex.op(widget.getActions(), actionlist);
 
         if (num < 1 || num > 10) {
             return;
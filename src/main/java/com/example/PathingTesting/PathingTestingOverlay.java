@@ -1,15 +1,10 @@
 package com.example.PathingTesting;
 
-import com.google.common.base.Strings;
+import com.example.EthanApiPlugin.Utility.TilePathRenderer;
 import net.runelite.api.Client;
-import net.runelite.api.Perspective;
-import net.runelite.api.Point;
-import net.runelite.api.coords.LocalPoint;
-import net.runelite.api.coords.WorldPoint;
 import net.runelite.client.ui.overlay.Overlay;
 import net.runelite.client.ui.overlay.OverlayLayer;
 import net.runelite.client.ui.overlay.OverlayPosition;
-import net.runelite.client.ui.overlay.OverlayUtil;
 
 import java.awt.*;
 
@@ -17,10 +12,12 @@ public class PathingTestingOverlay extends Overlay {
     PathingTesting plugin;
     Client client;
     PathingTestingConfig config;
+    private final TilePathRenderer renderer;
     PathingTestingOverlay(Client client, PathingTesting plugin,PathingTestingConfig config) {
         this.plugin = plugin;
         this.client = client;
         this.config = config;
+        this.renderer = new TilePathRenderer(client, Color.MAGENTA, 25, new BasicStroke((float) 1), true);
         setPosition(OverlayPosition.DYNAMIC);
         setLayer(OverlayLayer.ABOVE_SCENE);
     }
@@ -33,36 +30,8 @@ public class PathingTestingOverlay extends Overlay {
         if(PathingTesting.fullPath ==null){
             return null;
         }
-        int i =1;
-        for (WorldPoint worldPoint : PathingTesting.fullPath) {
-            drawTile(graphics, worldPoint, Color.MAGENTA, 25, String.valueOf(i),  new BasicStroke((float) 1));
-            i++;
-        }
+        renderer.setTiles(PathingTesting.fullPath);
+        renderer.render(graphics);
         return null;
     }
-
-    private void drawTile(Graphics2D graphics, WorldPoint point, Color color, int alpha, String label, Stroke borderStroke) {
-        WorldPoint playerLocation = client.getLocalPlayer().getWorldLocation();
-
-        if (point.distanceTo(playerLocation) >= 32) {
-            return;
-        }
-
-        LocalPoint lp = LocalPoint.fromWorld(client, point);
-        if (lp == null) {
-            return;
-        }
-
-        Polygon poly = Perspective.getCanvasTilePoly(client, lp);
-        if (poly != null) {
-            OverlayUtil.renderPolygon(graphics, poly, color, new Color(color.getRed(), color.getGreen(), color.getBlue(), alpha), borderStroke);
-        }
-        if (!Strings.isNullOrEmpty(label)) {
-            Point canvasTextLocation = Perspective.getCanvasTextLocation(client, graphics, lp, label, 0);
-            if (canvasTextLocation != null) {
-                graphics.setFont(new Font("Arial", 1, 15));
-                OverlayUtil.renderTextLocation(graphics, canvasTextLocation, label, color);
-            }
-        }
-    }
 }
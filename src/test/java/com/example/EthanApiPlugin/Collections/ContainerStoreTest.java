@@ -0,0 +1,143 @@
+package com.example.EthanApiPlugin.Collections;
+
+import com.example.EthanApiPlugin.Collections.query.ItemQuery;
+import com.example.Stubs;
+import net.runelite.api.Item;
+import net.runelite.api.widgets.Widget;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ContainerStoreTest {
+    private static final Item[] ITEMS = {
+            new Item(995, 1000),
+            new Item(-1, 0),
+            new Item(385, 1),
+            new Item(6512, 1),
+            new Item(385, 1),
+            null,
+            new Item(2434, 3)
+    };
+    private ContainerStore store;
+    private final Set<Integer> nullSlots = new HashSet<>();
+    private int created = 0;
+
+    @BeforeClass
+    public static void injector() {
+        Stubs.injector();
+    }
+
+    @Before
+    public void setUp() {
+        store = new ContainerStore((itemId, quantity, slot) -> {
+            created++;
+            if (nullSlots.contains(slot)) {
+                return null;
+            }
+            return Stubs.of(Widget.class, Map.of("getItemId", itemId, "getItemQuantity", quantity, "getIndex", slot));
+        });
+        assertTrue(store.update(ITEMS, null));
+    }
+
+    private static List<Integer> ids(List<Widget> widgets) {
+        List<Integer> ids = new ArrayList<>();
+        for (Widget widget : widgets) {
+            ids.add(widget.getItemId());
+        }
+        return ids;
+    }
+
+    private static List<Integer> slots(List<Widget> widgets) {
+        List<Integer> slots = new ArrayList<>();
+        for (Widget widget : widgets) {
+            slots.add(widget.getIndex());
+        }
+        return slots;
+    }
+
+    @Test
+    public void rowsSkipEmptySlotsAndPlaceholders() {
+        ContainerStore.Contents contents = store.contents();
+        assertEquals(4, contents.size());
+        assertEquals(List.of(0, 2, 4, 6), slots(contents.widgets()));
+        assertEquals(6512, contents.getSlotId(3));
+        assertEquals(-1, contents.getSlotId(5));
+        assertEquals(3, contents.indexOf(2434));
+    }
+
+    @Test
+    public void filtersMatchTheRows() {
+        assertEquals(List.of(385, 385), ids(store.query().withId(385).result()));
+        assertEquals(List.of(2, 4), slots(store.query().withId(385).result()));
+        assertEquals(List.of(995, 2434), ids(store.query().quantityGreaterThan(1).result()));
+        assertEquals(List.of(385), ids(store.query().indexIs(4).result()));
+        assertEquals(List.of(995, 2434), ids(store.query().idInList(995, 2434, 1).result()));
+        assertEquals(List.of(385, 385, 2434), ids(store.query().withSet(Set.of(385, 2434)).result()));
+        assertTrue(store.query().withId(6512).empty());
+        assertTrue(store.query().indexIs(5).empty());
+        assertFalse(store.query().nonPlaceHolder().empty());
+    }
+
+    @Test
+    public void filtersOnlyMakeTheWidgetsTheyReturn() {
+        assertFalse(store.query().withId(2434).empty());
+        assertEquals(0, created);
+        assertEquals(6, store.query().withId(2434).first().get().getIndex());
+        assertEquals(1, created);
+    }
+
+    @Test
+    public void chainedFiltersAfterAWidgetFilter() {
+        List<Widget> result = store.query().filter(w -> w.getIndex() > 0).withId(385).quantityGreaterThan(0).result();
+        assertEquals(List.of(2, 4), slots(result));
+    }
+
+    @Test
+    public void firstSkipsRowsWithoutAWidget() {
+        nullSlots.add(2);
+        ItemQuery query = store.query().withId(385);
+        assertEquals(4, query.first().get().getIndex());
+    }
+
+    @Test
+    public void firstIsEmptyWhenNoRowHasAWidget() {
+        nullSlots.add(2);
+        nullSlots.add(4);
+        assertFalse(store.query().withId(385).first().isPresent());
+    }
+
+    @Test
+    public void unchangedUpdateKeepsTheVersion() {
+        int version = store.getVersion();
+        assertFalse(store.update(ITEMS.clone(), null));
+        assertEquals(version, store.getVersion());
+    }
+
+    @Test
+    public void oldContentsDontSeeLaterUpdates() {
+        ContainerStore.Contents before = store.contents();
+        Item[] changed = ITEMS.clone();
+        changed[0] = new Item(995, 5);
+        changed[2] = new Item(-1, 0);
+        assertTrue(store.update(changed, null));
+        assertEquals(List.of(995, 385, 385, 2434), ids(new ItemQuery(before).result()));
+        assertEquals(1000, before.getQuantity(0));
+        assertEquals(List.of(995, 385, 2434), ids(store.query().result()));
+        assertEquals(5, store.contents().getQuantity(0));
+    }
+
+    @Test
+    public void slotFilterDropsRows() {
+        store.update(new Item[0], null);
+        store.update(ITEMS, (itemId, quantity) -> itemId != 995);
+        assertEquals(List.of(385, 385, 2434), ids(store.query().result()));
+    }
+}
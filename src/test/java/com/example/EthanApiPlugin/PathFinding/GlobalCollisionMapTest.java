@@ -0,0 +1,132 @@
+package com.example.EthanApiPlugin.PathFinding;
+
+import com.example.EthanApiPlugin.Profiling.FindPathEvent;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+//the search findPath runs, over two 5x5 rooms one above the other instead of the collision map
+public class GlobalCollisionMapTest {
+    private static final WorldPoint START = new WorldPoint(3200, 3200, 0);
+    private static final WorldPoint STAIRS = new WorldPoint(3202, 3202, 0);
+    private static final WorldPoint UPSTAIRS = new WorldPoint(3202, 3202, 1);
+    private static final WorldPoint GOAL = new WorldPoint(3204, 3204, 1);
+    //right at the start, but slower than walking to the stairs
+    private static final TransportIndex.Transport LADDER = new TransportIndex.Transport(START, new WorldPoint(3200, 3200, 1), 16683, "Climb-up", 10);
+    private static final TransportIndex.Transport STAIRCASE = new TransportIndex.Transport(STAIRS, UPSTAIRS, 16671, "Climb-up", 3);
+
+    private static Set<WorldPoint> rooms() {
+        Set<WorldPoint> tiles = new HashSet<>();
+        for (int plane = 0; plane <= 1; plane++) {
+            for (int x = 0; x < 5; x++) {
+                for (int y = 0; y < 5; y++) {
+                    tiles.add(new WorldPoint(3200 + x, 3200 + y, plane));
+                }
+            }
+        }
+        return tiles;
+    }
+
+    //a step is open when both ends are room tiles
+    private static GlobalCollisionMap.Walls walls(Set<WorldPoint> tiles) {
+        return new GlobalCollisionMap.Walls() {
+            @Override
+            public boolean west(WorldPoint wp) {
+                return tiles.contains(wp) && tiles.contains(wp.dx(-1));
+            }
+
+            @Override
+            public boolean east(WorldPoint wp) {
+                return tiles.contains(wp) && tiles.contains(wp.dx(1));
+            }
+
+            @Override
+            public boolean south(WorldPoint wp) {
+                return tiles.contains(wp) && tiles.contains(wp.dy(-1));
+            }
+
+            @Override
+            public boolean north(WorldPoint wp) {
+                return tiles.contains(wp) && tiles.contains(wp.dy(1));
+            }
+        };
+    }
+
+    private static TransportIndex index(TransportIndex.Transport... transports) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TransportIndex.write(bytes, Arrays.asList(transports));
+        return TransportIndex.read(new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    private static List<WorldPoint> search(WorldPoint goal, Set<WorldPoint> tiles, TransportIndex index) {
+        return GlobalCollisionMap.search(START, goal, walls(tiles), index, new FindPathEvent());
+    }
+
+    //every step is a plain step or one of the index's transports
+    private static void assertConnected(List<WorldPoint> path, TransportIndex index) {
+        WorldPoint previous = START;
+        for (WorldPoint tile : path) {
+            boolean step = tile.getPlane() == previous.getPlane()
+                    && Math.abs(tile.getX() - previous.getX()) + Math.abs(tile.getY() - previous.getY()) == 1;
+            assertTrue(previous + " -> " + tile, step || index.between(previous, tile) != null);
+            previous = tile;
+        }
+    }
+
+    @Test
+    public void takesTheCheaperTransportUpstairs() throws IOException {
+        TransportIndex index = index(LADDER, STAIRCASE);
+        List<WorldPoint> path = search(GOAL, rooms(), index);
+        assertNotNull(path);
+        //4 steps to the stairs, the stairs, 4 steps to the goal
+        assertEquals(9, path.size());
+        assertEquals(UPSTAIRS, path.get(path.indexOf(STAIRS) + 1));
+        assertEquals(GOAL, path.get(path.size() - 1));
+        assertConnected(path, index);
+    }
+
+    //the ring has 11 buckets, so the tiles past the ladder wrap around it
+    @Test
+    public void costlyTransportWhenItsTheOnlyWayUp() throws IOException {
+        TransportIndex index = index(LADDER);
+        List<WorldPoint> path = search(GOAL, rooms(), index);
+        assertNotNull(path);
+        assertEquals(LADDER.getDestination(), path.get(0));
+        assertEquals(9, path.size());
+        assertConnected(path, index);
+    }
+
+    @Test
+    public void noTransportsIsABfs() throws IOException {
+        TransportIndex index = index();
+        List<WorldPoint> path = search(new WorldPoint(3204, 3203, 0), rooms(), index);
+        assertNotNull(path);
+        assertEquals(7, path.size());
+        assertConnected(path, index);
+        assertNull(search(GOAL, rooms(), index));
+    }
+
+    @Test
+    public void wallOffTheGoal() throws IOException {
+        Set<WorldPoint> tiles = rooms();
+        for (int x = 0; x < 5; x++) {
+            tiles.remove(new WorldPoint(3200 + x, 3203, 1));
+        }
+        assertNull(search(GOAL, tiles, index(LADDER, STAIRCASE)));
+    }
+
+    @Test
+    public void alreadyThere() throws IOException {
+        assertTrue(search(START, rooms(), index(STAIRCASE)).isEmpty());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.EthanApiPlugin.PathFinding;
+
+import com.example.EthanApiPlugin.EthanApiPlugin;
+import com.example.Stubs;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+//One planner kept across a run of random changes, every answer checked against a fresh pathToGoalSet. Most steps
+//change a few tiles so the planner repairs, some change enough that it starts over.
+public class IncrementalPlannerTest {
+    @BeforeClass
+    public static void injector() {
+        Stubs.injector();
+    }
+
+    private static void assertBfsLength(IncrementalPlanner planner, Scene scene, String label) {
+        List<WorldPoint> expected = EthanApiPlugin.pathToGoalSet(scene.goals, scene.dangerous, scene.impassible,
+                scene.walkable, scene.start);
+        List<WorldPoint> actual = planner.pathToGoalSet(scene.goals, scene.dangerous, scene.impassible, scene.walkable,
+                scene.start);
+        assertEquals(label, Scene.length(expected), Scene.length(actual));
+        if (actual != null && !actual.isEmpty()) {
+            assertTrue(label, scene.goals.contains(actual.get(actual.size() - 1)));
+        }
+    }
+
+    @Test
+    public void randomChangesMatchPathToGoalSet() {
+        int repairs = 0;
+        for (long seed = 0; seed < 8; seed++) {
+            Scene scene = new Scene(seed, 0.6 + (seed % 3) * 0.1);
+            IncrementalPlanner planner = new IncrementalPlanner();
+            for (int step = 0; step < 150; step++) {
+                int roll = scene.random.nextInt(20);
+                if (roll == 0) {
+                    //too many to repair
+                    scene.toggle(scene.impassible, 2000);
+                } else if (roll < 4) {
+                    scene.start = scene.free();
+                } else if (roll < 6) {
+                    scene.goals.remove(scene.goals.iterator().next());
+                    scene.goals.add(scene.free());
+                } else {
+                    scene.toggle(scene.dangerous, scene.random.nextInt(12));
+                    scene.toggle(scene.impassible, scene.random.nextInt(12));
+                }
+                assertBfsLength(planner, scene, "seed " + seed + " step " + step);
+                if (!planner.wasLastFullSearch()) {
+                    repairs++;
+                }
+            }
+        }
+        assertTrue("no step was repaired", repairs > 0);
+    }
+
+    //the goals get walled off a tile at a time, then opened up again, with the start moving in between
+    @Test
+    public void goalUnreachableThenReachableAgain() {
+        Scene scene = new Scene(11, 0.85);
+        IncrementalPlanner planner = new IncrementalPlanner();
+        WorldPoint goal = scene.free();
+        scene.goals.clear();
+        scene.goals.add(goal);
+        scene.start = scene.free();
+        assertBfsLength(planner, scene, "open");
+        Set<WorldPoint> wall = Scene.ring(goal, 1);
+        wall.remove(scene.start);
+        Set<WorldPoint> danger = new HashSet<>(wall);
+        for (WorldPoint tile : wall) {
+            scene.impassible.add(tile);
+            assertBfsLength(planner, scene, "walling " + tile);
+        }
+        assertNull(planner.pathToGoalSet(scene.goals, scene.dangerous, scene.impassible, scene.walkable, scene.start));
+        scene.start = scene.free();
+        assertBfsLength(planner, scene, "walled, moved start");
+        //dangerous tiles can be passed over but not stood on
+        scene.impassible.removeAll(wall);
+        scene.dangerous.addAll(danger);
+        assertBfsLength(planner, scene, "dangerous ring");
+        for (WorldPoint tile : danger) {
+            scene.dangerous.remove(tile);
+            assertBfsLength(planner, scene, "reopening " + tile);
+        }
+        assertNotNull(planner.pathToGoalSet(scene.goals, scene.dangerous, scene.impassible, scene.walkable, scene.start));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.EthanApiPlugin.PathFinding;
+
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+//A random 104x104 scene for checking the planners against EthanApiPlugin.pathToGoalSet. The corner tile is always
+//walkable so every planner lines its grid up with the same base.
+class Scene {
+    static final int SIZE = TileBits.SIZE;
+    static final int BASE_X = 3136;
+    static final int BASE_Y = 3136;
+    static final int PLANE = 0;
+
+    final Random random;
+    final HashSet<WorldPoint> walkable = new HashSet<>();
+    final HashSet<WorldPoint> impassible = new HashSet<>();
+    final HashSet<WorldPoint> dangerous = new HashSet<>();
+    final HashSet<WorldPoint> goals = new HashSet<>();
+    WorldPoint start;
+
+    Scene(long seed, double open) {
+        random = new Random(seed);
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                if (random.nextDouble() < open) {
+                    walkable.add(tile(x, y));
+                }
+            }
+        }
+        walkable.add(tile(0, 0));
+        start = free();
+        for (int i = 0; i < 3; i++) {
+            goals.add(free());
+        }
+    }
+
+    static WorldPoint tile(int x, int y) {
+        return new WorldPoint(BASE_X + x, BASE_Y + y, PLANE);
+    }
+
+    WorldPoint any() {
+        return tile(random.nextInt(SIZE), random.nextInt(SIZE));
+    }
+
+    //walkable, not impassible and not dangerous
+    WorldPoint free() {
+        while (true) {
+            WorldPoint tile = any();
+            if (walkable.contains(tile) && !impassible.contains(tile) && !dangerous.contains(tile)) {
+                return tile;
+            }
+        }
+    }
+
+    //flips count random tiles in or out of the set, never the corner or the start
+    void toggle(Set<WorldPoint> tiles, int count) {
+        for (int i = 0; i < count; i++) {
+            WorldPoint tile = any();
+            if (tile.equals(tile(0, 0)) || tile.equals(start)) {
+                continue;
+            }
+            if (!tiles.remove(tile)) {
+                tiles.add(tile);
+            }
+        }
+    }
+
+    //every tile within radius of center that isn't center itself
+    static Set<WorldPoint> ring(WorldPoint center, int radius) {
+        Set<WorldPoint> tiles = new HashSet<>();
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dy = -radius; dy <= radius; dy++) {
+                if (dx != 0 || dy != 0) {
+                    tiles.add(center.dx(dx).dy(dy));
+                }
+            }
+        }
+        return tiles;
+    }
+
+    //-1 for no path
+    static int length(List<WorldPoint> path) {
+        return path == null ? -1 : path.size();
+    }
+}
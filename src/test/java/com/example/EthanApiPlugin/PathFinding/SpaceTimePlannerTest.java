@@ -0,0 +1,138 @@
+package com.example.EthanApiPlugin.PathFinding;
+
+import com.example.EthanApiPlugin.EthanApiPlugin;
+import com.example.Stubs;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+//with no hazards the earliest arrival is the fewest moves, so every plan has to be as long as a plain bfs over the
+//same moves. pathToGoalSet has no single tile straight steps, so its paths can only be as long or longer
+public class SpaceTimePlannerTest {
+    private static final int HORIZON = Scene.SIZE * Scene.SIZE;
+
+    @BeforeClass
+    public static void injector() {
+        Stubs.injector();
+    }
+
+    //moves to the nearest goal over RUN, tile by tile, -1 when there's no way there
+    private static int bfs(Scene scene) {
+        if (scene.goals.contains(scene.start)) {
+            return 0;
+        }
+        Map<WorldPoint, Integer> distances = new HashMap<>();
+        ArrayDeque<WorldPoint> queue = new ArrayDeque<>();
+        distances.put(scene.start, 0);
+        queue.add(scene.start);
+        while (!queue.isEmpty()) {
+            WorldPoint current = queue.poll();
+            for (int move = 0; move < StepModel.RUN.size(); move++) {
+                WorldPoint next = current.dx(StepModel.RUN.dx(move)).dy(StepModel.RUN.dy(move));
+                if (distances.containsKey(next) || !open(scene, next)) {
+                    continue;
+                }
+                boolean clear = true;
+                for (int[] through : StepModel.RUN.through(move)) {
+                    clear &= open(scene, current.dx(through[0]).dy(through[1]));
+                }
+                if (!clear) {
+                    continue;
+                }
+                if (scene.goals.contains(next)) {
+                    return distances.get(current) + 1;
+                }
+                distances.put(next, distances.get(current) + 1);
+                queue.add(next);
+            }
+        }
+        return -1;
+    }
+
+    private static boolean open(Scene scene, WorldPoint tile) {
+        return scene.walkable.contains(tile) && !scene.impassible.contains(tile);
+    }
+
+    private static void assertShortest(Scene scene, String label) {
+        List<WorldPoint> actual = SpaceTimePlanner.plan(scene.start, scene.goals, new SpaceTimePlanner.Hazards(),
+                scene.walkable, scene.impassible, StepModel.RUN, HORIZON);
+        assertEquals(label, bfs(scene), Scene.length(actual));
+        if (actual != null && !actual.isEmpty()) {
+            assertTrue(label, scene.goals.contains(actual.get(actual.size() - 1)));
+        }
+        List<WorldPoint> directions = EthanApiPlugin.pathToGoalSet(scene.goals, new HashSet<>(), scene.impassible,
+                scene.walkable, scene.start);
+        if (directions != null) {
+            assertNotNull(label, actual);
+            assertTrue(label, actual.size() <= directions.size());
+        }
+    }
+
+    @Test
+    public void emptyHazardsPlanShortestPaths() {
+        for (long seed = 0; seed < 40; seed++) {
+            Scene scene = new Scene(seed, 0.55 + (seed % 4) * 0.1);
+            scene.toggle(scene.impassible, 400);
+            for (int i = 0; i < 5; i++) {
+                scene.start = scene.free();
+                assertShortest(scene, "seed " + seed + " start " + scene.start);
+            }
+        }
+    }
+
+    @Test
+    public void walledOffGoalHasNoPlan() {
+        Scene scene = new Scene(7, 0.9);
+        WorldPoint goal = scene.free();
+        scene.goals.clear();
+        scene.goals.add(goal);
+        scene.impassible.addAll(Scene.ring(goal, 1));
+        scene.start = scene.free();
+        assertNull(SpaceTimePlanner.plan(scene.start, scene.goals, new SpaceTimePlanner.Hazards(), scene.walkable,
+                scene.impassible, StepModel.RUN, HORIZON));
+        scene.impassible.clear();
+        assertShortest(scene, "reopened");
+    }
+
+    //the next tile of a one wide corridor is a single straight step
+    @Test
+    public void oneStepAlongACorridor() {
+        Set<WorldPoint> corridor = new HashSet<>();
+        for (int x = 0; x < 10; x++) {
+            corridor.add(Scene.tile(x, 0));
+        }
+        List<WorldPoint> plan = SpaceTimePlanner.plan(Scene.tile(3, 0), Set.of(Scene.tile(4, 0)),
+                new SpaceTimePlanner.Hazards(), corridor, new HashSet<>(), StepModel.RUN, HORIZON);
+        assertEquals(Arrays.asList(Scene.tile(4, 0)), plan);
+    }
+
+    //everything in the 3x3 around the start is hit next tick except the tile to its east
+    @Test
+    public void stepsSidewaysOutOfAnAoe() {
+        Set<WorldPoint> walkable = new HashSet<>();
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 10; y++) {
+                walkable.add(Scene.tile(x, y));
+            }
+        }
+        WorldPoint start = Scene.tile(5, 5);
+        Set<WorldPoint> aoe = Scene.ring(start, 2);
+        aoe.add(start);
+        aoe.remove(start.dx(1));
+        List<WorldPoint> plan = SpaceTimePlanner.plan(start, Set.of(Scene.tile(9, 5)), new SpaceTimePlanner.Hazards().at(1, aoe),
+                walkable, new HashSet<>(), StepModel.RUN, HORIZON);
+        assertNotNull(plan);
+        assertEquals(start.dx(1), plan.get(0));
+        assertEquals(Scene.tile(9, 5), plan.get(plan.size() - 1));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.EthanApiPlugin.PathFinding;
+
+import net.runelite.api.coords.WorldPoint;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+public class TransportIndexTest {
+    private static final WorldPoint STAIRS = new WorldPoint(3205, 3209, 0);
+    private static final WorldPoint UPSTAIRS = new WorldPoint(3205, 3209, 1);
+    private static final WorldPoint DOOR = new WorldPoint(3101, 3509, 0);
+    private static final WorldPoint OUTSIDE = new WorldPoint(3102, 3509, 0);
+    private static final WorldPoint LADDER = new WorldPoint(3097, 3468, 0);
+    private static final WorldPoint DUNGEON = new WorldPoint(3096, 9867, 0);
+
+    //written out of order and with a shared source, read has to get them back sorted by source
+    private static final List<TransportIndex.Transport> TRANSPORTS = Arrays.asList(
+            new TransportIndex.Transport(STAIRS, UPSTAIRS, 16671, "Climb-up", 3),
+            new TransportIndex.Transport(LADDER, DUNGEON, 17385, "Climb-down", 2),
+            new TransportIndex.Transport(DOOR, OUTSIDE, 1535, "Open", 1),
+            new TransportIndex.Transport(STAIRS, UPSTAIRS, 16672, "Climb-up", 2),
+            new TransportIndex.Transport(LADDER, new WorldPoint(3097, 3468, 1), 17384, "Climb-up", 70000)
+    );
+
+    private static TransportIndex roundTrip(List<TransportIndex.Transport> transports) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TransportIndex.write(bytes, transports);
+        return TransportIndex.read(new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test
+    public void writeThenReadKeepsEveryEdge() throws IOException {
+        TransportIndex index = roundTrip(TRANSPORTS);
+        assertEquals(TRANSPORTS.size(), index.size());
+        List<String> written = new ArrayList<>();
+        for (TransportIndex.Transport transport : TRANSPORTS) {
+            written.add(transport.toString().replace("(70000)", "(65535)"));
+        }
+        List<String> read = new ArrayList<>();
+        for (int i = 0; i < index.size(); i++) {
+            read.add(index.get(i).toString());
+            if (i > 0) {
+                assertTrue(index.source(i - 1) <= index.source(i));
+            }
+        }
+        assertTrue(read.containsAll(written) && written.containsAll(read));
+        //costs past a short are clamped
+        assertEquals(65535, index.getMaxCost());
+    }
+
+    @Test
+    public void lookupsBySource() throws IOException {
+        TransportIndex index = roundTrip(TRANSPORTS);
+        assertEquals(2, index.from(STAIRS).size());
+        assertEquals(2, index.from(LADDER).size());
+        assertTrue(index.from(UPSTAIRS).isEmpty());
+        int first = index.first(GlobalCollisionMap.packed(DOOR));
+        assertEquals(GlobalCollisionMap.packed(DOOR), index.source(first));
+        assertEquals(GlobalCollisionMap.packed(OUTSIDE), index.destination(first));
+        assertEquals(1, index.cost(first));
+        int none = index.first(GlobalCollisionMap.packed(UPSTAIRS));
+        assertTrue(none == index.size() || index.source(none) != GlobalCollisionMap.packed(UPSTAIRS));
+
+        TransportIndex.Transport cheapest = index.between(STAIRS, UPSTAIRS);
+        assertEquals(16672, cheapest.getObjectId());
+        assertEquals("Climb-up", cheapest.getAction());
+        assertEquals(2, cheapest.getCost());
+        assertEquals("Climb-down", index.between(LADDER, DUNGEON).getAction());
+        assertNull(index.between(UPSTAIRS, STAIRS));
+    }
+
+    @Test
+    public void emptyIndex() throws IOException {
+        TransportIndex index = roundTrip(new ArrayList<>());
+        assertEquals(0, index.size());
+        assertEquals(0, index.getMaxCost());
+        assertEquals(0, index.first(GlobalCollisionMap.packed(STAIRS)));
+        assertNull(index.between(STAIRS, UPSTAIRS));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsAnotherVersion() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(TransportIndex.VERSION + 1);
+        }
+        TransportIndex.read(new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.EthanApiPlugin.PathFinding;
+
+import com.example.EthanApiPlugin.EthanApiPlugin;
+import com.example.Stubs;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+//every move costs 1 on an empty grid, so the cheapest path has to be as long as the BFS's
+public class WeightedPathfinderTest {
+    @BeforeClass
+    public static void injector() {
+        Stubs.injector();
+    }
+
+    private static void assertBfsLength(Scene scene, CostGrid costs, String label) {
+        List<WorldPoint> expected = EthanApiPlugin.pathToGoalSet(scene.goals, scene.dangerous, scene.impassible,
+                scene.walkable, scene.start);
+        List<WorldPoint> actual = WeightedPathfinder.pathToGoalSet(scene.goals, costs, scene.impassible, scene.walkable,
+                scene.start);
+        assertEquals(label, Scene.length(expected), Scene.length(actual));
+        if (actual != null && !actual.isEmpty()) {
+            assertTrue(label, scene.goals.contains(actual.get(actual.size() - 1)));
+        }
+    }
+
+    private static CostGrid grid() {
+        return new CostGrid(Scene.BASE_X, Scene.BASE_Y, Scene.PLANE);
+    }
+
+    @Test
+    public void emptyGridFindsBfsLengthPaths() {
+        for (long seed = 0; seed < 40; seed++) {
+            Scene scene = new Scene(seed, 0.55 + (seed % 4) * 0.1);
+            scene.toggle(scene.impassible, 400);
+            for (int i = 0; i < 5; i++) {
+                scene.start = scene.free();
+                assertBfsLength(scene, grid(), "seed " + seed + " start " + scene.start);
+            }
+        }
+    }
+
+    //blocked tiles are pathToGoalSet's dangerous ones, run over but never stood on
+    @Test
+    public void blockedTilesActLikeDangerous() {
+        for (long seed = 0; seed < 20; seed++) {
+            Scene scene = new Scene(seed, 0.75);
+            scene.toggle(scene.impassible, 300);
+            scene.toggle(scene.dangerous, 600);
+            scene.start = scene.free();
+            assertBfsLength(scene, grid().block(scene.dangerous), "seed " + seed);
+        }
+    }
+
+    @Test
+    public void walledOffGoalIsNullUntilReopened() {
+        Scene scene = new Scene(5, 0.9);
+        WorldPoint goal = scene.free();
+        scene.goals.clear();
+        scene.goals.add(goal);
+        scene.impassible.addAll(Scene.ring(goal, 1));
+        scene.start = scene.free();
+        assertNull(WeightedPathfinder.pathToGoalSet(scene.goals, grid(), scene.impassible, scene.walkable, scene.start));
+        assertBfsLength(scene, grid(), "walled");
+        scene.impassible.clear();
+        assertBfsLength(scene, grid(), "reopened");
+    }
+}
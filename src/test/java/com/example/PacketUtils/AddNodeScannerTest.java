@@ -0,0 +1,108 @@
+package com.example.PacketUtils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.Assert.*;
+
+//runs the scanner over the compiled classes in the fixtures package, which stand in for doAction's class
+public class AddNodeScannerTest {
+    private static final String FIXTURES = "com/example/PacketUtils/fixtures/";
+    private static final String WRITER = FIXTURES + "PacketWriter";
+    private static final String NODE = FIXTURES + "PacketBufferNode";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static InputStream classFile(String fixture) {
+        InputStream in = AddNodeScannerTest.class.getClassLoader().getResourceAsStream(FIXTURES + fixture + ".class");
+        assertNotNull(fixture + ".class isn't on the test classpath", in);
+        return in;
+    }
+
+    private static AddNodeScanner.Result scan(String fixture, String method) throws IOException {
+        try (InputStream in = classFile(fixture)) {
+            return AddNodeScanner.scan(in, method, WRITER, NODE);
+        }
+    }
+
+    @Test
+    public void staticAddNodeThroughTableAndLookupSwitches() throws IOException {
+        AddNodeScanner.Result result = scan("StaticAddNode", "doAction");
+        assertNotNull(result);
+        assertEquals(FIXTURES + "StaticAddNode", result.getOwner());
+        assertEquals("addNode", result.getName());
+        assertEquals("(L" + NODE + ";L" + WRITER + ";)V", result.getDescriptor());
+        assertEquals(8, result.getCalls());
+        assertFalse(result.isClientAddNode());
+        assertEquals("com.example.PacketUtils.fixtures.StaticAddNode.addNode", result.toConfigLine());
+    }
+
+    @Test
+    public void instanceAddNodeOnThePacketWriter() throws IOException {
+        AddNodeScanner.Result result = scan("InstanceAddNode", "doAction");
+        assertNotNull(result);
+        assertEquals(WRITER, result.getOwner());
+        assertEquals("addNode", result.getName());
+        assertEquals(3, result.getCalls());
+        assertTrue(result.isClientAddNode());
+        assertEquals("client.com.example.PacketUtils.fixtures.PacketWriter.addNode", result.toConfigLine());
+    }
+
+    //a misread wide instruction shifts every instruction after it, so the switch calls would be lost or miscounted
+    @Test
+    public void wideInstructionsKeepTheScanInStep() throws IOException {
+        AddNodeScanner.Result result = scan("WideAddNode", "doAction");
+        assertNotNull(result);
+        assertEquals("addNode", result.getName());
+        assertEquals(5, result.getCalls());
+    }
+
+    @Test
+    public void noCandidateIsNull() throws IOException {
+        assertNull(scan("NoCandidate", "doAction"));
+    }
+
+    @Test
+    public void onlyTheNamedMethodIsCounted() throws IOException {
+        AddNodeScanner.Result result = scan("StaticAddNode", "other");
+        assertNotNull(result);
+        assertEquals("flush", result.getName());
+        assertEquals(10, result.getCalls());
+        assertNull(scan("StaticAddNode", "missing"));
+    }
+
+    @Test
+    public void scansTheClassInsideAJar() throws IOException {
+        Path jar = folder.getRoot().toPath().resolve("injected.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar));
+             InputStream in = classFile("StaticAddNode")) {
+            out.putNextEntry(new JarEntry(FIXTURES + "StaticAddNode.class"));
+            in.transferTo(out);
+            out.closeEntry();
+        }
+        AddNodeScanner.Result result = AddNodeScanner.scan(jar, FIXTURES + "StaticAddNode", "doAction", WRITER, NODE);
+        assertNotNull(result);
+        assertEquals(8, result.getCalls());
+        try {
+            AddNodeScanner.scan(jar, FIXTURES + "NoCandidate", "doAction", WRITER, NODE);
+            fail("NoCandidate isn't in the jar");
+        } catch (FileNotFoundException expected) {
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsAnythingButAClassFile() throws IOException {
+        AddNodeScanner.scan(new ByteArrayInputStream(new byte[]{'P', 'K', 3, 4, 0, 0}), "doAction", WRITER, NODE);
+    }
+}
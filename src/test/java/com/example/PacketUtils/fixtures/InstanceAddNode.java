@@ -0,0 +1,21 @@
+package com.example.PacketUtils.fixtures;
+
+//addNode as the packet writer's own method, with a static helper taking the writer called less often
+public class InstanceAddNode {
+    static PacketWriter writer = new PacketWriter();
+
+    static void flush(PacketWriter writer) {
+        writer.flush();
+    }
+
+    static void doAction(int opcode) {
+        if (opcode == 1) {
+            writer.addNode(new PacketBufferNode());
+        } else if (opcode == 2) {
+            writer.addNode(new PacketBufferNode());
+        } else {
+            writer.addNode(new PacketBufferNode());
+        }
+        flush(writer);
+    }
+}
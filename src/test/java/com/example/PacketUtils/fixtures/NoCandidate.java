@@ -0,0 +1,19 @@
+package com.example.PacketUtils.fixtures;
+
+//doAction that never touches the packet writer
+public class NoCandidate {
+    static int last;
+
+    static void doAction(int opcode) {
+        switch (opcode) {
+            case 1:
+                last = Math.max(opcode, 10);
+                break;
+            case 2:
+                last = Math.min(opcode, 10);
+                break;
+            default:
+                last = String.valueOf(opcode).length();
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.PacketUtils.fixtures;
+
+public class PacketBufferNode {
+}
@@ -0,0 +1,13 @@
+package com.example.PacketUtils.fixtures;
+
+public class PacketWriter {
+    int queued;
+
+    public void addNode(PacketBufferNode node) {
+        queued++;
+    }
+
+    public void flush() {
+        queued = 0;
+    }
+}
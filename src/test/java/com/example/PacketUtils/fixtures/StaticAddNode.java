@@ -0,0 +1,62 @@
+package com.example.PacketUtils.fixtures;
+
+//addNode as a static helper taking the packet writer, called from a tableswitch and a lookupswitch. The
+//lookupswitch keys are made of bytes that aren't opcodes, so misreading its length stops the scan
+public class StaticAddNode {
+    static PacketWriter writer = new PacketWriter();
+
+    static void addNode(PacketBufferNode node, PacketWriter writer) {
+        writer.addNode(node);
+    }
+
+    //takes the writer too, but doAction only calls it once
+    static void flush(PacketWriter writer) {
+        writer.flush();
+    }
+
+    static void doAction(int opcode, int id) {
+        switch (opcode) {
+            case -2:
+                addNode(new PacketBufferNode(), writer);
+                break;
+            case -1:
+                addNode(new PacketBufferNode(), writer);
+                break;
+            case 0:
+                addNode(new PacketBufferNode(), writer);
+                break;
+            case 1:
+                addNode(new PacketBufferNode(), writer);
+                break;
+            case 2:
+                addNode(new PacketBufferNode(), writer);
+                break;
+        }
+        switch (id) {
+            case 0xcbcbcbcb:
+                addNode(new PacketBufferNode(), writer);
+                break;
+            case 0xcccccccc:
+                addNode(new PacketBufferNode(), writer);
+                break;
+            case 0xcdcdcdcd:
+                addNode(new PacketBufferNode(), writer);
+                break;
+        }
+        flush(writer);
+    }
+
+    //not doAction, its calls don't count
+    static void other() {
+        flush(writer);
+        flush(writer);
+        flush(writer);
+        flush(writer);
+        flush(writer);
+        flush(writer);
+        flush(writer);
+        flush(writer);
+        flush(writer);
+        flush(writer);
+    }
+}
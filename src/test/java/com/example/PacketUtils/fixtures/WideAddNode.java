@@ -0,0 +1,56 @@
+package com.example.PacketUtils.fixtures;
+
+//wide instructions ahead of and between the switches: an iinc with a big increment, and enough long locals that
+//far sits past slot 255 so every load, store and iinc of it is wide
+public class WideAddNode {
+    static PacketWriter writer = new PacketWriter();
+    static long sum;
+
+    static void addNode(PacketBufferNode node, PacketWriter writer) {
+        writer.addNode(node);
+    }
+
+    static void doAction(int opcode, int id) {
+        int near = opcode;
+        near += 1000;
+        long l0 = 0, l1 = 1, l2 = 2, l3 = 3, l4 = 4, l5 = 5, l6 = 6, l7 = 7;
+        long l8 = 8, l9 = 9, l10 = 10, l11 = 11, l12 = 12, l13 = 13, l14 = 14, l15 = 15;
+        long l16 = 16, l17 = 17, l18 = 18, l19 = 19, l20 = 20, l21 = 21, l22 = 22, l23 = 23;
+        long l24 = 24, l25 = 25, l26 = 26, l27 = 27, l28 = 28, l29 = 29, l30 = 30, l31 = 31;
+        long l32 = 32, l33 = 33, l34 = 34, l35 = 35, l36 = 36, l37 = 37, l38 = 38, l39 = 39;
+        long l40 = 40, l41 = 41, l42 = 42, l43 = 43, l44 = 44, l45 = 45, l46 = 46, l47 = 47;
+        long l48 = 48, l49 = 49, l50 = 50, l51 = 51, l52 = 52, l53 = 53, l54 = 54, l55 = 55;
+        long l56 = 56, l57 = 57, l58 = 58, l59 = 59, l60 = 60, l61 = 61, l62 = 62, l63 = 63;
+        long l64 = 64, l65 = 65, l66 = 66, l67 = 67, l68 = 68, l69 = 69, l70 = 70, l71 = 71;
+        long l72 = 72, l73 = 73, l74 = 74, l75 = 75, l76 = 76, l77 = 77, l78 = 78, l79 = 79;
+        long l80 = 80, l81 = 81, l82 = 82, l83 = 83, l84 = 84, l85 = 85, l86 = 86, l87 = 87;
+        long l88 = 88, l89 = 89, l90 = 90, l91 = 91, l92 = 92, l93 = 93, l94 = 94, l95 = 95;
+        long l96 = 96, l97 = 97, l98 = 98, l99 = 99, l100 = 100, l101 = 101, l102 = 102, l103 = 103;
+        long l104 = 104, l105 = 105, l106 = 106, l107 = 107, l108 = 108, l109 = 109, l110 = 110, l111 = 111;
+        long l112 = 112, l113 = 113, l114 = 114, l115 = 115, l116 = 116, l117 = 117, l118 = 118, l119 = 119;
+        long l120 = 120, l121 = 121, l122 = 122, l123 = 123, l124 = 124, l125 = 125, l126 = 126, l127 = 127;
+        int far = near;
+        far += 2000;
+        switch (far) {
+            case 3001:
+                addNode(new PacketBufferNode(), writer);
+                break;
+            case 3002:
+                addNode(new PacketBufferNode(), writer);
+                break;
+            case 3003:
+                addNode(new PacketBufferNode(), writer);
+                break;
+        }
+        far += 300;
+        switch (id) {
+            case -5:
+                addNode(new PacketBufferNode(), writer);
+                break;
+            case 50000:
+                addNode(new PacketBufferNode(), writer);
+                break;
+        }
+        sum = far + l0 + l127;
+    }
+}
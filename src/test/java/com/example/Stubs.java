@@ -0,0 +1,74 @@
+package com.example;
+
+import com.google.inject.Injector;
+import net.runelite.client.RuneLite;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Map;
+
+//Just enough of the client for unit tests. Most classes pull their dependencies from RuneLite.getInjector() in static
+//fields, so an injector has to be installed before they load.
+public class Stubs {
+    //getInstance gives the bound instance, or null for anything a test doesn't touch
+    public static void injector(Map<Class<?>, Object> bindings) {
+        RuneLite.setInjector((Injector) Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class[]{Injector.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getInstance") && args != null && args[0] instanceof Class) {
+                        return bindings.get(args[0]);
+                    }
+                    return defaultValue(method.getReturnType());
+                }));
+    }
+
+    public static void injector() {
+        injector(Collections.emptyMap());
+    }
+
+    //an interface answering the named no-arg methods from values and everything else with a default
+    @SuppressWarnings("unchecked")
+    public static <T> T of(Class<T> type, Map<String, Object> values) {
+        return (T) Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return type.getSimpleName() + values;
+            }
+            if (values.containsKey(method.getName())) {
+                return values.get(method.getName());
+            }
+            return defaultValue(method.getReturnType());
+        });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == char.class) {
+            return (char) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}